@@ -0,0 +1,114 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.benchmark;
+
+import com.alilitech.mybatis.benchmark.domain.BenchmarkUser;
+import com.alilitech.mybatis.benchmark.mapper.BenchmarkUserMapper;
+import com.alilitech.mybatis.jpa.criteria.specification.Specifications;
+import com.alilitech.mybatis.jpa.domain.Page;
+import org.apache.ibatis.session.SqlSession;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * end-to-end mapper calls against H2 in memory, each thread uses its own auto commit session
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CrudMapperBenchmark {
+
+    private List<Long> ids;
+
+    private SqlSession sqlSession;
+
+    private BenchmarkUserMapper mapper;
+
+    @Setup(Level.Trial)
+    public void setup(MybatisJpaState state) {
+        ids = state.getIds();
+        sqlSession = state.getSqlSessionFactory().openSession(true);
+        mapper = sqlSession.getMapper(BenchmarkUserMapper.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sqlSession.close();
+    }
+
+    /**
+     * avoid the local cache of session
+     */
+    @Setup(Level.Invocation)
+    public void clearCache() {
+        sqlSession.clearCache();
+    }
+
+    private Long randomId() {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    @Benchmark
+    public Optional<BenchmarkUser> findById() {
+        return mapper.findById(randomId());
+    }
+
+    @Benchmark
+    public List<BenchmarkUser> findByNameLike() {
+        return mapper.findByNameLike("user99");
+    }
+
+    @Benchmark
+    public List<BenchmarkUser> findAllPage() {
+        return mapper.findAllPage(Page.of(10, 20));
+    }
+
+    @Benchmark
+    public List<BenchmarkUser> findPageByDerivedMethod() {
+        return mapper.findPageByAgeGreaterThanOrderByAgeDesc(Page.of(10, 20), 50);
+    }
+
+    @Benchmark
+    public List<BenchmarkUser> findPageSpecification() {
+        return mapper.findPageSpecification(Page.of(10, 20), Specifications.<BenchmarkUser>and()
+                .equal("deptNo", "dept1")
+                .greaterThan("age", 18)
+                .order().desc("age")
+                .build());
+    }
+
+    @Benchmark
+    public int insert() {
+        return mapper.insert(MybatisJpaState.newUser(ThreadLocalRandom.current().nextInt(MybatisJpaState.ROWS)));
+    }
+
+    @Benchmark
+    public int updateById() {
+        BenchmarkUser user = MybatisJpaState.newUser(ThreadLocalRandom.current().nextInt(MybatisJpaState.ROWS));
+        user.setId(randomId());
+        return mapper.update(user);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.benchmark;
+
+import com.alilitech.mybatis.jpa.parameter.MybatisJpaParameterHandler;
+import org.apache.ibatis.binding.MapperMethod;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LIKE parameter rewriting of MybatisJpaParameterHandler
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LikeParameterBenchmark {
+
+    private MappedStatement singleParameterStatement;
+
+    private BoundSql singleParameterBoundSql;
+
+    private MappedStatement multipleParameterStatement;
+
+    private BoundSql multipleParameterBoundSql;
+
+    @Setup(Level.Trial)
+    public void setup(MybatisJpaState state) {
+        singleParameterStatement = state.getMappedStatement("findByNameLike");
+        singleParameterBoundSql = singleParameterStatement.getBoundSql("user1");
+        multipleParameterStatement = state.getMappedStatement("findByNameStartsWithAndDeptNo");
+        multipleParameterBoundSql = multipleParameterStatement.getBoundSql(newParamMap());
+    }
+
+    @Benchmark
+    public Object singleParameter() {
+        return new MybatisJpaParameterHandler(singleParameterStatement, "user1", singleParameterBoundSql).getParameterObject();
+    }
+
+    @Benchmark
+    public Object multipleParameters() {
+        return new MybatisJpaParameterHandler(multipleParameterStatement, newParamMap(), multipleParameterBoundSql).getParameterObject();
+    }
+
+    private static MapperMethod.ParamMap<Object> newParamMap() {
+        MapperMethod.ParamMap<Object> paramMap = new MapperMethod.ParamMap<>();
+        paramMap.put("arg0", "user1");
+        paramMap.put("param1", "user1");
+        paramMap.put("arg1", "dept1");
+        paramMap.put("param2", "dept1");
+        return paramMap;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.benchmark;
+
+import com.alilitech.mybatis.MybatisJpaBootstrap;
+import com.alilitech.mybatis.MybatisJpaProperties;
+import com.alilitech.mybatis.benchmark.domain.BenchmarkUser;
+import com.alilitech.mybatis.benchmark.mapper.BenchmarkUserMapper;
+import com.alilitech.mybatis.jpa.primary.key.SnowflakeKeyGeneratorBuilder;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The mybatis jpa started with an embedded H2 database, shared by all the benchmarks in a fork.
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+@State(Scope.Benchmark)
+public class MybatisJpaState {
+
+    public static final int ROWS = 10000;
+
+    private PooledDataSource dataSource;
+
+    private SqlSessionFactory sqlSessionFactory;
+
+    private final List<Long> ids = new ArrayList<>(ROWS);
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        dataSource = new PooledDataSource("org.h2.Driver", "jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1", "sa", "");
+        dataSource.setPoolMaximumActiveConnections(64);
+        dataSource.setPoolMaximumIdleConnections(64);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS t_benchmark_user");
+            statement.execute("CREATE TABLE t_benchmark_user(id BIGINT PRIMARY KEY, name VARCHAR(100), age INT, dept_no VARCHAR(50), update_time TIMESTAMP)");
+            statement.execute("CREATE INDEX idx_benchmark_user_name ON t_benchmark_user(name)");
+        }
+
+        Configuration configuration = new Configuration(new Environment("benchmark", new JdbcTransactionFactory(), dataSource));
+        configuration.setMapUnderscoreToCamelCase(true);
+        configuration.addMapper(BenchmarkUserMapper.class);
+
+        MybatisJpaProperties mybatisJpaProperties = new MybatisJpaProperties();
+        // same as spring configuration does
+        SnowflakeKeyGeneratorBuilder.getInstance().setMybatisJpaProperties(mybatisJpaProperties);
+        new MybatisJpaBootstrap(configuration).setMybatisJpaProperties(mybatisJpaProperties).start();
+
+        sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+
+        try (SqlSession sqlSession = sqlSessionFactory.openSession(true)) {
+            BenchmarkUserMapper mapper = sqlSession.getMapper(BenchmarkUserMapper.class);
+            List<BenchmarkUser> users = new ArrayList<>(1000);
+            for (int i = 0; i < ROWS; i++) {
+                users.add(newUser(i));
+                if (users.size() == 1000) {
+                    mapper.insertBatch(users);
+                    users.forEach(user -> ids.add(user.getId()));
+                    users.clear();
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataSource.forceCloseAll();
+    }
+
+    public static BenchmarkUser newUser(int index) {
+        return new BenchmarkUser("user" + index, index % 100, "dept" + (index % 10));
+    }
+
+    public SqlSessionFactory getSqlSessionFactory() {
+        return sqlSessionFactory;
+    }
+
+    public Configuration getConfiguration() {
+        return sqlSessionFactory.getConfiguration();
+    }
+
+    public MappedStatement getMappedStatement(String methodName) {
+        return getConfiguration().getMappedStatement(BenchmarkUserMapper.class.getName() + "." + methodName);
+    }
+
+    public List<Long> getIds() {
+        return ids;
+    }
+}
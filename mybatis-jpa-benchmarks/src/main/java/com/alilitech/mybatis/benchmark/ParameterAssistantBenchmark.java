@@ -0,0 +1,85 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.benchmark;
+
+import com.alilitech.mybatis.benchmark.domain.BenchmarkUser;
+import com.alilitech.mybatis.jpa.EntityMetaDataRegistry;
+import com.alilitech.mybatis.jpa.meta.EntityMetaData;
+import com.alilitech.mybatis.jpa.parameter.ParameterAssistant;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * key and trigger values populated by ParameterAssistant before insert and update
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParameterAssistantBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final ParameterAssistant parameterAssistant = new ParameterAssistant();
+
+    private EntityMetaData entityMetaData;
+
+    private MappedStatement insertStatement;
+
+    private MappedStatement insertBatchStatement;
+
+    private MappedStatement updateStatement;
+
+    private List<Object> batch;
+
+    @Setup(Level.Trial)
+    public void setup(MybatisJpaState state) {
+        entityMetaData = EntityMetaDataRegistry.getInstance().get(BenchmarkUser.class);
+        insertStatement = state.getMappedStatement("insert");
+        insertBatchStatement = state.getMappedStatement("insertBatch");
+        updateStatement = state.getMappedStatement("update");
+        batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(MybatisJpaState.newUser(i));
+        }
+    }
+
+    @Benchmark
+    public Object insert() {
+        return parameterAssistant.populateKeyAndTriggerValue(insertStatement, MybatisJpaState.newUser(1), entityMetaData);
+    }
+
+    @Benchmark
+    public Object update() {
+        return parameterAssistant.populateKeyAndTriggerValue(updateStatement, MybatisJpaState.newUser(1), entityMetaData);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<Object> insertBatch() {
+        parameterAssistant.populateKeysAndTriggerValues(insertBatchStatement, batch);
+        return batch;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.benchmark;
+
+import com.alilitech.mybatis.jpa.primary.key.snowflake.SnowflakeContext;
+import com.alilitech.mybatis.jpa.primary.key.snowflake.TimeCallbackStrategy;
+import com.alilitech.mybatis.jpa.primary.key.snowflake.generator.SnowflakeGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * every SnowflakeGenerator under contention, one context shared by all threads as an entity does.
+ * Note that the throughput is limited to 4096 ids per millisecond by the sequence bits.
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class SnowflakeGeneratorBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"WAITING", "EXTRA", "OFFSET_MODIFY"})
+    private TimeCallbackStrategy strategy;
+
+    private SnowflakeContext snowflakeContext;
+
+    private SnowflakeGenerator snowflakeGenerator;
+
+    @Setup(Level.Trial)
+    public void setup() throws ReflectiveOperationException {
+        snowflakeContext = strategy == TimeCallbackStrategy.EXTRA ? new SnowflakeContext(1, 1, 2) : new SnowflakeContext(1, 1);
+        snowflakeGenerator = strategy.getClazz().getDeclaredConstructor().newInstance();
+    }
+
+    @Benchmark
+    public long generate() {
+        return snowflakeGenerator.generate(snowflakeContext);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long[] generateBatch() {
+        return snowflakeGenerator.generateBatch(snowflakeContext, BATCH_SIZE);
+    }
+}
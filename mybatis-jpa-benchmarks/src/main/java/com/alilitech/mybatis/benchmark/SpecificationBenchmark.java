@@ -0,0 +1,73 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.benchmark;
+
+import com.alilitech.mybatis.benchmark.domain.BenchmarkUser;
+import com.alilitech.mybatis.jpa.criteria.Specification;
+import com.alilitech.mybatis.jpa.criteria.specification.Specifications;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * specification rendered by SpecificationDynamicSqlSource
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SpecificationBenchmark {
+
+    private MappedStatement mappedStatement;
+
+    private Specification<BenchmarkUser> simpleSpecification;
+
+    private Specification<BenchmarkUser> complexSpecification;
+
+    @Setup(Level.Trial)
+    public void setup(MybatisJpaState state) {
+        mappedStatement = state.getMappedStatement("findAllSpecification");
+        simpleSpecification = Specifications.<BenchmarkUser>and()
+                .equal("deptNo", "dept1")
+                .build();
+        complexSpecification = Specifications.<BenchmarkUser>and()
+                .equal(BenchmarkUser::getDeptNo, "dept1")
+                .greaterThan("age", 18)
+                .like("name", "user1")
+                .in("age", Arrays.asList(20, 30, 40, 50))
+                .nested(builder -> builder.or().isNull("updateTime").lessThan("age", 60))
+                .order().desc("age").asc(BenchmarkUser::getName)
+                .build();
+    }
+
+    @Benchmark
+    public BoundSql simpleSpecification() {
+        return mappedStatement.getBoundSql(simpleSpecification);
+    }
+
+    @Benchmark
+    public BoundSql complexSpecification() {
+        return mappedStatement.getBoundSql(complexSpecification);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.benchmark;
+
+import com.alilitech.mybatis.dialect.SqlDialectFactory;
+import com.alilitech.mybatis.dialect.SqlDialectFactoryRegistry;
+import com.alilitech.mybatis.jpa.DatabaseType;
+import com.alilitech.mybatis.jpa.domain.Page;
+import com.alilitech.mybatis.jpa.pagination.sqlparser.SqlParser;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * count and pagination sql built by {@link SqlParser}, the same as PrePaginationInterceptor and PaginationInterceptor do
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SqlParserBenchmark {
+
+    private static final String CUSTOM_STATEMENT_ID = "com.alilitech.mybatis.benchmark.CustomMapper.findCustom";
+
+    private static final String CUSTOM_SQL = "select u.*, d.dept_name from t_benchmark_user u left join t_dept d on u.dept_no = d.dept_no where u.age > ? order by u.name";
+
+    private String statementId;
+
+    private String originalSql;
+
+    private SqlDialectFactory sqlDialectFactory;
+
+    private Page<?> page;
+
+    @Setup(Level.Trial)
+    public void setup(MybatisJpaState state) {
+        MappedStatement mappedStatement = state.getMappedStatement("findPageByAgeGreaterThanOrderByAgeDesc");
+        statementId = mappedStatement.getId();
+        originalSql = mappedStatement.getBoundSql(18).getSql();
+        sqlDialectFactory = SqlDialectFactoryRegistry.getInstance().get(DatabaseType.H2);
+        page = Page.of(10, 20);
+    }
+
+    @Benchmark
+    public String parseCountSql() throws JSQLParserException {
+        return SqlParser.getInstance().parseCountSql(originalSql, statementId);
+    }
+
+    @Benchmark
+    public String parseCountSqlOfCustomStatement() throws JSQLParserException {
+        return SqlParser.getInstance().parseCountSql(CUSTOM_SQL, CUSTOM_STATEMENT_ID);
+    }
+
+    @Benchmark
+    public String buildPaginationSql() throws JSQLParserException {
+        return SqlParser.getInstance().getPaginationTemplate(statementId, originalSql).buildPaginationSql(sqlDialectFactory, page);
+    }
+
+    /**
+     * parse without cache, as the baseline
+     */
+    @Benchmark
+    public Object parseWithoutCache() throws JSQLParserException {
+        return CCJSqlParserUtil.parse(originalSql);
+    }
+}
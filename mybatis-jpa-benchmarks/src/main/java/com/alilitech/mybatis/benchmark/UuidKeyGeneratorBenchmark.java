@@ -0,0 +1,50 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.benchmark;
+
+import com.alilitech.mybatis.jpa.primary.key.KeyGenerator4CombUUID;
+import com.alilitech.mybatis.jpa.primary.key.KeyGenerator4UUID;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class UuidKeyGeneratorBenchmark {
+
+    private final KeyGenerator4UUID uuidKeyGenerator = new KeyGenerator4UUID();
+
+    private final KeyGenerator4CombUUID combUuidKeyGenerator = new KeyGenerator4CombUUID();
+
+    @Benchmark
+    public Object uuid() {
+        return uuidKeyGenerator.generate(null);
+    }
+
+    @Benchmark
+    public Object combUuid() {
+        return combUuidKeyGenerator.generate(null);
+    }
+}
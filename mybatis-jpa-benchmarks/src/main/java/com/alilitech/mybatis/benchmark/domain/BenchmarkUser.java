@@ -0,0 +1,100 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.benchmark.domain;
+
+import com.alilitech.mybatis.jpa.anotation.GeneratedValue;
+import com.alilitech.mybatis.jpa.anotation.Trigger;
+import com.alilitech.mybatis.jpa.anotation.TriggerValue;
+import com.alilitech.mybatis.jpa.parameter.GenerationType;
+import com.alilitech.mybatis.jpa.parameter.TriggerValueType;
+import org.apache.ibatis.mapping.SqlCommandType;
+
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.util.Date;
+
+/**
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+@Table(name = "t_benchmark_user")
+public class BenchmarkUser {
+
+    @Id
+    @GeneratedValue(GenerationType.SNOWFLAKE)
+    private Long id;
+
+    private String name;
+
+    private Integer age;
+
+    private String deptNo;
+
+    @TriggerValue(triggers = {
+            @Trigger(triggerType = SqlCommandType.INSERT, valueType = TriggerValueType.JAVA_CODE, valueClass = BenchmarkTriggerValue.class, methodName = "getCurrentDate"),
+            @Trigger(triggerType = SqlCommandType.UPDATE, valueType = TriggerValueType.JAVA_CODE, valueClass = BenchmarkTriggerValue.class, methodName = "getCurrentDate", force = true)
+    })
+    private Date updateTime;
+
+    public BenchmarkUser() {
+    }
+
+    public BenchmarkUser(String name, Integer age, String deptNo) {
+        this.name = name;
+        this.age = age;
+        this.deptNo = deptNo;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Integer getAge() {
+        return age;
+    }
+
+    public void setAge(Integer age) {
+        this.age = age;
+    }
+
+    public String getDeptNo() {
+        return deptNo;
+    }
+
+    public void setDeptNo(String deptNo) {
+        this.deptNo = deptNo;
+    }
+
+    public Date getUpdateTime() {
+        return updateTime;
+    }
+
+    public void setUpdateTime(Date updateTime) {
+        this.updateTime = updateTime;
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.benchmark.mapper;
+
+import com.alilitech.mybatis.benchmark.domain.BenchmarkUser;
+import com.alilitech.mybatis.jpa.domain.Pageable;
+import com.alilitech.mybatis.jpa.mapper.CrudMapper;
+import com.alilitech.mybatis.jpa.mapper.PageMapper;
+import com.alilitech.mybatis.jpa.mapper.SpecificationMapper;
+
+import java.util.List;
+
+/**
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+public interface BenchmarkUserMapper extends CrudMapper<BenchmarkUser, Long>, PageMapper<BenchmarkUser, Long>, SpecificationMapper<BenchmarkUser, Long> {
+
+    List<BenchmarkUser> findByNameLike(String name);
+
+    List<BenchmarkUser> findByNameStartsWithAndDeptNo(String name, String deptNo);
+
+    List<BenchmarkUser> findPageByAgeGreaterThanOrderByAgeDesc(Pageable<BenchmarkUser> pageable, Integer age);
+}
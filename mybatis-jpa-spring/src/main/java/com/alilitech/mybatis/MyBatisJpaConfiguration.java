@@ -17,16 +17,27 @@ package com.alilitech.mybatis;
 
 import com.alilitech.mybatis.dialect.KeySqlDialectRegistry;
 import com.alilitech.mybatis.dialect.PaginationDialectRegistry;
+import com.alilitech.mybatis.dialect.SqlDialectFactoryRegistry;
 import com.alilitech.mybatis.extension.DatabaseRegistry;
 import com.alilitech.mybatis.jpa.DatabaseIdProviderImpl;
 import com.alilitech.mybatis.jpa.DatabaseTypeRegistry;
+import com.alilitech.mybatis.jpa.batch.BatchFetchInterceptor;
+import com.alilitech.mybatis.jpa.batch.InsertChunkInterceptor;
+import com.alilitech.mybatis.jpa.batch.JdbcBatchInterceptor;
+import com.alilitech.mybatis.jpa.cache.EntityCacheFactory;
+import com.alilitech.mybatis.jpa.cache.EntityCacheInterceptor;
+import com.alilitech.mybatis.jpa.cache.EntityCacheRegistry;
+import com.alilitech.mybatis.jpa.cache.TransactionalInvalidation;
 import com.alilitech.mybatis.jpa.pagination.PaginationInterceptor;
 import com.alilitech.mybatis.jpa.pagination.PrePaginationInterceptor;
+import com.alilitech.mybatis.jpa.parameter.InListInterceptor;
 import com.alilitech.mybatis.jpa.primary.key.GeneratorRegistry;
 import com.alilitech.mybatis.jpa.primary.key.OffsetRepository;
 import com.alilitech.mybatis.jpa.primary.key.SnowflakeKeyGeneratorBuilder;
+import com.alilitech.mybatis.jpa.statement.StreamStrategy;
 import com.alilitech.mybatis.spring.MybatisJpaConfigurer;
 import com.alilitech.mybatis.spring.MybatisJpaMapperScanner;
+import com.alilitech.mybatis.spring.SpringAfterCompletionRegistrar;
 import com.alilitech.mybatis.web.MybatisJpaWebConfiguration;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -57,6 +68,11 @@ public class MyBatisJpaConfiguration {
         return PaginationDialectRegistry.getInstance();
     }
 
+    @Bean
+    public SqlDialectFactoryRegistry sqlDialectFactoryRegistry() {
+        return SqlDialectFactoryRegistry.getInstance();
+    }
+
     @Bean
     public KeySqlDialectRegistry keySqlDialectRegistry() {
         return KeySqlDialectRegistry.getInstance();
@@ -84,8 +100,10 @@ public class MyBatisJpaConfiguration {
 
     // add version: 1.3.7
     @Bean
-    public PrePaginationInterceptor prePaginationInterceptor() {
-        return new PrePaginationInterceptor();
+    public PrePaginationInterceptor prePaginationInterceptor(MybatisJpaProperties mybatisJpaProperties) {
+        // add version: 2.2.5, invalidate the cached totals after the spring managed transaction is completed
+        TransactionalInvalidation.getInstance().setAfterCompletionRegistrar(new SpringAfterCompletionRegistrar());
+        return new PrePaginationInterceptor(mybatisJpaProperties);
     }
 
     @Bean
@@ -93,6 +111,47 @@ public class MyBatisJpaConfiguration {
         return new PaginationInterceptor(mybatisJpaProperties);
     }
 
+    // add version: 2.2.5
+    @Bean
+    public InListInterceptor inListInterceptor(MybatisJpaProperties mybatisJpaProperties) {
+        return new InListInterceptor(mybatisJpaProperties);
+    }
+
+    // add version: 2.2.5
+    @Bean
+    public JdbcBatchInterceptor jdbcBatchInterceptor(MybatisJpaProperties mybatisJpaProperties) {
+        return new JdbcBatchInterceptor(mybatisJpaProperties);
+    }
+
+    // add version: 2.2.5
+    @Bean
+    public InsertChunkInterceptor insertChunkInterceptor(MybatisJpaProperties mybatisJpaProperties) {
+        return new InsertChunkInterceptor(mybatisJpaProperties);
+    }
+
+    // add version: 2.2.5
+    @Bean
+    public BatchFetchInterceptor batchFetchInterceptor() {
+        return new BatchFetchInterceptor();
+    }
+
+    // add version: 2.2.5
+    @Bean
+    public EntityCacheInterceptor entityCacheInterceptor(MybatisJpaProperties mybatisJpaProperties, @Nullable EntityCacheFactory entityCacheFactory) {
+        EntityCacheInterceptor entityCacheInterceptor = new EntityCacheInterceptor(mybatisJpaProperties);
+        EntityCacheRegistry.getInstance().setEntityCacheFactory(entityCacheFactory);
+        TransactionalInvalidation.getInstance().setAfterCompletionRegistrar(new SpringAfterCompletionRegistrar());
+        return entityCacheInterceptor;
+    }
+
+    // add version: 2.2.5
+    @Bean
+    public StreamStrategy streamStrategy(MybatisJpaProperties mybatisJpaProperties) {
+        StreamStrategy instance = StreamStrategy.getInstance();
+        instance.configure(mybatisJpaProperties.getStream());
+        return instance;
+    }
+
     @Bean
     @ConditionalOnMissingBean
     public MybatisJpaProperties mybatisJpaProperties() {
@@ -0,0 +1,44 @@
+/**
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.spring;
+
+import com.alilitech.mybatis.jpa.cache.AfterCompletionRegistrar;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Run the callbacks after the spring managed transaction is completed,
+ * mybatis-spring commits and closes the session before the connection is committed.
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+public class SpringAfterCompletionRegistrar implements AfterCompletionRegistrar {
+
+    @Override
+    public boolean register(Runnable callback) {
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                callback.run();
+            }
+        });
+        return true;
+    }
+}
@@ -21,9 +21,15 @@ import com.alilitech.mybatis.extension.DatabaseRegistration;
 import com.alilitech.mybatis.extension.DatabaseRegistry;
 import com.alilitech.mybatis.jpa.DatabaseTypeRegistry;
 import com.alilitech.mybatis.jpa.JpaInitializer;
+import com.alilitech.mybatis.jpa.batch.BatchFetchInterceptor;
+import com.alilitech.mybatis.jpa.batch.InsertChunkInterceptor;
+import com.alilitech.mybatis.jpa.batch.JdbcBatchInterceptor;
+import com.alilitech.mybatis.jpa.cache.EntityCacheInterceptor;
 import com.alilitech.mybatis.jpa.pagination.PaginationInterceptor;
 import com.alilitech.mybatis.jpa.pagination.PrePaginationInterceptor;
+import com.alilitech.mybatis.jpa.parameter.InListInterceptor;
 import com.alilitech.mybatis.jpa.parameter.MybatisJpaLanguageDriver;
+import com.alilitech.mybatis.jpa.statement.StreamStrategy;
 import com.alilitech.mybatis.jpa.type.DefaultEnumTypeHandler;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
@@ -93,15 +99,41 @@ public class MybatisJpaBootstrap {
             }
 
             if(!containPageInterceptor) {
-                configuration.addInterceptor(new PrePaginationInterceptor());
+                configuration.addInterceptor(new PrePaginationInterceptor(mybatisJpaProperties));
                 configuration.addInterceptor(new PaginationInterceptor(mybatisJpaProperties));
             }
 
         } else {
-            configuration.addInterceptor(new PrePaginationInterceptor());
+            configuration.addInterceptor(new PrePaginationInterceptor(mybatisJpaProperties));
             configuration.addInterceptor(new PaginationInterceptor(mybatisJpaProperties));
         }
 
+        // add in list interceptor, add since v2.2.5
+        if(configuration.getInterceptors().stream().noneMatch(InListInterceptor.class::isInstance)) {
+            configuration.addInterceptor(new InListInterceptor(mybatisJpaProperties));
+        }
+
+        // add jdbc batch interceptor, add since v2.2.5
+        if(configuration.getInterceptors().stream().noneMatch(JdbcBatchInterceptor.class::isInstance)) {
+            configuration.addInterceptor(new JdbcBatchInterceptor(mybatisJpaProperties));
+        }
+        if(configuration.getInterceptors().stream().noneMatch(InsertChunkInterceptor.class::isInstance)) {
+            configuration.addInterceptor(new InsertChunkInterceptor(mybatisJpaProperties));
+        }
+
+        // add batch fetch interceptor, add since v2.2.5
+        if(configuration.getInterceptors().stream().noneMatch(BatchFetchInterceptor.class::isInstance)) {
+            configuration.addInterceptor(new BatchFetchInterceptor());
+        }
+
+        // add entity cache interceptor at last, so it sees the writes before the batch interceptors, add since v2.2.5
+        if(configuration.getInterceptors().stream().noneMatch(EntityCacheInterceptor.class::isInstance)) {
+            configuration.addInterceptor(new EntityCacheInterceptor(mybatisJpaProperties));
+        }
+
+        // cursor fetch size, add since v2.2.5
+        StreamStrategy.getInstance().configure(mybatisJpaProperties.getStream());
+
         configuration.setDefaultEnumTypeHandler(DefaultEnumTypeHandler.class);
 
         JpaInitializer jpaInitializer = new JpaInitializer(configuration);
@@ -15,8 +15,12 @@
  */
 package com.alilitech.mybatis;
 
+import com.alilitech.mybatis.jpa.pagination.CountStrategy;
 import com.alilitech.mybatis.jpa.primary.key.snowflake.TimeCallbackStrategy;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * @author Zhou Xiaoxiang
  * @since 1.3.0
@@ -29,6 +33,14 @@ public class MybatisJpaProperties {
 
     private Snowflake snowflake = new Snowflake();
 
+    private InList inList = new InList();
+
+    private Batch batch = new Batch();
+
+    private Stream stream = new Stream();
+
+    private EntityCache entityCache = new EntityCache();
+
     public MapperScan getMapperScan() {
         return mapperScan;
     }
@@ -53,6 +65,38 @@ public class MybatisJpaProperties {
         this.snowflake = snowflake;
     }
 
+    public InList getInList() {
+        return inList;
+    }
+
+    public void setInList(InList inList) {
+        this.inList = inList;
+    }
+
+    public Batch getBatch() {
+        return batch;
+    }
+
+    public void setBatch(Batch batch) {
+        this.batch = batch;
+    }
+
+    public Stream getStream() {
+        return stream;
+    }
+
+    public void setStream(Stream stream) {
+        this.stream = stream;
+    }
+
+    public EntityCache getEntityCache() {
+        return entityCache;
+    }
+
+    public void setEntityCache(EntityCache entityCache) {
+        this.entityCache = entityCache;
+    }
+
     public static class MapperScan {
 
         private String[] basePackages;
@@ -70,6 +114,65 @@ public class MybatisJpaProperties {
 
         private boolean autoDialect = false;
 
+        /**
+         * max count of parsed sql cached by paging and counting
+         *
+         * @since 2.2.5
+         */
+        private int parseCacheSize = 10000;
+
+        /**
+         * max total length of parsed sql cached, less than or equals 0 means only limited by parseCacheSize
+         *
+         * @since 2.2.5
+         */
+        private long parseCacheMaxWeight = 0;
+
+        /**
+         * run count query on another connection at the same time of page query;
+         * when it is false, count query runs first, and page query is skipped if the total is 0.
+         * the other connection can not see the uncommitted rows, so it counts serially when the connection is in a transaction (auto commit is false)
+         *
+         * @since 2.2.5
+         */
+        private boolean parallelCount = false;
+
+        /**
+         * the threads count to run count query in parallel mode, virtual threads are used instead if the jdk supports
+         *
+         * @since 2.2.5
+         */
+        private int countThreads = Runtime.getRuntime().availableProcessors() * 2;
+
+        /**
+         * max count of cached pagination totals, less than or equals 0 means no cache;
+         * the cached totals are invalidated when the tables are written by CrudMapper
+         *
+         * @since 2.2.5
+         */
+        private int countCacheSize = 0;
+
+        /**
+         * expire time in milliseconds of cached pagination totals, less than or equals 0 means never expire
+         *
+         * @since 2.2.5
+         */
+        private long countCacheTtl = 60000;
+
+        /**
+         * the strategy to get the total of pagination
+         *
+         * @since 2.2.5
+         */
+        private CountStrategy countStrategy = CountStrategy.EXACT;
+
+        /**
+         * when the count strategy is estimated, the estimated total less than it is counted exactly
+         *
+         * @since 2.2.5
+         */
+        private long estimatedCountThreshold = 100000;
+
         public boolean isAutoDialect() {
             return autoDialect;
         }
@@ -77,6 +180,70 @@ public class MybatisJpaProperties {
         public void setAutoDialect(boolean autoDialect) {
             this.autoDialect = autoDialect;
         }
+
+        public int getParseCacheSize() {
+            return parseCacheSize;
+        }
+
+        public void setParseCacheSize(int parseCacheSize) {
+            this.parseCacheSize = parseCacheSize;
+        }
+
+        public long getParseCacheMaxWeight() {
+            return parseCacheMaxWeight;
+        }
+
+        public void setParseCacheMaxWeight(long parseCacheMaxWeight) {
+            this.parseCacheMaxWeight = parseCacheMaxWeight;
+        }
+
+        public boolean isParallelCount() {
+            return parallelCount;
+        }
+
+        public void setParallelCount(boolean parallelCount) {
+            this.parallelCount = parallelCount;
+        }
+
+        public int getCountThreads() {
+            return countThreads;
+        }
+
+        public void setCountThreads(int countThreads) {
+            this.countThreads = countThreads;
+        }
+
+        public int getCountCacheSize() {
+            return countCacheSize;
+        }
+
+        public void setCountCacheSize(int countCacheSize) {
+            this.countCacheSize = countCacheSize;
+        }
+
+        public long getCountCacheTtl() {
+            return countCacheTtl;
+        }
+
+        public void setCountCacheTtl(long countCacheTtl) {
+            this.countCacheTtl = countCacheTtl;
+        }
+
+        public CountStrategy getCountStrategy() {
+            return countStrategy;
+        }
+
+        public void setCountStrategy(CountStrategy countStrategy) {
+            this.countStrategy = countStrategy;
+        }
+
+        public long getEstimatedCountThreshold() {
+            return estimatedCountThreshold;
+        }
+
+        public void setEstimatedCountThreshold(long estimatedCountThreshold) {
+            this.estimatedCountThreshold = estimatedCountThreshold;
+        }
     }
 
     /**
@@ -167,4 +334,203 @@ public class MybatisJpaProperties {
             this.offset = offset;
         }
     }
+
+    /**
+     * IN list properties of findAllById, deleteBatch, derived ...In queries and specifications
+     *
+     * @since 2.2.5
+     */
+    public static class InList {
+
+        /**
+         * pad the IN list to the power-of-two size by repeating the last value,
+         * so that the lists of different sizes share a few sql texts
+         */
+        private boolean padding = false;
+
+        /**
+         * bind the whole list as one array parameter, such as "= ANY(?)" on PostgreSQL,
+         * only findAllById, deleteBatch and specifications support it
+         */
+        private boolean arrayBinding = false;
+
+        /**
+         * split findAllById and deleteBatch into several statements when the list exceeds the bind limit of database
+         */
+        private boolean chunk = false;
+
+        /**
+         * max bind parameters of an IN list in one statement, key is databaseId;
+         * it overrides the default of the dialect, less than or equals 0 means no limit
+         */
+        private Map<String, Integer> bindLimits = new HashMap<>();
+
+        public boolean isPadding() {
+            return padding;
+        }
+
+        public void setPadding(boolean padding) {
+            this.padding = padding;
+        }
+
+        public boolean isArrayBinding() {
+            return arrayBinding;
+        }
+
+        public void setArrayBinding(boolean arrayBinding) {
+            this.arrayBinding = arrayBinding;
+        }
+
+        public boolean isChunk() {
+            return chunk;
+        }
+
+        public void setChunk(boolean chunk) {
+            this.chunk = chunk;
+        }
+
+        public Map<String, Integer> getBindLimits() {
+            return bindLimits;
+        }
+
+        public void setBindLimits(Map<String, Integer> bindLimits) {
+            this.bindLimits = bindLimits;
+        }
+    }
+
+    /**
+     * batch properties of insertBatch and updateBatch
+     *
+     * @since 2.2.5
+     */
+    public static class Batch {
+
+        /**
+         * execute insertBatch and updateBatch by jdbc batch (PreparedStatement#addBatch) globally,
+         * instead of the multi-row values or the statements joined with ';',
+         * it can be also enabled for one mapper by {@link com.alilitech.mybatis.jpa.anotation.JdbcBatch}
+         */
+        private boolean jdbc = false;
+
+        /**
+         * rows of one executeBatch
+         */
+        private int jdbcChunkSize = 1000;
+
+        /**
+         * rows of one multi-row insert statement of insertBatch, the rest rows are split into power-of-two buckets,
+         * so that the collections of different sizes share a few sql texts;
+         * it can be overridden by {@link com.alilitech.mybatis.jpa.anotation.InsertChunk} of the entity,
+         * less than or equals 0 means all rows in one statement
+         */
+        private int insertChunkSize = 0;
+
+        public boolean isJdbc() {
+            return jdbc;
+        }
+
+        public void setJdbc(boolean jdbc) {
+            this.jdbc = jdbc;
+        }
+
+        public int getJdbcChunkSize() {
+            return jdbcChunkSize;
+        }
+
+        public void setJdbcChunkSize(int jdbcChunkSize) {
+            this.jdbcChunkSize = jdbcChunkSize;
+        }
+
+        public int getInsertChunkSize() {
+            return insertChunkSize;
+        }
+
+        public void setInsertChunkSize(int insertChunkSize) {
+            this.insertChunkSize = insertChunkSize;
+        }
+    }
+
+    /**
+     * properties of the statements return {@link org.apache.ibatis.cursor.Cursor}, such as streamAll and streamSpecification
+     *
+     * @since 2.2.5
+     */
+    public static class Stream {
+
+        /**
+         * fetch size of the cursor statements
+         */
+        private int fetchSize = 1000;
+
+        /**
+         * fetch size of the cursor statements, key is databaseId;
+         * it overrides the default of the dialect, such as Integer.MIN_VALUE of MySQL which streams row by row
+         */
+        private Map<String, Integer> fetchSizes = new HashMap<>();
+
+        public int getFetchSize() {
+            return fetchSize;
+        }
+
+        public void setFetchSize(int fetchSize) {
+            this.fetchSize = fetchSize;
+        }
+
+        public Map<String, Integer> getFetchSizes() {
+            return fetchSizes;
+        }
+
+        public void setFetchSizes(Map<String, Integer> fetchSizes) {
+            this.fetchSizes = fetchSizes;
+        }
+    }
+
+    /**
+     * properties of the entity cache keyed by primary key, used by findById, findAllById and existsById,
+     * see {@link com.alilitech.mybatis.jpa.cache.EntityCacheRegistry}
+     *
+     * @since 2.2.5
+     */
+    public static class EntityCache {
+
+        /**
+         * whether to enable the entity cache
+         */
+        private boolean enabled = false;
+
+        /**
+         * max count of cached entities of each entity type
+         */
+        private int maxSize = 10000;
+
+        /**
+         * expire time in milliseconds after cached, less than or equals 0 means never expire,
+         * the generated writes invalidate the cached entities, set it for the writes out of this application
+         */
+        private long ttl = 0;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public long getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(long ttl) {
+            this.ttl = ttl;
+        }
+    }
 }
@@ -16,11 +16,16 @@
 package com.alilitech.mybatis.dialect;
 
 
+import com.alilitech.mybatis.dialect.pagination.KeysetCondition;
+import com.alilitech.mybatis.dialect.pagination.PaginationDialect;
 import com.alilitech.mybatis.jpa.DatabaseType;
 import com.alilitech.mybatis.jpa.DatabaseTypeRegistry;
 import com.alilitech.mybatis.jpa.pagination.PageHelper;
 import com.alilitech.mybatis.jpa.pagination.Pagination;
 
+import java.util.List;
+import java.util.Map;
+
 
 /**
  * Sql Dialect Factory
@@ -50,6 +55,36 @@ public class SqlDialectFactory {
         return PaginationDialectRegistry.getInstance().get(databaseType).buildPaginationSql(buildSql, PageHelper.offsetCurrent(page), page.getSize());
     }
 
+    /**
+     * generate the seek condition of keyset pagination
+     * @param columns sort columns
+     * @param descending sort direction of each column
+     * @return seek condition
+     */
+    public KeysetCondition buildKeysetCondition(List<String> columns, boolean[] descending) {
+        return PaginationDialectRegistry.getInstance().get(databaseType).buildKeysetCondition(columns, descending);
+    }
+
+    /**
+     * generate the sql to estimate the row count
+     * @param originalSql original sql
+     * @param tableName the table name when original sql selects the whole table without any condition, otherwise null
+     * @return estimate sql, null means not supported
+     */
+    public String buildEstimatedCountSql(String originalSql, String tableName) {
+        PaginationDialect paginationDialect = PaginationDialectRegistry.getInstance().get(databaseType);
+        return paginationDialect == null ? null : paginationDialect.buildEstimatedCountSql(originalSql, tableName);
+    }
+
+    /**
+     * read the estimated row count from the rows of estimate sql
+     * @param rows the rows of estimate sql
+     * @return estimated row count, null means unknown
+     */
+    public Long readEstimatedCount(List<Map<String, Object>> rows) {
+        return PaginationDialectRegistry.getInstance().get(databaseType).readEstimatedCount(rows);
+    }
+
     /**
      * generate the sql to select the sequence
      * @param sequenceName sequence name
@@ -0,0 +1,105 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.dialect;
+
+import com.alilitech.mybatis.jpa.DatabaseType;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolved {@link SqlDialectFactory} registry, shared by statement building and pagination.
+ * <p>
+ * The dialect resolved from connection is memoized by JDBC url, so the database product name is only queried once per database.
+ * The unresolved ones are not memoized, because the database type may be registered later.
+ * For routing or multi-tenant datasources, call {@link #invalidate(String)} or {@link #invalidateAll()} when the target database changes.
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+public class SqlDialectFactoryRegistry {
+
+    /**
+     * key: databaseId
+     */
+    private final Map<String, SqlDialectFactory> databaseIdFactoryMap = new ConcurrentHashMap<>();
+
+    private final Map<DatabaseType, SqlDialectFactory> databaseTypeFactoryMap = new ConcurrentHashMap<>();
+
+    /**
+     * key: jdbc url
+     */
+    private final Map<String, SqlDialectFactory> urlFactoryMap = new ConcurrentHashMap<>();
+
+    private static final SqlDialectFactoryRegistry sqlDialectFactoryRegistry = new SqlDialectFactoryRegistry();
+
+    private SqlDialectFactoryRegistry() {
+    }
+
+    public static SqlDialectFactoryRegistry getInstance() {
+        return sqlDialectFactoryRegistry;
+    }
+
+    public SqlDialectFactory get(String databaseId) {
+        if(databaseId == null) {
+            return new SqlDialectFactory((DatabaseType) null);
+        }
+        SqlDialectFactory sqlDialectFactory = databaseIdFactoryMap.get(databaseId);
+        if(sqlDialectFactory == null) {
+            sqlDialectFactory = new SqlDialectFactory(databaseId);
+            if(sqlDialectFactory.getDatabaseType() != null) {
+                databaseIdFactoryMap.put(databaseId, sqlDialectFactory);
+            }
+        }
+        return sqlDialectFactory;
+    }
+
+    public SqlDialectFactory get(DatabaseType databaseType) {
+        return databaseTypeFactoryMap.computeIfAbsent(databaseType, SqlDialectFactory::new);
+    }
+
+    /**
+     * resolve the dialect by the database product name of the connection
+     */
+    public SqlDialectFactory resolve(Connection connection) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        String url = metaData.getURL();
+        SqlDialectFactory sqlDialectFactory = url == null ? null : urlFactoryMap.get(url);
+        if(sqlDialectFactory == null) {
+            sqlDialectFactory = get(metaData.getDatabaseProductName());
+            if(url != null && sqlDialectFactory.getDatabaseType() != null) {
+                urlFactoryMap.put(url, sqlDialectFactory);
+            }
+        }
+        return sqlDialectFactory;
+    }
+
+    /**
+     * invalidate the resolved dialect of the jdbc url
+     */
+    public void invalidate(String url) {
+        urlFactoryMap.remove(url);
+    }
+
+    public void invalidateAll() {
+        urlFactoryMap.clear();
+        databaseIdFactoryMap.clear();
+        databaseTypeFactoryMap.clear();
+    }
+}
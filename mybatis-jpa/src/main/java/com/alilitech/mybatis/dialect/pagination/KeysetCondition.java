@@ -0,0 +1,95 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.dialect.pagination;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The seek condition of keyset pagination, like "(a, b) &gt; (?, ?)".
+ * parameterIndexes is the index of sort key bound to each '?' in order.
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+public class KeysetCondition {
+
+    private final String sql;
+
+    private final int[] parameterIndexes;
+
+    public KeysetCondition(String sql, int[] parameterIndexes) {
+        this.sql = sql;
+        this.parameterIndexes = parameterIndexes;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public int[] getParameterIndexes() {
+        return parameterIndexes;
+    }
+
+    /**
+     * build the condition which works on all databases and all directions:
+     * (a &gt; ?) OR (a = ? AND b &gt; ?)
+     */
+    public static KeysetCondition expand(List<String> columns, boolean[] descending) {
+        StringBuilder sql = new StringBuilder("(");
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < columns.size(); i++) {
+            if(i > 0) {
+                sql.append(" OR ");
+            }
+            sql.append("(");
+            for (int j = 0; j < i; j++) {
+                sql.append(columns.get(j)).append(" = ? AND ");
+                indexes.add(j);
+            }
+            sql.append(columns.get(i)).append(descending[i] ? " < ?" : " > ?").append(")");
+            indexes.add(i);
+        }
+        sql.append(")");
+        return new KeysetCondition(sql.toString(), indexes.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * build the row value condition: (a, b) &gt; (?, ?),
+     * return null if the directions are not all the same
+     */
+    public static KeysetCondition rowValue(List<String> columns, boolean[] descending) {
+        for (boolean desc : descending) {
+            if(desc != descending[0]) {
+                return null;
+            }
+        }
+        StringBuilder sql = new StringBuilder("(");
+        StringBuilder parameters = new StringBuilder("(");
+        int[] indexes = new int[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            if(i > 0) {
+                sql.append(", ");
+                parameters.append(", ");
+            }
+            sql.append(columns.get(i));
+            parameters.append("?");
+            indexes[i] = i;
+        }
+        sql.append(descending[0] ? ") < " : ") > ").append(parameters).append(")");
+        return new KeysetCondition(sql.toString(), indexes);
+    }
+}
@@ -15,6 +15,9 @@
  */
 package com.alilitech.mybatis.dialect.pagination;
 
+import java.util.List;
+import java.util.Map;
+
 
 /**
  * Pagination sql builder
@@ -33,4 +36,51 @@ public interface PaginationDialect {
      * @return pageable sql
      */
     String buildPaginationSql(String originalSql, int offset, int limit);
+
+    /**
+     * build the seek condition of keyset pagination
+     *
+     * @param columns sort columns, the last one must be unique
+     * @param descending sort direction of each column
+     * @return seek condition
+     * @since 2.2.5
+     */
+    default KeysetCondition buildKeysetCondition(List<String> columns, boolean[] descending) {
+        return KeysetCondition.expand(columns, descending);
+    }
+
+    /**
+     * build the sql to estimate the row count of original sql by the database statistics, instead of counting
+     *
+     * @param originalSql original sql
+     * @param tableName the table name when original sql selects the whole table without any condition, otherwise null
+     * @return estimate sql, null means not supported
+     * @since 2.2.5
+     */
+    default String buildEstimatedCountSql(String originalSql, String tableName) {
+        return null;
+    }
+
+    /**
+     * read the estimated row count from the rows of estimate sql
+     *
+     * @param rows the rows of estimate sql
+     * @return estimated row count, null means unknown
+     * @since 2.2.5
+     */
+    default Long readEstimatedCount(List<Map<String, Object>> rows) {
+        return null;
+    }
+
+    /**
+     * get the column value ignoring the case of column label
+     */
+    static Object getColumnValue(Map<String, Object> row, String column) {
+        for (Map.Entry<String, Object> entry : row.entrySet()) {
+            if(entry.getKey().equalsIgnoreCase(column)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
 }
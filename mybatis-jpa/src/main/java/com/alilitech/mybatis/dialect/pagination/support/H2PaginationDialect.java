@@ -16,8 +16,11 @@
 package com.alilitech.mybatis.dialect.pagination.support;
 
 
+import com.alilitech.mybatis.dialect.pagination.KeysetCondition;
 import com.alilitech.mybatis.dialect.pagination.PaginationDialect;
 
+import java.util.List;
+
 
 /**
  * H2 Pagination
@@ -36,4 +39,10 @@ public class H2PaginationDialect implements PaginationDialect {
         }
         return sql.toString();
     }
+
+    @Override
+    public KeysetCondition buildKeysetCondition(List<String> columns, boolean[] descending) {
+        KeysetCondition keysetCondition = KeysetCondition.rowValue(columns, descending);
+        return keysetCondition == null ? KeysetCondition.expand(columns, descending) : keysetCondition;
+    }
 }
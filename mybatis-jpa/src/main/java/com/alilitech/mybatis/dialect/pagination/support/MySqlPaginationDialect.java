@@ -16,8 +16,12 @@
 package com.alilitech.mybatis.dialect.pagination.support;
 
 
+import com.alilitech.mybatis.dialect.pagination.KeysetCondition;
 import com.alilitech.mybatis.dialect.pagination.PaginationDialect;
 
+import java.util.List;
+import java.util.Map;
+
 
 /**
  * MYSQL Pagination
@@ -33,4 +37,36 @@ public class MySqlPaginationDialect implements PaginationDialect {
         sql.append(" LIMIT ").append(offset).append(", ").append(limit);
         return sql.toString();
     }
+
+    @Override
+    public KeysetCondition buildKeysetCondition(List<String> columns, boolean[] descending) {
+        KeysetCondition keysetCondition = KeysetCondition.rowValue(columns, descending);
+        return keysetCondition == null ? KeysetCondition.expand(columns, descending) : keysetCondition;
+    }
+
+    /**
+     * the rows examined of the single table in execution plan, join or subquery falls back to exact count
+     */
+    @Override
+    public String buildEstimatedCountSql(String originalSql, String tableName) {
+        return "EXPLAIN " + originalSql;
+    }
+
+    @Override
+    public Long readEstimatedCount(List<Map<String, Object>> rows) {
+        // 多行的执行计划(join、子查询等)无法用单表的rows估算，返回null回退到精确count
+        if(rows.size() != 1) {
+            return null;
+        }
+        Object estimatedRows = PaginationDialect.getColumnValue(rows.get(0), "rows");
+        if(!(estimatedRows instanceof Number)) {
+            return null;
+        }
+        // filtered: the percentage of rows filtered by condition, since mysql 5.7
+        Object filtered = PaginationDialect.getColumnValue(rows.get(0), "filtered");
+        if(filtered instanceof Number) {
+            return (long) (((Number) estimatedRows).longValue() * ((Number) filtered).doubleValue() / 100);
+        }
+        return ((Number) estimatedRows).longValue();
+    }
 }
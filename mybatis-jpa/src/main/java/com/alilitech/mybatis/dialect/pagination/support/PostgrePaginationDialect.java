@@ -16,8 +16,14 @@
 package com.alilitech.mybatis.dialect.pagination.support;
 
 
+import com.alilitech.mybatis.dialect.pagination.KeysetCondition;
 import com.alilitech.mybatis.dialect.pagination.PaginationDialect;
 
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 
 /**
  * Postgre Pagination
@@ -27,10 +33,52 @@ import com.alilitech.mybatis.dialect.pagination.PaginationDialect;
  */
 public class PostgrePaginationDialect implements PaginationDialect {
 
+    private static final Pattern PLAN_ROWS_PATTERN = Pattern.compile("\"Plan Rows\":\\s*(\\d+)");
+
+    private static final String ESTIMATE_COLUMN = "estimate";
+
     @Override
     public String buildPaginationSql(String originalSql, int offset, int limit) {
         StringBuilder sql = new StringBuilder(originalSql);
         sql.append(" limit ").append(limit).append(" offset ").append(offset);
         return sql.toString();
     }
+
+    @Override
+    public KeysetCondition buildKeysetCondition(List<String> columns, boolean[] descending) {
+        KeysetCondition keysetCondition = KeysetCondition.rowValue(columns, descending);
+        return keysetCondition == null ? KeysetCondition.expand(columns, descending) : keysetCondition;
+    }
+
+    /**
+     * use reltuples of pg_class for the whole table, otherwise use the rows of execution plan
+     */
+    @Override
+    public String buildEstimatedCountSql(String originalSql, String tableName) {
+        if(tableName != null) {
+            return "SELECT reltuples::bigint AS " + ESTIMATE_COLUMN + " FROM pg_class WHERE oid = to_regclass('" + tableName.replace("'", "''") + "')";
+        }
+        return "EXPLAIN (FORMAT JSON) " + originalSql;
+    }
+
+    @Override
+    public Long readEstimatedCount(List<Map<String, Object>> rows) {
+        if(rows.isEmpty()) {
+            return null;
+        }
+        Map<String, Object> row = rows.get(0);
+        Object estimate = PaginationDialect.getColumnValue(row, ESTIMATE_COLUMN);
+        if(estimate instanceof Number) {
+            // -1 means the table has never been analyzed, since postgresql 14
+            long reltuples = ((Number) estimate).longValue();
+            return reltuples < 0 ? null : reltuples;
+        }
+        Object plan = PaginationDialect.getColumnValue(row, "QUERY PLAN");
+        if(plan == null) {
+            return null;
+        }
+        // the first one is the root plan node
+        Matcher matcher = PLAN_ROWS_PATTERN.matcher(plan.toString());
+        return matcher.find() ? Long.valueOf(matcher.group(1)) : null;
+    }
 }
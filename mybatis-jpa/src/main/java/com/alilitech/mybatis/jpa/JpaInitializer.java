@@ -92,11 +92,14 @@ public class JpaInitializer {
                     }
                 });
 
-                JoinStatementDefinition joinStatementDefinition = new MethodDefinitionAssistant(mapperDefinitionRegistry, joinColumnMetaData).addRelationMethodDefinition(joinColumnDefinitions);
+                JoinStatementDefinition joinStatementDefinition = new MethodDefinitionAssistant(mapperDefinitionRegistry, joinColumnMetaData, configuration.isLazyLoadingEnabled()).addRelationMethodDefinition(joinColumnDefinitions);
                 joinStatementDefinition.setColumnDefinitions(joinColumnDefinitions);
                 // 所有关联的 定义都会保存在自己的MapperDefinition里
                 mapperDefinition.addJoinStatementDefinition(joinStatementDefinition);
             }
+
+            // 关联元数据初始化后，生成一级关联属性的索引
+            entityMetaData.indexJoinPropertyPaths();
         }
 
         return this;
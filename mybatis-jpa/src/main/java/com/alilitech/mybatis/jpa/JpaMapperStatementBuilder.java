@@ -20,15 +20,19 @@ import com.alilitech.mybatis.jpa.definition.MapperDefinition;
 import com.alilitech.mybatis.jpa.definition.MethodDefinition;
 import com.alilitech.mybatis.jpa.meta.ColumnMetaData;
 import com.alilitech.mybatis.jpa.meta.EntityMetaData;
+import com.alilitech.mybatis.jpa.pagination.sqlparser.SqlParser;
 import com.alilitech.mybatis.jpa.statement.PreMapperStatement;
 import com.alilitech.mybatis.jpa.statement.PreMapperStatementFactory;
 import com.alilitech.mybatis.jpa.util.ResultMapIdUtils;
+import net.sf.jsqlparser.JSQLParserException;
 import org.apache.ibatis.builder.MapperBuilderAssistant;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
 import org.apache.ibatis.mapping.ResultFlag;
 import org.apache.ibatis.mapping.ResultMap;
 import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.scripting.defaults.RawSqlSource;
 import org.apache.ibatis.session.Configuration;
 
 import java.util.ArrayList;
@@ -102,10 +106,29 @@ public class JpaMapperStatementBuilder {
                         preMapperStatement.getLang(),
                         preMapperStatement.getResultSets()
                         );
+
+                precompilePaginationSql(methodDefinition, preMapperStatement);
             }
         }
     }
 
+    /**
+     * the count sql and page sql of static paging statement are fixed, so precompile them at startup;
+     * the dynamic ones are compiled at the first query of each sql shape
+     */
+    private void precompilePaginationSql(MethodDefinition methodDefinition, PreMapperStatement preMapperStatement) {
+        if(!methodDefinition.hasPage() || preMapperStatement.getSqlCommandType() != SqlCommandType.SELECT
+                || !(preMapperStatement.getSqlSource() instanceof RawSqlSource)) {
+            return;
+        }
+        String statementId = methodDefinition.getStatementId();
+        try {
+            SqlParser.getInstance().precompile(statementId, preMapperStatement.getSqlSource().getBoundSql(null).getSql());
+        } catch (JSQLParserException e) {
+            log.warn("statement: " + statementId + " can not precompile pagination sql, it will be compiled when querying.");
+        }
+    }
+
     private String baseResultMapHandle() {
         EntityMetaData entityMetaData = EntityMetaDataRegistry.getInstance().get(mapperDefinition.getGenericType().getDomainType());
 
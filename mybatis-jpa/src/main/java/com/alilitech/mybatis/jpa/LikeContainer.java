@@ -15,6 +15,7 @@
  */
 package com.alilitech.mybatis.jpa;
 
+import com.alilitech.mybatis.jpa.statement.parser.LikePlan;
 import com.alilitech.mybatis.jpa.statement.parser.LikeType;
 
 import java.util.Map;
@@ -30,6 +31,9 @@ public class LikeContainer {
 
     private final Map<String, LikeType> likeTypeMap = new ConcurrentHashMap<>();
 
+    /** statementId -> like计划 */
+    private final Map<String, LikePlan> likePlanMap = new ConcurrentHashMap<>();
+
     private static final LikeContainer likeContainer = new LikeContainer();
 
     private LikeContainer() {}
@@ -38,18 +42,56 @@ public class LikeContainer {
         return likeContainer;
     }
 
+    /**
+     * @param key statementId + "." + parameter name, or statementId + "._parameter" for single parameter
+     * @deprecated use {@link #putLikePlan(String, LikePlan)}, it is only read when the statement has no like plan
+     */
+    @Deprecated
     public void put(String key, LikeType likeType) {
         synchronized (likeTypeMap) {
             likeTypeMap.put(key, likeType);
         }
     }
 
+    /**
+     * @deprecated use {@link #getLikePlan(String)}
+     */
+    @Deprecated
     public boolean isExist(String key) {
         return likeTypeMap.containsKey(key);
     }
 
+    /**
+     * @deprecated use {@link #getLikePlan(String)}
+     */
+    @Deprecated
     public LikeType get(String key) {
         return likeTypeMap.get(key);
     }
 
+    /**
+     * 是否有按参数key注册的like类型，没有时不用逐个参数查找
+     * @deprecated only for the fallback of {@link #put(String, LikeType)}
+     * @since 2.2.5
+     */
+    @Deprecated
+    public boolean hasLikeTypes() {
+        return !likeTypeMap.isEmpty();
+    }
+
+    /**
+     * @since 2.2.5
+     */
+    public void putLikePlan(String statementId, LikePlan likePlan) {
+        likePlanMap.put(statementId, likePlan);
+    }
+
+    /**
+     * 没有like条件的语句返回null
+     * @since 2.2.5
+     */
+    public LikePlan getLikePlan(String statementId) {
+        return likePlanMap.get(statementId);
+    }
+
 }
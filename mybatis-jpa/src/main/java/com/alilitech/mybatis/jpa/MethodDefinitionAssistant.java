@@ -17,10 +17,12 @@ package com.alilitech.mybatis.jpa;
 
 import com.alilitech.mybatis.jpa.definition.*;
 import com.alilitech.mybatis.jpa.meta.JoinColumnMetaData;
+import com.alilitech.mybatis.jpa.statement.MethodType;
 import com.alilitech.mybatis.jpa.util.CommonUtils;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
+import javax.persistence.FetchType;
 import java.util.Set;
 
 
@@ -35,9 +37,22 @@ public class MethodDefinitionAssistant {
 
     private final MapperDefinitionRegistry mapperDefinitionRegistry;
 
+    /**
+     * 是否开启了mybatis的延迟加载，开启后才遵循{@link FetchType#LAZY}
+     */
+    private final boolean lazyLoadingEnabled;
+
     public MethodDefinitionAssistant(MapperDefinitionRegistry mapperDefinitionRegistry, JoinColumnMetaData joinColumnMetaData) {
+        this(mapperDefinitionRegistry, joinColumnMetaData, false);
+    }
+
+    /**
+     * @since 2.2.5
+     */
+    public MethodDefinitionAssistant(MapperDefinitionRegistry mapperDefinitionRegistry, JoinColumnMetaData joinColumnMetaData, boolean lazyLoadingEnabled) {
         this.mapperDefinitionRegistry = mapperDefinitionRegistry;
         this.joinColumnMetaData = joinColumnMetaData;
+        this.lazyLoadingEnabled = lazyLoadingEnabled;
     }
 
     public JoinStatementDefinition addRelationMethodDefinition(Set<ColumnDefinition> columnDefinitions) {
@@ -77,6 +92,17 @@ public class MethodDefinitionAssistant {
                 joinColumnMetaData,
                 referencedMethodDefinition);
 
+        //批量抓取集合，给被关联方添加按主表字段批量查询的方法
+        if(joinColumnMetaData.isBatchFetch() && joinColumnMetaData.isCollection()) {
+            MethodDefinition batchFetchMethodDefinition = addBatchFetchMethodDefinition(referencedMapperDefinition, referencedMethodDefinition, parameterDefinition.getParameterClass());
+            joinStatementDefinition.setBatchFetchStatementId(batchFetchMethodDefinition.getStatementId());
+        }
+
+        //延迟加载的关联，单个关联走嵌套查询，批量抓取的集合走延迟的批量查询
+        if(lazyLoadingEnabled && joinColumnMetaData.getFetchType() == FetchType.LAZY) {
+            joinStatementDefinition.setLazy(true);
+        }
+
         //给当前Mapper的方法添加关联查询
         MapperDefinition mapperDefinition = mapperDefinitionRegistry.getMapperDefinition(joinColumnMetaData.getEntityType());
 
@@ -111,11 +137,42 @@ public class MethodDefinitionAssistant {
 //                } else {
 //                    String nestedSelect = referencedMapperDefinition.getNameSpace() + "." + methodName;
 
-                    methodDefinition.getJoinStatementDefinitions().add(joinStatementDefinition);
+                    if(joinStatementDefinition.isBatchFetch()) {
+                        methodDefinition.getBatchFetchStatementDefinitions().add(joinStatementDefinition);
+                    } else if(joinStatementDefinition.isLazy()) {
+                        methodDefinition.getLazyStatementDefinitions().add(joinStatementDefinition);
+                    } else {
+                        methodDefinition.getJoinStatementDefinitions().add(joinStatementDefinition);
+                    }
 //                }
 
             }
         }
         return joinStatementDefinition;
     }
+
+    /**
+     * batchFetchWith or batchFetchJoinWith, query the children of several parents by IN
+     * @since 2.2.5
+     */
+    private MethodDefinition addBatchFetchMethodDefinition(MapperDefinition referencedMapperDefinition, MethodDefinition referencedMethodDefinition, Class<?> keyType) {
+        String methodName = MethodType.BATCH_FETCH.getType() + referencedMethodDefinition.getMethodName().substring("find".length());
+        MethodDefinition batchFetchMethodDefinition = new MethodDefinition(referencedMapperDefinition.getNamespace(), methodName, referencedMethodDefinition.getColumnDefinitions());
+
+        if(joinColumnMetaData.getSubQuery() != null) {
+            SubQueryContainer.getInstance().put(batchFetchMethodDefinition.getStatementId(), joinColumnMetaData.getSubQuery());
+        }
+
+        batchFetchMethodDefinition.setJoinTableName(joinColumnMetaData.getJoinTableName());
+        batchFetchMethodDefinition.setColumnName(joinColumnMetaData.getColumnName());
+        batchFetchMethodDefinition.setReferencedColumnName(joinColumnMetaData.getReferencedColumnName());
+        batchFetchMethodDefinition.setInverseColumnName(joinColumnMetaData.getInverseColumnName());
+        batchFetchMethodDefinition.setInverseReferencedColumnName(joinColumnMetaData.getInverseReferencedColumnName());
+        batchFetchMethodDefinition.setBaseResultMap(true);
+        batchFetchMethodDefinition.setOneParameter(true);
+        // 参数是主表关联字段值的集合，参数类型记录关联字段的类型
+        batchFetchMethodDefinition.getParameterDefinitions().add(new ParameterDefinition(0, keyType));
+        referencedMapperDefinition.getMethodDefinitions().add(batchFetchMethodDefinition);
+        return batchFetchMethodDefinition;
+    }
 }
@@ -0,0 +1,36 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.anotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Rows of one multi-row insert statement of insertBatch for the entity,
+ * it overrides the global insert chunk size
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+@Documented
+public @interface InsertChunk {
+
+    /**
+     * less than or equals 0 means all rows in one statement
+     */
+    int value();
+}
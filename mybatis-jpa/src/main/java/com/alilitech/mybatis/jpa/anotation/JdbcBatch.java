@@ -0,0 +1,41 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.anotation;
+
+import java.lang.annotation.*;
+
+/**
+ * The mapper includes the annotation executes insertBatch and updateBatch by jdbc batch,
+ * the single row statement is prepared once and the rows are added by PreparedStatement#addBatch
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+@Documented
+public @interface JdbcBatch {
+
+    /**
+     * false means disable jdbc batch of the mapper even if it is enabled globally
+     */
+    boolean value() default true;
+
+    /**
+     * rows of one executeBatch, less than or equals 0 means use the global chunk size
+     */
+    int chunkSize() default 0;
+}
@@ -0,0 +1,147 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.batch;
+
+import com.alilitech.mybatis.jpa.StatementRegistry;
+import com.alilitech.mybatis.jpa.criteria.FetchPlan;
+import com.alilitech.mybatis.jpa.criteria.FetchPlanSpecification;
+import com.alilitech.mybatis.jpa.definition.JoinStatementDefinition;
+import com.alilitech.mybatis.jpa.definition.MethodDefinition;
+import com.alilitech.mybatis.jpa.parameter.InListStrategy;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.loader.ResultLoader;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.ParamNameResolver;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import java.util.*;
+
+/**
+ * Fetch the collections annotated by {@link com.alilitech.mybatis.jpa.anotation.BatchFetch} after the parents are queried,
+ * one IN query per association, the parent keys are split by the bind limit of database, see {@link InListStrategy}.
+ * If the association is lazy, the collections are proxies and all of them are loaded at the first access of any one.
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+@Intercepts({
+        @Signature(
+                type = Executor.class,
+                method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(
+                type = Executor.class,
+                method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class})
+})
+public class BatchFetchInterceptor implements Interceptor {
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+
+        MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+        MethodDefinition methodDefinition = StatementRegistry.getInstance().getMethodDefinition(ms.getId());
+        if(methodDefinition == null || methodDefinition.getBatchFetchStatementDefinitions().isEmpty()
+                || !(result instanceof List) || ((List<?>) result).isEmpty()) {
+            return result;
+        }
+
+        Executor executor = (Executor) invocation.getTarget();
+        // 运行时的抓取计划没有选择的关联不抓取
+        Object parameter = invocation.getArgs()[1];
+        FetchPlan<?> fetchPlan = parameter instanceof FetchPlanSpecification ? ((FetchPlanSpecification<?>) parameter).getFetchPlan() : null;
+        for (JoinStatementDefinition joinStatementDefinition : methodDefinition.getBatchFetchStatementDefinitions()) {
+            if(fetchPlan != null && !fetchPlan.isFetched(joinStatementDefinition.getProperty())) {
+                continue;
+            }
+            fetch(executor, ms.getConfiguration(), (List<?>) result, joinStatementDefinition);
+        }
+        return result;
+    }
+
+    private void fetch(Executor executor, Configuration configuration, List<?> parents, JoinStatementDefinition joinStatementDefinition) throws Exception {
+        List<MetaObject> parentMetaObjects = new ArrayList<>(parents.size());
+        Set<Object> keys = new LinkedHashSet<>();
+        for (Object parent : parents) {
+            MetaObject metaObject = configuration.newMetaObject(parent);
+            parentMetaObjects.add(metaObject);
+            Object key = metaObject.getValue(joinStatementDefinition.getKeyProperty());
+            if(key != null) {
+                keys.add(key);
+            }
+        }
+
+        List<ResultLoader> resultLoaders = new ArrayList<>();
+        if(!keys.isEmpty()) {
+            MappedStatement batchFetchMs = configuration.getMappedStatement(joinStatementDefinition.getBatchFetchStatementId());
+            int chunkSize = InListStrategy.getInstance().getBindLimit(configuration.getDatabaseId());
+            for (List<Object> chunk : split(keys, chunkSize)) {
+                // 在当前executor还可用时确定sql和缓存key，延迟加载时executor可能已关闭，由ResultLoader新建executor
+                Object parameterObject = ParamNameResolver.wrapToMapIfCollection(chunk, null);
+                BoundSql boundSql = batchFetchMs.getBoundSql(parameterObject);
+                CacheKey cacheKey = executor.createCacheKey(batchFetchMs, parameterObject, RowBounds.DEFAULT, boundSql);
+                resultLoaders.add(new ResultLoader(configuration, executor, batchFetchMs, parameterObject, List.class, cacheKey, boundSql));
+            }
+        }
+        BatchFetchLoader batchFetchLoader = new BatchFetchLoader(resultLoaders);
+
+        // 延迟加载只支持接口类型的集合属性，否则立即加载
+        Class<?> javaType = joinStatementDefinition.getJavaType();
+        boolean lazy = joinStatementDefinition.isLazy() && javaType.isInterface();
+
+        // 按主表字段值拼接到主表集合属性
+        for (MetaObject metaObject : parentMetaObjects) {
+            Object key = metaObject.getValue(joinStatementDefinition.getKeyProperty());
+            @SuppressWarnings("unchecked")
+            Collection<Object> collection = (Collection<Object>) configuration.getObjectFactory().create(javaType);
+            if(lazy) {
+                metaObject.setValue(joinStatementDefinition.getProperty(), batchFetchLoader.newLazyCollection(javaType, key, collection));
+            } else {
+                collection.addAll(batchFetchLoader.load(key));
+                metaObject.setValue(joinStatementDefinition.getProperty(), collection);
+            }
+        }
+    }
+
+    private List<List<Object>> split(Collection<Object> keys, int chunkSize) {
+        if(chunkSize <= 0 || keys.size() <= chunkSize) {
+            return Collections.singletonList(new ArrayList<>(keys));
+        }
+        List<List<Object>> chunks = new ArrayList<>();
+        List<Object> chunk = new ArrayList<>(chunkSize);
+        for (Object key : keys) {
+            chunk.add(key);
+            if(chunk.size() == chunkSize) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if(!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.batch;
+
+import org.apache.ibatis.executor.loader.ResultLoader;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * 一次主表查询的一个批量抓取关联共享一个loader，按块执行IN查询并按主表字段值分组；
+ * 延迟加载时，任一主表的集合第一次被访问就一次性加载所有主表的集合
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+public class BatchFetchLoader {
+
+    private final List<ResultLoader> resultLoaders;
+
+    private Map<Object, List<Object>> children;
+
+    public BatchFetchLoader(List<ResultLoader> resultLoaders) {
+        this.resultLoaders = resultLoaders;
+    }
+
+    @SuppressWarnings("unchecked")
+    public synchronized List<Object> load(Object key) throws SQLException {
+        if(children == null) {
+            Map<Object, List<Object>> loaded = new HashMap<>();
+            for (ResultLoader resultLoader : resultLoaders) {
+                for (BatchFetchRow row : (List<BatchFetchRow>) resultLoader.loadResult()) {
+                    loaded.computeIfAbsent(row.getKey(), k -> new ArrayList<>()).addAll(row.getEntities());
+                }
+            }
+            children = loaded;
+        }
+        return key == null ? Collections.emptyList() : children.getOrDefault(key, Collections.emptyList());
+    }
+
+    /**
+     * 集合代理，第一次调用任何方法时才加载
+     * @param collectionInterface 集合属性的接口类型，如List, Set
+     * @param target 真正的集合，加载后代理委托给它
+     */
+    @SuppressWarnings("unchecked")
+    public Collection<Object> newLazyCollection(Class<?> collectionInterface, Object key, Collection<Object> target) {
+        return (Collection<Object>) Proxy.newProxyInstance(BatchFetchLoader.class.getClassLoader(), new Class<?>[]{collectionInterface}, new LazyCollectionHandler(key, target));
+    }
+
+    private class LazyCollectionHandler implements InvocationHandler {
+
+        private final Object key;
+
+        private final Collection<Object> target;
+
+        private volatile boolean loaded = false;
+
+        LazyCollectionHandler(Object key, Collection<Object> target) {
+            this.key = key;
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if(!loaded) {
+                synchronized (this) {
+                    if(!loaded) {
+                        target.addAll(load(key));
+                        loaded = true;
+                    }
+                }
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The row of batch fetch, the children of one parent key
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+public class BatchFetchRow {
+
+    /**
+     * the column alias of parent key in the batch fetch sql
+     */
+    public static final String KEY_COLUMN = "batch_fetch_key";
+
+    private Object key;
+
+    private List<Object> entities = new ArrayList<>();
+
+    public Object getKey() {
+        return key;
+    }
+
+    public void setKey(Object key) {
+        this.key = key;
+    }
+
+    public List<Object> getEntities() {
+        return entities;
+    }
+
+    public void setEntities(List<Object> entities) {
+        this.entities = entities;
+    }
+}
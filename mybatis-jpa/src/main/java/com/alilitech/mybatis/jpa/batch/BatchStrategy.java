@@ -0,0 +1,115 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.batch;
+
+import com.alilitech.mybatis.MybatisJpaProperties;
+import com.alilitech.mybatis.jpa.anotation.InsertChunk;
+import com.alilitech.mybatis.jpa.anotation.JdbcBatch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Batch strategy of insertBatch and updateBatch, see {@link MybatisJpaProperties.Batch}, {@link JdbcBatch} and {@link InsertChunk}
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+public class BatchStrategy {
+
+    private static final BatchStrategy INSTANCE = new BatchStrategy();
+
+    private volatile boolean jdbc;
+
+    private volatile int jdbcChunkSize = 1000;
+
+    private volatile int insertChunkSize;
+
+    /**
+     * key: mapper class, value: jdbc batch chunk size, 0 means disabled
+     */
+    private final Map<Class<?>, Integer> jdbcChunkSizes = new ConcurrentHashMap<>();
+
+    /**
+     * key: entity class, value: insert chunk size, 0 means all rows in one statement
+     */
+    private final Map<Class<?>, Integer> insertChunkSizes = new ConcurrentHashMap<>();
+
+    private BatchStrategy() {
+    }
+
+    public static BatchStrategy getInstance() {
+        return INSTANCE;
+    }
+
+    public void configure(MybatisJpaProperties.Batch batch) {
+        this.jdbc = batch.isJdbc();
+        this.jdbcChunkSize = batch.getJdbcChunkSize();
+        this.insertChunkSize = batch.getInsertChunkSize();
+        jdbcChunkSizes.clear();
+        insertChunkSizes.clear();
+    }
+
+    /**
+     * @param mapper mapper interface
+     * @return rows of one executeBatch, 0 means jdbc batch is disabled for the mapper
+     */
+    public int getJdbcChunkSize(Class<?> mapper) {
+        return jdbcChunkSizes.computeIfAbsent(mapper, clazz -> {
+            JdbcBatch jdbcBatch = clazz.getAnnotation(JdbcBatch.class);
+            if(jdbcBatch == null) {
+                return jdbc ? Math.max(jdbcChunkSize, 0) : 0;
+            }
+            if(!jdbcBatch.value()) {
+                return 0;
+            }
+            return jdbcBatch.chunkSize() > 0 ? jdbcBatch.chunkSize() : Math.max(jdbcChunkSize, 0);
+        });
+    }
+
+    /**
+     * @param entityType entity class
+     * @return rows of one multi-row insert statement, 0 means all rows in one statement
+     */
+    public int getInsertChunkSize(Class<?> entityType) {
+        return insertChunkSizes.computeIfAbsent(entityType, clazz -> {
+            InsertChunk insertChunk = clazz.getAnnotation(InsertChunk.class);
+            return Math.max(insertChunk == null ? insertChunkSize : insertChunk.value(), 0);
+        });
+    }
+
+    /**
+     * split the rows into full chunks, then split the rest into power-of-two buckets,
+     * e.g. 300 rows with chunk size 128 => 128, 128, 32, 8, 4
+     */
+    public static <E> List<List<E>> split(List<E> rows, int chunkSize) {
+        List<List<E>> chunks = new ArrayList<>();
+        int from = 0;
+        int size = rows.size();
+        while (size - from >= chunkSize) {
+            chunks.add(rows.subList(from, from + chunkSize));
+            from += chunkSize;
+        }
+        while (from < size) {
+            int bucket = Integer.highestOneBit(size - from);
+            chunks.add(rows.subList(from, from + bucket));
+            from += bucket;
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.batch;
+
+import com.alilitech.mybatis.MybatisJpaProperties;
+import com.alilitech.mybatis.jpa.StatementRegistry;
+import com.alilitech.mybatis.jpa.definition.MapperDefinition;
+import com.alilitech.mybatis.jpa.definition.MethodDefinition;
+import com.alilitech.mybatis.jpa.statement.MethodType;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.ParamNameResolver;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Split the multi-row insert of insertBatch into fixed-size chunks and power-of-two buckets,
+ * so that the number of sql texts is small and the statement does not exceed the packet limit of database,
+ * see {@link BatchStrategy#split(List, int)}
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+@Intercepts({
+        @Signature(
+                type = Executor.class,
+                method = "update",
+                args = {MappedStatement.class, Object.class})
+})
+public class InsertChunkInterceptor implements Interceptor {
+
+    private static final String COLLECTION_KEY = "collection";
+
+    public InsertChunkInterceptor() {
+    }
+
+    public InsertChunkInterceptor(MybatisJpaProperties mybatisJpaProperties) {
+        BatchStrategy.getInstance().configure(mybatisJpaProperties.getBatch());
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object[] args = invocation.getArgs();
+        MappedStatement ms = (MappedStatement) args[0];
+        MethodDefinition methodDefinition = StatementRegistry.getInstance().getMethodDefinition(ms.getId());
+        if(methodDefinition == null || methodDefinition.getMapperDefinition() == null
+                || !MethodType.INSERT_BATCH.getType().equals(methodDefinition.getMethodName())
+                || !(args[1] instanceof Map) || !(((Map<?, ?>) args[1]).get(COLLECTION_KEY) instanceof Collection)) {
+            return invocation.proceed();
+        }
+
+        BatchStrategy batchStrategy = BatchStrategy.getInstance();
+        MapperDefinition mapperDefinition = methodDefinition.getMapperDefinition();
+        // jdbc batch 优先
+        if(batchStrategy.getJdbcChunkSize(mapperDefinition.getGenericType().getClazz()) > 0
+                || !(mapperDefinition.getGenericType().getDomainType() instanceof Class)) {
+            return invocation.proceed();
+        }
+
+        int chunkSize = batchStrategy.getInsertChunkSize((Class<?>) mapperDefinition.getGenericType().getDomainType());
+        Collection<?> rows = (Collection<?>) ((Map<?, ?>) args[1]).get(COLLECTION_KEY);
+        if(chunkSize <= 0 || rows.isEmpty()) {
+            return invocation.proceed();
+        }
+
+        List<List<Object>> chunks = BatchStrategy.split(new ArrayList<>(rows), chunkSize);
+        if(chunks.size() == 1) {
+            return invocation.proceed();
+        }
+
+        Executor executor = (Executor) invocation.getTarget();
+        int updateCount = 0;
+        for (List<Object> chunk : chunks) {
+            updateCount += executor.update(ms, ParamNameResolver.wrapToMapIfCollection(chunk, null));
+        }
+        return updateCount;
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.batch;
+
+import com.alilitech.mybatis.MybatisJpaProperties;
+import com.alilitech.mybatis.jpa.StatementRegistry;
+import com.alilitech.mybatis.jpa.definition.MethodDefinition;
+import com.alilitech.mybatis.jpa.pagination.CountCache;
+import com.alilitech.mybatis.jpa.statement.MethodType;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
+import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.jdbc.ConnectionLogger;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.transaction.Transaction;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+
+/**
+ * Execute insertBatch and updateBatch by jdbc batch.
+ * <p>
+ * The single row statement (insert for insertBatch, updateSelective for updateBatch) is prepared once per sql text,
+ * the rows are added by {@link Statement#addBatch()} and executed every chunk size rows,
+ * the update counts are summed and the generated keys are written back to the rows.
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+@Intercepts({
+        @Signature(
+                type = Executor.class,
+                method = "update",
+                args = {MappedStatement.class, Object.class})
+})
+public class JdbcBatchInterceptor implements Interceptor {
+
+    private static final String COLLECTION_KEY = "collection";
+
+    public JdbcBatchInterceptor() {
+    }
+
+    public JdbcBatchInterceptor(MybatisJpaProperties mybatisJpaProperties) {
+        BatchStrategy.getInstance().configure(mybatisJpaProperties.getBatch());
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object[] args = invocation.getArgs();
+        MappedStatement ms = (MappedStatement) args[0];
+        MethodDefinition methodDefinition = StatementRegistry.getInstance().getMethodDefinition(ms.getId());
+        if(methodDefinition == null || methodDefinition.getMapperDefinition() == null) {
+            return invocation.proceed();
+        }
+
+        String rowMethodName = getRowMethodName(methodDefinition.getMethodName());
+        if(rowMethodName == null || !(args[1] instanceof Map) || !(((Map<?, ?>) args[1]).get(COLLECTION_KEY) instanceof Collection)) {
+            return invocation.proceed();
+        }
+
+        int chunkSize = BatchStrategy.getInstance().getJdbcChunkSize(methodDefinition.getMapperDefinition().getGenericType().getClazz());
+        String rowStatementId = methodDefinition.getNamespace() + "." + rowMethodName;
+        Configuration configuration = ms.getConfiguration();
+        if(chunkSize <= 0 || !configuration.hasStatement(rowStatementId, false)) {
+            return invocation.proceed();
+        }
+
+        Collection<?> rows = (Collection<?>) ((Map<?, ?>) args[1]).get(COLLECTION_KEY);
+        if(rows.isEmpty()) {
+            return 0;
+        }
+
+        MappedStatement rowMs = configuration.getMappedStatement(rowStatementId, false);
+        Executor executor = (Executor) invocation.getTarget();
+        // 和Executor#update一样清空缓存
+        executor.clearLocalCache();
+        if(rowMs.isFlushCacheRequired() && rowMs.getCache() != null) {
+            rowMs.getCache().clear();
+        }
+        // BATCH类型的会话先执行已缓存的语句，保证执行顺序
+        executor.flushStatements();
+        try {
+            return executeBatch(executor, rowMs, rows, chunkSize);
+        } finally {
+            // 没有执行内层的update，由这里使总数缓存失效
+            CountCache.getInstance().onWrite(executor, ms);
+        }
+    }
+
+    /**
+     * insertBatch -> insert, updateBatch -> updateSelective (updateBatch only updates the not null properties)
+     */
+    private String getRowMethodName(String methodName) {
+        if(MethodType.INSERT_BATCH.getType().equals(methodName)) {
+            return MethodType.INSERT.getType();
+        }
+        if(MethodType.UPDATE_BATCH.getType().equals(methodName)) {
+            return MethodType.UPDATE_SELECTIVE.getType();
+        }
+        return null;
+    }
+
+    private int executeBatch(Executor executor, MappedStatement rowMs, Collection<?> rows, int chunkSize) throws SQLException {
+        Configuration configuration = rowMs.getConfiguration();
+        Transaction transaction = executor.getTransaction();
+        Connection connection = getConnection(transaction, rowMs.getStatementLog());
+
+        // key: sql, 动态sql(如updateSelective)可能有多个sql
+        Map<String, PendingBatch> batches = new LinkedHashMap<>();
+        int updateCount = 0;
+        int pendingRows = 0;
+        try {
+            for (Object row : rows) {
+                // 创建StatementHandler时执行KeyGenerator#processBefore，设置主键和触发值
+                StatementHandler handler = configuration.newStatementHandler(executor, rowMs, row, RowBounds.DEFAULT, null, null);
+                String sql = handler.getBoundSql().getSql();
+                PendingBatch batch = batches.get(sql);
+                if(batch == null) {
+                    batch = new PendingBatch(handler.prepare(connection, transaction.getTimeout()));
+                    batches.put(sql, batch);
+                }
+                handler.parameterize(batch.statement);
+                handler.batch(batch.statement);
+                batch.parameters.add(row);
+
+                if(++pendingRows >= chunkSize) {
+                    updateCount += flush(executor, rowMs, batches);
+                    pendingRows = 0;
+                }
+            }
+            updateCount += flush(executor, rowMs, batches);
+        } finally {
+            close(batches);
+        }
+        return updateCount;
+    }
+
+    private int flush(Executor executor, MappedStatement rowMs, Map<String, PendingBatch> batches) throws SQLException {
+        int updateCount = 0;
+        KeyGenerator keyGenerator = rowMs.getKeyGenerator();
+        for (PendingBatch batch : batches.values()) {
+            for (int rowCount : batch.statement.executeBatch()) {
+                // 部分驱动(如oracle)只返回SUCCESS_NO_INFO
+                updateCount += rowCount == Statement.SUCCESS_NO_INFO ? 1 : Math.max(rowCount, 0);
+            }
+            if(keyGenerator instanceof Jdbc3KeyGenerator) {
+                ((Jdbc3KeyGenerator) keyGenerator).processBatch(rowMs, batch.statement, batch.parameters);
+            } else if(!(keyGenerator instanceof NoKeyGenerator)) {
+                for (Object parameter : batch.parameters) {
+                    keyGenerator.processAfter(executor, rowMs, batch.statement, parameter);
+                }
+            }
+        }
+        close(batches);
+        return updateCount;
+    }
+
+    private void close(Map<String, PendingBatch> batches) {
+        for (PendingBatch batch : batches.values()) {
+            try {
+                batch.statement.close();
+            } catch (SQLException e) {
+                // ignore
+            }
+        }
+        batches.clear();
+    }
+
+    private Connection getConnection(Transaction transaction, Log statementLog) throws SQLException {
+        Connection connection = transaction.getConnection();
+        if (statementLog.isDebugEnabled()) {
+            return ConnectionLogger.newInstance(connection, statementLog, 0);
+        }
+        return connection;
+    }
+
+    private static class PendingBatch {
+
+        private final Statement statement;
+
+        private final List<Object> parameters = new ArrayList<>();
+
+        private PendingBatch(Statement statement) {
+            this.statement = statement;
+        }
+    }
+}
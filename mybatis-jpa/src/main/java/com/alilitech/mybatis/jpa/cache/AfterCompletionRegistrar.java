@@ -0,0 +1,35 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.cache;
+
+/**
+ * Register a callback to run after the transaction which is managed out of mybatis is completed,
+ * such as the spring managed transaction, which commits the session before the connection.
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ * @see TransactionalInvalidation
+ */
+@FunctionalInterface
+public interface AfterCompletionRegistrar {
+
+    /**
+     * @param callback the callback to run after the transaction is committed or rolled back
+     * @return false when there is no active transaction to register to
+     */
+    boolean register(Runnable callback);
+
+}
@@ -0,0 +1,67 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.cache;
+
+import com.alilitech.mybatis.jpa.util.ConcurrentCache;
+
+/**
+ * The default in-process {@link EntityCache}, bounded by entry count and evicted by the second chance algorithm,
+ * see {@link ConcurrentCache}
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+public class ConcurrentEntityCache implements EntityCache {
+
+    private final ConcurrentCache<Object, Object> cache;
+
+    /**
+     * @param maxSize max count of cached entities
+     * @param ttl expire time in milliseconds, less than or equals 0 means never expire
+     */
+    public ConcurrentEntityCache(int maxSize, long ttl) {
+        this.cache = new ConcurrentCache<>(maxSize, 0, null, ttl);
+    }
+
+    @Override
+    public Object get(Object id) {
+        return cache.get(id);
+    }
+
+    @Override
+    public void put(Object id, Object entity) {
+        cache.put(id, entity);
+    }
+
+    @Override
+    public void remove(Object id) {
+        cache.remove(id);
+    }
+
+    @Override
+    public void clear() {
+        cache.clear();
+    }
+
+    public ConcurrentCache<Object, Object> getCache() {
+        return cache;
+    }
+
+    @Override
+    public String toString() {
+        return cache.toString();
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.cache;
+
+/**
+ * Cache of the entities of one entity type, keyed by primary key.
+ * <p>
+ * The entity put is a copy owned by the cache, and the entity got is copied again before returned to the caller,
+ * so the implementation can store it as it is, or serialize it to an off-heap or remote store.
+ * The implementation must be thread-safe.
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ * @see EntityCacheFactory
+ */
+public interface EntityCache {
+
+    /**
+     * @return the cached entity, or null when not cached
+     */
+    Object get(Object id);
+
+    void put(Object id, Object entity);
+
+    void remove(Object id);
+
+    void clear();
+
+}
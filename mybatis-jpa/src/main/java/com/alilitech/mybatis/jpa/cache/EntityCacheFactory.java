@@ -0,0 +1,37 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.cache;
+
+import com.alilitech.mybatis.MybatisJpaProperties;
+
+/**
+ * Create the {@link EntityCache} of each entity type, register it by {@link EntityCacheRegistry#setEntityCacheFactory(EntityCacheFactory)}
+ * to plug in another backend, such as caffeine or an off-heap store.
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+@FunctionalInterface
+public interface EntityCacheFactory {
+
+    /**
+     * @param entityType the entity type
+     * @param properties the entity cache properties
+     * @return the cache of the entity type, null means the entity type is not cached
+     */
+    EntityCache create(Class<?> entityType, MybatisJpaProperties.EntityCache properties);
+
+}
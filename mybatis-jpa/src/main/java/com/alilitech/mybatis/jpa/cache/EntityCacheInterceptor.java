@@ -0,0 +1,395 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.cache;
+
+import com.alilitech.mybatis.MybatisJpaProperties;
+import com.alilitech.mybatis.jpa.EntityMetaDataRegistry;
+import com.alilitech.mybatis.jpa.StatementRegistry;
+import com.alilitech.mybatis.jpa.definition.MethodDefinition;
+import com.alilitech.mybatis.jpa.meta.ColumnMetaData;
+import com.alilitech.mybatis.jpa.meta.EntityMetaData;
+import com.alilitech.mybatis.jpa.statement.MethodType;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.ParamNameResolver;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read findById, findAllById and existsById from the entity cache, findAllById only selects the missing ids,
+ * and the generated writes invalidate the cached entities by primary key, see {@link EntityCacheRegistry}.
+ * <p>
+ * update, updateSelective, updateBatch, deleteById and deleteBatch invalidate the written ids,
+ * updateSpecification and the other generated writes invalidate the entity type,
+ * and the writes of custom statements invalidate all entity types.
+ * The written entities are invalidated again when the session is committed, rolled back and closed,
+ * and after the transaction is completed when it is managed out of mybatis, see {@link TransactionalInvalidation}.
+ * The session does not read or fill the cache of the entity types it has written until it is closed.
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+@Intercepts({
+        @Signature(
+                type = Executor.class,
+                method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(
+                type = Executor.class,
+                method = "update",
+                args = {MappedStatement.class, Object.class}),
+        @Signature(
+                type = Executor.class,
+                method = "commit",
+                args = {boolean.class}),
+        @Signature(
+                type = Executor.class,
+                method = "rollback",
+                args = {boolean.class}),
+        @Signature(
+                type = Executor.class,
+                method = "close",
+                args = {boolean.class})
+})
+public class EntityCacheInterceptor implements Interceptor {
+
+    private static final String COLLECTION_KEY = "collection";
+
+    /**
+     * key: executor of the session, value: the writes not committed
+     */
+    private final Map<Executor, PendingWrites> pendingWritesMap = new ConcurrentHashMap<>();
+
+    public EntityCacheInterceptor() {
+    }
+
+    public EntityCacheInterceptor(MybatisJpaProperties mybatisJpaProperties) {
+        EntityCacheRegistry.getInstance().configure(mybatisJpaProperties.getEntityCache());
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        String methodName = invocation.getMethod().getName();
+        if("query".equals(methodName)) {
+            return EntityCacheRegistry.getInstance().isEnabled() ? query(invocation) : invocation.proceed();
+        }
+        if("update".equals(methodName)) {
+            return EntityCacheRegistry.getInstance().isEnabled() ? update(invocation) : invocation.proceed();
+        }
+
+        Executor executor = (Executor) invocation.getTarget();
+        if("close".equals(methodName)) {
+            try {
+                return invocation.proceed();
+            } finally {
+                PendingWrites pendingWrites = pendingWritesMap.remove(executor);
+                if(pendingWrites != null) {
+                    TransactionalInvalidation.getInstance().invalidateOnClose(pendingWrites::invalidate);
+                }
+            }
+        }
+
+        // commit, rollback
+        // spring在连接提交之前提交session，其它会话可能在这之间缓存旧数据，所以保留写入记录，关闭时再失效
+        try {
+            return invocation.proceed();
+        } finally {
+            PendingWrites pendingWrites = pendingWritesMap.get(executor);
+            if(pendingWrites != null) {
+                pendingWrites.invalidate();
+            }
+        }
+    }
+
+    private Object query(Invocation invocation) throws Throwable {
+        Object[] args = invocation.getArgs();
+        MappedStatement ms = (MappedStatement) args[0];
+        if(args[2] != RowBounds.DEFAULT || args[3] != null || args[1] == null) {
+            return invocation.proceed();
+        }
+
+        MethodDefinition methodDefinition = StatementRegistry.getInstance().getMethodDefinition(ms.getId());
+        EntityMetaData entityMetaData = getEntityMetaData(methodDefinition);
+        if(entityMetaData == null) {
+            return invocation.proceed();
+        }
+
+        Class<?> entityType = entityMetaData.getEntityType();
+        EntityCacheRegistry registry = EntityCacheRegistry.getInstance();
+        PendingWrites pendingWrites = pendingWritesMap.get((Executor) invocation.getTarget());
+        if(registry.getEntityCache(entityType) == null || (pendingWrites != null && pendingWrites.contains(entityType))) {
+            return invocation.proceed();
+        }
+
+        String methodName = methodDefinition.getMethodName();
+        if(MethodType.FIND_BY_ID.getType().equals(methodName)) {
+            return findById(invocation, entityMetaData);
+        }
+        if(MethodType.FIND_ALL_BY_ID.getType().equals(methodName)) {
+            return findAllById(invocation, entityMetaData);
+        }
+        if(MethodType.EXISTS_BY_ID.getType().equals(methodName) && registry.get(entityType, args[1]) != null) {
+            List<Object> results = new ArrayList<>(1);
+            results.add(Boolean.TRUE);
+            return results;
+        }
+        return invocation.proceed();
+    }
+
+    private Object findById(Invocation invocation, EntityMetaData entityMetaData) throws Throwable {
+        MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+        Object id = invocation.getArgs()[1];
+        Class<?> entityType = entityMetaData.getEntityType();
+        EntityCacheRegistry registry = EntityCacheRegistry.getInstance();
+
+        Object cached = registry.get(entityType, id);
+        if(cached != null) {
+            List<Object> results = new ArrayList<>(1);
+            results.add(copy(ms, entityMetaData, cached));
+            return results;
+        }
+
+        long version = registry.getVersion(entityType);
+        List<?> results = (List<?>) invocation.proceed();
+        if(results != null) {
+            putAll(ms, entityMetaData, results, version);
+        }
+        return results;
+    }
+
+    private Object findAllById(Invocation invocation, EntityMetaData entityMetaData) throws Throwable {
+        Object[] args = invocation.getArgs();
+        MappedStatement ms = (MappedStatement) args[0];
+        if(!(args[1] instanceof Map) || !(((Map<?, ?>) args[1]).get(COLLECTION_KEY) instanceof Collection)) {
+            return invocation.proceed();
+        }
+
+        Collection<?> ids = (Collection<?>) ((Map<?, ?>) args[1]).get(COLLECTION_KEY);
+        Class<?> entityType = entityMetaData.getEntityType();
+        EntityCacheRegistry registry = EntityCacheRegistry.getInstance();
+        long version = registry.getVersion(entityType);
+
+        List<Object> results = new ArrayList<>(ids.size());
+        List<Object> missingIds = new ArrayList<>();
+        for (Object id : new LinkedHashSet<>(ids)) {
+            Object cached = registry.get(entityType, id);
+            if(cached != null) {
+                results.add(copy(ms, entityMetaData, cached));
+            } else if(id != null) {
+                missingIds.add(id);
+            }
+        }
+        if(missingIds.isEmpty()) {
+            return results;
+        }
+
+        // 全部未命中时按原参数查询
+        List<?> fetched;
+        if(results.isEmpty()) {
+            fetched = (List<?>) invocation.proceed();
+        } else {
+            Executor executor = (Executor) invocation.getTarget();
+            fetched = executor.query(ms, ParamNameResolver.wrapToMapIfCollection(missingIds, null), (RowBounds) args[2], (ResultHandler<?>) args[3]);
+        }
+        if(fetched != null) {
+            putAll(ms, entityMetaData, fetched, version);
+            results.addAll(fetched);
+        }
+        return results;
+    }
+
+    private void putAll(MappedStatement ms, EntityMetaData entityMetaData, List<?> entities, long version) {
+        ColumnMetaData primaryColumnMetaData = entityMetaData.getPrimaryColumnMetaData();
+        for (Object entity : entities) {
+            if(entity != null && entityMetaData.getEntityType().isInstance(entity)) {
+                EntityCacheRegistry.getInstance().put(entityMetaData.getEntityType(), primaryColumnMetaData.getValue(entity), copy(ms, entityMetaData, entity), version);
+            }
+        }
+    }
+
+    private Object update(Invocation invocation) throws Throwable {
+        Object[] args = invocation.getArgs();
+        MappedStatement ms = (MappedStatement) args[0];
+        try {
+            return invocation.proceed();
+        } finally {
+            PendingWrites writes = new PendingWrites();
+            MethodDefinition methodDefinition = StatementRegistry.getInstance().getMethodDefinition(ms.getId());
+            EntityMetaData entityMetaData = getEntityMetaData(methodDefinition);
+            if(entityMetaData == null) {
+                writes.all = true;
+            } else if(EntityCacheRegistry.getInstance().getEntityCache(entityMetaData.getEntityType()) != null) {
+                collectWrites(writes, methodDefinition.getMethodName(), entityMetaData, args[1]);
+            }
+            // 立即失效，在事务中时提交或回滚时再失效一次
+            if(!writes.isEmpty()) {
+                writes.invalidate();
+                Executor executor = (Executor) invocation.getTarget();
+                if(!TransactionalInvalidation.isAutoCommit(executor)) {
+                    pendingWritesMap.computeIfAbsent(executor, key -> new PendingWrites()).merge(writes);
+                }
+            }
+        }
+    }
+
+    private void collectWrites(PendingWrites pendingWrites, String methodName, EntityMetaData entityMetaData, Object parameter) {
+        Class<?> entityType = entityMetaData.getEntityType();
+        ColumnMetaData primaryColumnMetaData = entityMetaData.getPrimaryColumnMetaData();
+
+        // 新增的实体不在缓存中，只需要在事务中不读写缓存
+        if(MethodType.INSERT.getType().equals(methodName) || MethodType.INSERT_SELECTIVE.getType().equals(methodName)
+                || MethodType.INSERT_BATCH.getType().equals(methodName)) {
+            pendingWrites.add(entityType);
+            return;
+        }
+
+        if((MethodType.UPDATE.getType().equals(methodName) || MethodType.UPDATE_SELECTIVE.getType().equals(methodName))
+                && entityType.isInstance(parameter)) {
+            pendingWrites.add(entityType, primaryColumnMetaData.getValue(parameter));
+            return;
+        }
+
+        if(MethodType.DELETE_BY_ID.getType().equals(methodName) && parameter != null && !(parameter instanceof Map)) {
+            pendingWrites.add(entityType, parameter);
+            return;
+        }
+
+        Object collection = parameter instanceof Map ? ((Map<?, ?>) parameter).get(COLLECTION_KEY) : null;
+        if(MethodType.UPDATE_BATCH.getType().equals(methodName) && collection instanceof Collection) {
+            for (Object entity : (Collection<?>) collection) {
+                if(!entityType.isInstance(entity)) {
+                    pendingWrites.clear(entityType);
+                    return;
+                }
+                pendingWrites.add(entityType, primaryColumnMetaData.getValue(entity));
+            }
+            return;
+        }
+
+        if(MethodType.DELETE_BATCH.getType().equals(methodName) && collection instanceof Collection) {
+            for (Object id : (Collection<?>) collection) {
+                pendingWrites.add(entityType, id);
+            }
+            return;
+        }
+
+        // updateSpecification或其它写入语句，不能确定主键
+        pendingWrites.clear(entityType);
+    }
+
+    /**
+     * @return entity meta data of the generated statement, otherwise null
+     */
+    private EntityMetaData getEntityMetaData(MethodDefinition methodDefinition) {
+        if(methodDefinition == null || methodDefinition.getMapperDefinition() == null) {
+            return null;
+        }
+        return EntityMetaDataRegistry.getInstance().get(methodDefinition.getMapperDefinition().getGenericType().getDomainType());
+    }
+
+    /**
+     * copy the column properties, the cache and the callers never share an instance
+     */
+    private Object copy(MappedStatement ms, EntityMetaData entityMetaData, Object entity) {
+        Object copy = ms.getConfiguration().getObjectFactory().create(entityMetaData.getEntityType());
+        for (ColumnMetaData columnMetaData : entityMetaData.getColumnMetaDataMap().values()) {
+            columnMetaData.setValue(copy, columnMetaData.getValue(entity));
+        }
+        return copy;
+    }
+
+    /**
+     * the writes of a session not committed
+     */
+    private static class PendingWrites {
+
+        /**
+         * the written entity types
+         */
+        private final Set<Class<?>> entityTypes = new HashSet<>();
+
+        /**
+         * key: entity type, value: the written ids
+         */
+        private final Map<Class<?>, Set<Object>> ids = new HashMap<>();
+
+        /**
+         * the entity types written without ids
+         */
+        private final Set<Class<?>> clearedEntityTypes = new HashSet<>();
+
+        /**
+         * written by custom statements
+         */
+        private boolean all;
+
+        void add(Class<?> entityType) {
+            entityTypes.add(entityType);
+        }
+
+        void add(Class<?> entityType, Object id) {
+            entityTypes.add(entityType);
+            if(id == null) {
+                clearedEntityTypes.add(entityType);
+            } else {
+                ids.computeIfAbsent(entityType, key -> new HashSet<>()).add(id);
+            }
+        }
+
+        void clear(Class<?> entityType) {
+            entityTypes.add(entityType);
+            clearedEntityTypes.add(entityType);
+        }
+
+        boolean isEmpty() {
+            return !all && entityTypes.isEmpty();
+        }
+
+        void merge(PendingWrites writes) {
+            all |= writes.all;
+            entityTypes.addAll(writes.entityTypes);
+            clearedEntityTypes.addAll(writes.clearedEntityTypes);
+            writes.ids.forEach((entityType, entityIds) -> ids.computeIfAbsent(entityType, key -> new HashSet<>()).addAll(entityIds));
+        }
+
+        boolean contains(Class<?> entityType) {
+            return all || entityTypes.contains(entityType);
+        }
+
+        void invalidate() {
+            EntityCacheRegistry registry = EntityCacheRegistry.getInstance();
+            if(all) {
+                registry.invalidateAll();
+                return;
+            }
+            for (Class<?> entityType : clearedEntityTypes) {
+                registry.invalidate(entityType);
+            }
+            ids.forEach((entityType, entityIds) -> {
+                if(!clearedEntityTypes.contains(entityType)) {
+                    entityIds.forEach(id -> registry.invalidate(entityType, id));
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.cache;
+
+import com.alilitech.mybatis.MybatisJpaProperties;
+import com.alilitech.mybatis.jpa.EntityMetaDataRegistry;
+import com.alilitech.mybatis.jpa.meta.ColumnMetaData;
+import com.alilitech.mybatis.jpa.meta.EntityMetaData;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registry of the entity caches keyed by primary key, used by findById, findAllById and existsById, see {@link EntityCacheInterceptor}.
+ * <p>
+ * Only the entities with a single primary key and without join columns are cached,
+ * the cached entity is a copy of the column properties, so the callers never share an instance.
+ * Each entity type has a version, which is increased by any invalidation,
+ * the entity read before an invalidation is not put into the cache,
+ * and the written entities are invalidated again after the transaction is completed, so a concurrent write does not leave a stale entity.
+ * The writes out of this application can not be detected, use ttl or call {@link #invalidate(Class, Object)} for them.
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+public class EntityCacheRegistry {
+
+    private static final EntityCacheFactory DEFAULT_FACTORY = (entityType, properties) -> new ConcurrentEntityCache(properties.getMaxSize(), properties.getTtl());
+
+    /**
+     * the entity type which is not cached
+     */
+    private static final Region NO_REGION = new Region(null);
+
+    private static final EntityCacheRegistry INSTANCE = new EntityCacheRegistry();
+
+    private volatile MybatisJpaProperties.EntityCache properties = new MybatisJpaProperties.EntityCache();
+
+    private volatile EntityCacheFactory entityCacheFactory = DEFAULT_FACTORY;
+
+    /**
+     * key: entity type
+     */
+    private final Map<Class<?>, Region> regions = new ConcurrentHashMap<>();
+
+    private EntityCacheRegistry() {
+    }
+
+    public static EntityCacheRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    public void configure(MybatisJpaProperties.EntityCache properties) {
+        this.properties = properties;
+        regions.clear();
+    }
+
+    /**
+     * @param entityCacheFactory null means the default in-process cache
+     */
+    public void setEntityCacheFactory(EntityCacheFactory entityCacheFactory) {
+        this.entityCacheFactory = entityCacheFactory == null ? DEFAULT_FACTORY : entityCacheFactory;
+        regions.clear();
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * whether the entity has a single primary key and no join columns
+     */
+    public static boolean isCacheable(EntityMetaData entityMetaData) {
+        if(entityMetaData == null || entityMetaData.getPrimaryColumnMetaData() == null) {
+            return false;
+        }
+        for (ColumnMetaData columnMetaData : entityMetaData.getColumnMetaDataMap().values()) {
+            if(columnMetaData.isJoin()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the cache of the entity type, null when disabled or the entity type is not cached
+     */
+    public EntityCache getEntityCache(Class<?> entityType) {
+        return getRegion(entityType).cache;
+    }
+
+    public Object get(Class<?> entityType, Object id) {
+        EntityCache cache = getRegion(entityType).cache;
+        return cache == null || id == null ? null : cache.get(id);
+    }
+
+    /**
+     * get the version of the entity type, it must be got before reading the entity from database
+     */
+    public long getVersion(Class<?> entityType) {
+        return getRegion(entityType).version.get();
+    }
+
+    /**
+     * put the entity read from database, it is ignored when the entity type has been invalidated since the version got
+     */
+    public void put(Class<?> entityType, Object id, Object entity, long version) {
+        Region region = getRegion(entityType);
+        if(region.cache == null || id == null || entity == null || region.version.get() != version) {
+            return;
+        }
+        region.cache.put(id, entity);
+        // 写入期间被失效了
+        if(region.version.get() != version) {
+            region.cache.remove(id);
+        }
+    }
+
+    public void invalidate(Class<?> entityType, Object id) {
+        Region region = regions.get(entityType);
+        if(region != null && region.cache != null) {
+            region.version.incrementAndGet();
+            region.cache.remove(id);
+        }
+    }
+
+    public void invalidate(Class<?> entityType) {
+        Region region = regions.get(entityType);
+        if(region != null && region.cache != null) {
+            region.version.incrementAndGet();
+            region.cache.clear();
+        }
+    }
+
+    public void invalidateAll() {
+        for (Class<?> entityType : regions.keySet()) {
+            invalidate(entityType);
+        }
+    }
+
+    private Region getRegion(Class<?> entityType) {
+        if(!isEnabled() || entityType == null) {
+            return NO_REGION;
+        }
+        Region region = regions.get(entityType);
+        if(region == null) {
+            region = regions.computeIfAbsent(entityType, this::createRegion);
+        }
+        return region;
+    }
+
+    private Region createRegion(Class<?> entityType) {
+        if(!isCacheable(EntityMetaDataRegistry.getInstance().get(entityType))) {
+            return NO_REGION;
+        }
+        EntityCache cache = entityCacheFactory.create(entityType, properties);
+        return cache == null ? NO_REGION : new Region(cache);
+    }
+
+    private static class Region {
+
+        private final EntityCache cache;
+
+        private final AtomicLong version = new AtomicLong();
+
+        Region(EntityCache cache) {
+            this.cache = cache;
+        }
+    }
+}
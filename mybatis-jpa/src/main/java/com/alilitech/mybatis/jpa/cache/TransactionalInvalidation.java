@@ -0,0 +1,69 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.cache;
+
+import org.apache.ibatis.executor.Executor;
+
+import java.sql.SQLException;
+
+/**
+ * Invalidate the caches written by a session when the session is closed, and again after the transaction is completed.
+ * <p>
+ * The session is committed after the connection in plain mybatis, but before the connection in a spring managed transaction,
+ * another session may cache the old data between them, so the invalidation is repeated by {@link AfterCompletionRegistrar} if registered.
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+public class TransactionalInvalidation {
+
+    private static final TransactionalInvalidation INSTANCE = new TransactionalInvalidation();
+
+    private volatile AfterCompletionRegistrar afterCompletionRegistrar;
+
+    private TransactionalInvalidation() {
+    }
+
+    public static TransactionalInvalidation getInstance() {
+        return INSTANCE;
+    }
+
+    public void setAfterCompletionRegistrar(AfterCompletionRegistrar afterCompletionRegistrar) {
+        this.afterCompletionRegistrar = afterCompletionRegistrar;
+    }
+
+    /**
+     * whether the writes of the session are committed already, then they need not to be invalidated again
+     */
+    public static boolean isAutoCommit(Executor executor) {
+        try {
+            return executor.getTransaction().getConnection().getAutoCommit();
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * run the invalidation now, and again after the transaction is completed if there is one
+     */
+    public void invalidateOnClose(Runnable invalidation) {
+        invalidation.run();
+        AfterCompletionRegistrar registrar = this.afterCompletionRegistrar;
+        if(registrar != null) {
+            registrar.register(invalidation);
+        }
+    }
+}
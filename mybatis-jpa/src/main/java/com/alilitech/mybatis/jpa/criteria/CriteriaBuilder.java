@@ -21,7 +21,6 @@ import com.alilitech.mybatis.jpa.criteria.expression.operator.comparison.*;
 import com.alilitech.mybatis.jpa.criteria.expression.operator.like.*;
 import com.alilitech.mybatis.jpa.definition.MethodDefinition;
 import com.alilitech.mybatis.jpa.domain.Direction;
-import org.apache.ibatis.reflection.property.PropertyNamer;
 
 import java.util.Arrays;
 import java.util.Collection;
@@ -208,7 +207,7 @@ public class CriteriaBuilder<T> {
     }
 
     private String getProperty(SerializableFunction<T, ?> function) {
-        return PropertyNamer.methodToProperty(function.getImplMethodName());
+        return function.getPropertyName();
     }
 
     public OrderExpression<T> desc(String property) {
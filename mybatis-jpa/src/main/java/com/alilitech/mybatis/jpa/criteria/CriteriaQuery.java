@@ -21,6 +21,7 @@ import com.alilitech.mybatis.jpa.criteria.expression.*;
 import com.alilitech.mybatis.jpa.definition.MethodDefinition;
 import com.alilitech.mybatis.jpa.meta.ColumnMetaData;
 import com.alilitech.mybatis.jpa.meta.EntityMetaData;
+import com.alilitech.mybatis.jpa.meta.TriggerPlan;
 import com.alilitech.mybatis.jpa.parameter.TriggerValueType;
 import com.alilitech.mybatis.jpa.statement.StatementAssistant;
 import org.apache.ibatis.mapping.SqlCommandType;
@@ -58,6 +59,15 @@ public class CriteriaQuery<T> {
         renderContext.addJoinTableAliasMap(methodDefinition.getJoinStatementDefinitions());
     }
 
+    /**
+     * @param databaseId databaseId of configuration, for the dialect specific rendering
+     * @since 2.2.5
+     */
+    public CriteriaQuery(Class<T> returnType, MethodDefinition methodDefinition, String databaseId) {
+        this(returnType, methodDefinition);
+        renderContext.setDatabaseId(databaseId);
+    }
+
 //    public CriteriaQuery(Class<T> returnType, PredicateExpression.BooleanOperator booleanOperator) {
 //        this(returnType);
 //        this.booleanOperator = booleanOperator;
@@ -94,20 +104,21 @@ public class CriteriaQuery<T> {
 
         // 设置数据库函数的触发器
         // 设置代码级触发器，预留位置
-        for (ColumnMetaData columnMetaData : entityMetaData.getColumnMetaDataMap().values()) {
-            String function = StatementAssistant.resolveSqlParameterByDatabaseFunction(columnMetaData, SqlCommandType.UPDATE);
-            if(function != null) {
-                renderContext.renderString(columnMetaData.getColumnName());
-                renderContext.renderString(" = ");
-                renderContext.renderString(function);
-                renderContext.renderString(split);
-                continue;
-            }
+        TriggerPlan triggerPlan = entityMetaData.getTriggerPlan(SqlCommandType.UPDATE);
+        Set<String> functionColumnNames = new HashSet<>();
+        for (TriggerPlan.Step step : triggerPlan.getDatabaseFunctionSteps()) {
+            renderContext.renderString(step.getColumnMetaData().getColumnName());
+            renderContext.renderString(" = ");
+            renderContext.renderString(step.getTrigger().value());
+            renderContext.renderString(split);
+            functionColumnNames.add(step.getColumnMetaData().getProperty());
+        }
 
-            Trigger codeTrigger = StatementAssistant.getJavaCodeTrigger(columnMetaData, SqlCommandType.UPDATE);
-            // 有触发器，并且前面没有设置set
-            if(codeTrigger != null && !setColumnNames.contains(columnMetaData.getProperty())) {
-                SetExpression<T> setExpression = new SetExpression<>(new VariableExpression<>(returnType, columnMetaData.getProperty(), methodDefinition), new ParameterExpression<>("@{" + columnMetaData.getProperty() + "}"));
+        for (TriggerPlan.Step step : triggerPlan.getJavaCodeSteps()) {
+            String property = step.getColumnMetaData().getProperty();
+            // 有触发器，并且前面没有设置set，每列只设置一次
+            if(!functionColumnNames.contains(property) && setColumnNames.add(property)) {
+                SetExpression<T> setExpression = new SetExpression<>(new VariableExpression<>(returnType, property, methodDefinition), new ParameterExpression<>("@{" + property + "}"));
                 setExpression.render(renderContext);
                 renderContext.renderString(split);
             }
@@ -156,6 +167,28 @@ public class CriteriaQuery<T> {
         return orderByScript;
     }
 
+    /**
+     * 按渲染顺序的参数值
+     * @since 2.2.5
+     */
+    public Object getParamValue(int index) {
+        return renderContext.getParamValue(index);
+    }
+
+    /**
+     * 按渲染顺序的参数类型，mybatis会根据参数值的类型解析ParameterMapping，所以它也是sql形状的一部分
+     * @since 2.2.5
+     */
+    public Class<?>[] getParamTypes() {
+        int size = renderContext.getParamIndex();
+        Class<?>[] paramTypes = new Class<?>[size];
+        for (int i = 0; i < size; i++) {
+            Object value = renderContext.getParamValue(i);
+            paramTypes[i] = value == null ? null : value.getClass();
+        }
+        return paramTypes;
+    }
+
     public static void main(String[] args) {
         String s = "@{abc}";
 
@@ -0,0 +1,124 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.criteria;
+
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 运行时的抓取计划，决定一次规格查询加载主表的哪些列和哪些关联，未指定的部分按方法的定义全部加载；
+ * 主键和关联需要的主表字段总会被查询。每种抓取计划生成的sql会按statement缓存。
+ * <pre>
+ * userMapper.findAllSpecification(FetchPlan.&lt;User&gt;create()
+ *         .select(User::getName, User::getAge)
+ *         .fetch(User::getDept)
+ *         .where(specification));
+ * </pre>
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+public class FetchPlan<T> implements Serializable {
+
+    /**
+     * 需要查询的主表属性，null表示全部
+     */
+    private Set<String> properties;
+
+    /**
+     * 需要加载的关联属性，null表示方法定义的全部关联
+     */
+    private Set<String> associations;
+
+    public static <T> FetchPlan<T> create() {
+        return new FetchPlan<>();
+    }
+
+    public FetchPlan<T> select(String... properties) {
+        if(this.properties == null) {
+            this.properties = new TreeSet<>();
+        }
+        Collections.addAll(this.properties, properties);
+        return this;
+    }
+
+    @SafeVarargs
+    public final FetchPlan<T> select(SerializableFunction<T, ?>... propertyFunctions) {
+        return select(toProperties(propertyFunctions));
+    }
+
+    /**
+     * 只加载指定的关联
+     */
+    public FetchPlan<T> fetch(String... associations) {
+        if(this.associations == null) {
+            this.associations = new TreeSet<>();
+        }
+        Collections.addAll(this.associations, associations);
+        return this;
+    }
+
+    @SafeVarargs
+    public final FetchPlan<T> fetch(SerializableFunction<T, ?>... associationFunctions) {
+        return fetch(toProperties(associationFunctions));
+    }
+
+    /**
+     * 不加载任何关联
+     */
+    public FetchPlan<T> fetchNone() {
+        this.associations = new TreeSet<>();
+        return this;
+    }
+
+    /**
+     * 带上抓取计划的规格查询，specification可以为null
+     */
+    public Specification<T> where(Specification<T> specification) {
+        return new FetchPlanSpecification<>(this, specification);
+    }
+
+    public boolean isSelected(String property) {
+        return properties == null || properties.contains(property);
+    }
+
+    public boolean isFetched(String association) {
+        return associations == null || associations.contains(association);
+    }
+
+    /**
+     * 抓取计划的唯一标识，相同标识生成的sql相同
+     */
+    public String getKey() {
+        return (properties == null ? "*" : String.join(",", properties)) + "|" + (associations == null ? "*" : String.join(",", associations));
+    }
+
+    private String[] toProperties(SerializableFunction<T, ?>[] functions) {
+        String[] result = new String[functions.length];
+        for (int i = 0; i < functions.length; i++) {
+            result[i] = functions[i].getPropertyName();
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "FetchPlan{" + getKey() + "}";
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.criteria;
+
+import com.alilitech.mybatis.jpa.criteria.expression.PredicateExpression;
+
+/**
+ * 带抓取计划的规格查询，查询条件委托给原来的规格
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+public class FetchPlanSpecification<T> implements Specification<T> {
+
+    private final FetchPlan<T> fetchPlan;
+
+    private final Specification<T> specification;
+
+    public FetchPlanSpecification(FetchPlan<T> fetchPlan, Specification<T> specification) {
+        this.fetchPlan = fetchPlan;
+        this.specification = specification;
+    }
+
+    @Override
+    public PredicateExpression<T> toPredicate(CriteriaBuilder<T> cb, CriteriaQuery<T> query) {
+        return specification == null ? null : specification.toPredicate(cb, query);
+    }
+
+    public FetchPlan<T> getFetchPlan() {
+        return fetchPlan;
+    }
+
+    public Specification<T> getSpecification() {
+        return specification;
+    }
+}
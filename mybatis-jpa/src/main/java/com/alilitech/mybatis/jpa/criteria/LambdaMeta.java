@@ -0,0 +1,124 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.criteria;
+
+import com.alilitech.mybatis.jpa.exception.MybatisJpaException;
+import org.apache.ibatis.reflection.property.PropertyNamer;
+
+import java.lang.invoke.SerializedLambda;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * {@link SerializableFunction}解析后的方法信息，按lambda的类缓存，
+ * 同一个方法引用只在第一次使用时调用writeReplace
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+public class LambdaMeta {
+
+    /** 随lambda的类回收，不会阻止类卸载 */
+    private static final ClassValue<Holder> CACHE = new ClassValue<Holder>() {
+        @Override
+        protected Holder computeValue(Class<?> type) {
+            return new Holder();
+        }
+    };
+
+    private final String implClass;
+
+    private final String implMethodName;
+
+    private final Class<?> entityClass;
+
+    private final String property;
+
+    private LambdaMeta(SerializableFunction<?, ?> function) {
+        SerializedLambda serializedLambda = resolveSerializedLambda(function);
+        this.implClass = serializedLambda.getImplClass();
+        this.implMethodName = serializedLambda.getImplMethodName();
+        this.entityClass = resolveEntityClass(function.getClass(), implClass);
+        this.property = PropertyNamer.isProperty(implMethodName) ? PropertyNamer.methodToProperty(implMethodName) : null;
+    }
+
+    public static LambdaMeta of(SerializableFunction<?, ?> function) {
+        Holder holder = CACHE.get(function.getClass());
+        LambdaMeta lambdaMeta = holder.lambdaMeta;
+        if(lambdaMeta == null) {
+            lambdaMeta = new LambdaMeta(function);
+            holder.lambdaMeta = lambdaMeta;
+        }
+        return lambdaMeta;
+    }
+
+    /**
+     * 实现方法所在的类，格式为 com/example/User
+     */
+    public String getImplClass() {
+        return implClass;
+    }
+
+    public String getImplMethodName() {
+        return implMethodName;
+    }
+
+    /**
+     * 实现方法所在的类，类加载器不可见时为null
+     */
+    public Class<?> getEntityClass() {
+        return entityClass;
+    }
+
+    /**
+     * 方法对应的属性名
+     */
+    public String getProperty() {
+        // 不是getter时由PropertyNamer抛出异常
+        return property != null ? property : PropertyNamer.methodToProperty(implMethodName);
+    }
+
+    static SerializedLambda resolveSerializedLambda(SerializableFunction<?, ?> function) {
+        try {
+            Method write = function.getClass().getDeclaredMethod("writeReplace");
+            write.setAccessible(true);
+            return (SerializedLambda) write.invoke(function);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            throw new MybatisJpaException(e);
+        }
+    }
+
+    private static Class<?> resolveEntityClass(Class<?> lambdaClass, String implClass) {
+        try {
+            return Class.forName(implClass.replace('/', '.'), false, lambdaClass.getClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LambdaMeta{" +
+                "implClass='" + implClass + '\'' +
+                ", implMethodName='" + implMethodName + '\'' +
+                ", property='" + property + '\'' +
+                '}';
+    }
+
+    private static class Holder {
+        private volatile LambdaMeta lambdaMeta;
+    }
+}
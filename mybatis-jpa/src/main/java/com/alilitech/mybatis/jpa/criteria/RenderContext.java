@@ -16,36 +16,53 @@
 package com.alilitech.mybatis.jpa.criteria;
 
 import com.alilitech.mybatis.jpa.definition.JoinStatementDefinition;
-import com.alilitech.mybatis.jpa.statement.parser.PropertyPath;
-import org.springframework.util.StringUtils;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.*;
 
 /**
+ * 规格查询的渲染上下文，每个{@link CriteriaQuery}独占一个，只在渲染的线程内使用，
+ * 参数值按渲染顺序保存在数组里，参数名按下标缓存
+ *
  * @author Zhou Xiaoxiang
  * @since 1.1
  */
 public class RenderContext {
 
-    private StringBuilder scriptBuilder = new StringBuilder();
+    private static final String DEFAULT_PARAM_PREFIX = "param";
+
+    /** 常用的参数名，避免每个参数拼接字符串 */
+    private static final String[] DEFAULT_PARAM_NAMES = new String[64];
+
+    static {
+        for (int i = 0; i < DEFAULT_PARAM_NAMES.length; i++) {
+            DEFAULT_PARAM_NAMES[i] = DEFAULT_PARAM_PREFIX + i;
+        }
+    }
+
+    private final StringBuilder scriptBuilder = new StringBuilder(256);
 
-    private final AtomicInteger paramIndex = new AtomicInteger(0);
+    private int paramIndex = 0;
 
     private String paramPrefixPrefix = "_parameter.paramValues.";
 
-    private String paramPrefix = "param";
+    private String paramPrefix = DEFAULT_PARAM_PREFIX;
 
-    private final Map<String, Object> paramValues = new ConcurrentHashMap<>();
+    /** 按渲染顺序的参数值 */
+    private Object[] paramSlots = new Object[16];
+
+    private final ParamValues paramValues = new ParamValues();
 
     /**
      * 联表的或子表的表别名, 优先子表渲染
      */
     private final Map<Class<?>, String> tableAliasMap = new HashMap<>();
 
+    /**
+     * databaseId of configuration, for the dialect specific rendering
+     * @since 2.2.5
+     */
+    private String databaseId;
+
     public RenderContext() {
     }
 
@@ -61,11 +78,60 @@ public class RenderContext {
     }
 
     public Integer getParamIndex() {
-        return paramIndex.get();
+        return paramIndex;
     }
 
+    /**
+     * 占用一个参数下标，之后通过{@link #getParamValues()}按参数名put值
+     * @deprecated use {@link #addParamValue(Object)}
+     */
+    @Deprecated
     public Integer getParamIndexAndIncrement() {
-        return paramIndex.getAndIncrement();
+        int index = paramIndex++;
+        ensureCapacity(index);
+        return index;
+    }
+
+    /**
+     * 按顺序添加参数值
+     * @return 参数名
+     * @since 2.2.5
+     */
+    public String addParamValue(Object value) {
+        int index = paramIndex++;
+        ensureCapacity(index);
+        paramSlots[index] = value;
+        return getParamName(index);
+    }
+
+    private void ensureCapacity(int index) {
+        if(index == paramSlots.length) {
+            paramSlots = Arrays.copyOf(paramSlots, index << 1);
+        }
+    }
+
+    /**
+     * @since 2.2.5
+     */
+    public Object getParamValue(int index) {
+        return paramSlots[index];
+    }
+
+    /**
+     * @since 2.2.5
+     */
+    public void setParamValue(int index, Object value) {
+        paramSlots[index] = value;
+    }
+
+    /**
+     * @since 2.2.5
+     */
+    public String getParamName(int index) {
+        if(index < DEFAULT_PARAM_NAMES.length && DEFAULT_PARAM_PREFIX.equals(paramPrefix)) {
+            return DEFAULT_PARAM_NAMES[index];
+        }
+        return paramPrefix + index;
     }
 
     public String getScript() {
@@ -80,6 +146,9 @@ public class RenderContext {
         return paramPrefix;
     }
 
+    /**
+     * 参数值的Map视图，按参数名的下标直接读写数组，其他参数名存放在额外的Map里
+     */
     public Map<String, Object> getParamValues() {
         return paramValues;
     }
@@ -88,8 +157,16 @@ public class RenderContext {
         return tableAliasMap;
     }
 
+    public String getDatabaseId() {
+        return databaseId;
+    }
+
+    public void setDatabaseId(String databaseId) {
+        this.databaseId = databaseId;
+    }
+
     public void clearScript() {
-        scriptBuilder = new StringBuilder();
+        scriptBuilder.setLength(0);
     }
 
     public void renderString(String render) {
@@ -97,7 +174,122 @@ public class RenderContext {
     }
 
     public void renderBlank() {
-        scriptBuilder.append(" ");
+        scriptBuilder.append(' ');
+    }
+
+    /**
+     * 参数名解析成下标，不是本上下文的参数名时返回-1
+     */
+    private int indexOf(Object key) {
+        if(!(key instanceof String)) {
+            return -1;
+        }
+        String name = (String) key;
+        int prefixLength = paramPrefix.length();
+        if(name.length() <= prefixLength || !name.startsWith(paramPrefix)) {
+            return -1;
+        }
+        // 只认生成的参数名，如param01不是param1，过长的数字会溢出
+        int digits = name.length() - prefixLength;
+        if((name.charAt(prefixLength) == '0' && digits > 1) || digits > 9) {
+            return -1;
+        }
+        int index = 0;
+        for (int i = prefixLength; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if(c < '0' || c > '9') {
+                return -1;
+            }
+            index = index * 10 + (c - '0');
+        }
+        return index < paramIndex ? index : -1;
+    }
+
+    private final class ParamValues extends AbstractMap<String, Object> {
+
+        /** 不是本上下文参数名的值，如自定义的参数，很少用到 */
+        private Map<String, Object> overflowValues;
+
+        @Override
+        public Object get(Object key) {
+            int index = indexOf(key);
+            if(index < 0) {
+                return overflowValues == null ? null : overflowValues.get(key);
+            }
+            return paramSlots[index];
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return indexOf(key) >= 0 || (overflowValues != null && overflowValues.containsKey(key));
+        }
+
+        @Override
+        public Object put(String key, Object value) {
+            int index = indexOf(key);
+            if(index < 0) {
+                if(overflowValues == null) {
+                    overflowValues = new HashMap<>();
+                }
+                return overflowValues.put(key, value);
+            }
+            Object old = paramSlots[index];
+            paramSlots[index] = value;
+            return old;
+        }
+
+        @Override
+        public int size() {
+            return paramIndex + (overflowValues == null ? 0 : overflowValues.size());
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<Entry<String, Object>>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    return new Iterator<Entry<String, Object>>() {
+                        private int cursor = 0;
+
+                        private Iterator<Entry<String, Object>> overflowIterator;
+
+                        @Override
+                        public boolean hasNext() {
+                            if(cursor < paramIndex) {
+                                return true;
+                            }
+                            if(overflowIterator == null) {
+                                overflowIterator = overflowValues == null ? Collections.emptyIterator() : overflowValues.entrySet().iterator();
+                            }
+                            return overflowIterator.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            if(!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            if(cursor >= paramIndex) {
+                                return overflowIterator.next();
+                            }
+                            int index = cursor++;
+                            return new SimpleEntry<String, Object>(getParamName(index), paramSlots[index]) {
+                                @Override
+                                public Object setValue(Object value) {
+                                    paramSlots[index] = value;
+                                    return super.setValue(value);
+                                }
+                            };
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return ParamValues.this.size();
+                }
+            };
+        }
     }
 
 }
@@ -15,12 +15,8 @@
  */
 package com.alilitech.mybatis.jpa.criteria;
 
-import com.alilitech.mybatis.jpa.exception.MybatisJpaException;
-
 import java.io.Serializable;
 import java.lang.invoke.SerializedLambda;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.function.Function;
 
 /**
@@ -31,21 +27,23 @@ import java.util.function.Function;
  */
 public interface SerializableFunction<T, R> extends Function<T, R>, Serializable {
     default SerializedLambda getSerializedLambda() {
-        try {
-            Method write = this.getClass().getDeclaredMethod("writeReplace");
-            write.setAccessible(true);
-            return (SerializedLambda) write.invoke(this);
-        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
-            throw new MybatisJpaException(e);
-        }
+        return LambdaMeta.resolveSerializedLambda(this);
     }
 
     default String getImplClass() {
-        return getSerializedLambda().getImplClass();
+        return LambdaMeta.of(this).getImplClass();
     }
 
     default String getImplMethodName() {
-        return getSerializedLambda().getImplMethodName();
+        return LambdaMeta.of(this).getImplMethodName();
+    }
+
+    /**
+     * 方法引用对应的属性名，按lambda的类缓存
+     * @since 2.2.5
+     */
+    default String getPropertyName() {
+        return LambdaMeta.of(this).getProperty();
     }
 
 }
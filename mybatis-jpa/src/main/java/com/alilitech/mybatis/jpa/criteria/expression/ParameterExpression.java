@@ -25,21 +25,38 @@ public class ParameterExpression<T> implements AtomicExpression<T> {
 
     private Object paramValue;
 
+    /**
+     * the type handler of the parameter, such as ArrayTypeHandler for array binding
+     * @since 2.2.5
+     */
+    private Class<?> typeHandler;
+
     public ParameterExpression(Object paramValue) {
         this.paramValue = paramValue;
     }
 
+    public ParameterExpression(Object paramValue, Class<?> typeHandler) {
+        this.paramValue = paramValue;
+        this.typeHandler = typeHandler;
+    }
+
     public void formatValue(String pattern) {
         this.paramValue = pattern.replace("{0}", paramValue.toString());
     }
 
     @Override
     public void render(RenderContext renderContext, Expression<T> ...expressions) {
-        String paramName = renderContext.getParamPrefix() + renderContext.getParamIndexAndIncrement();
-        renderContext.getParamValues().put(paramName, paramValue);
+        String paramName = renderContext.addParamValue(paramValue);
         renderContext.renderString("#{");
         renderContext.renderString(renderContext.getParamPrefixPrefix() + paramName);
+        if(typeHandler != null) {
+            renderContext.renderString(", typeHandler=" + typeHandler.getName());
+        }
         renderContext.renderString("}");
     }
 
+    public Object getParamValue() {
+        return paramValue;
+    }
+
 }
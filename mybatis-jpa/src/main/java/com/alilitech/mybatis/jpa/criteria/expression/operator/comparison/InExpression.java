@@ -22,24 +22,10 @@ import com.alilitech.mybatis.jpa.criteria.expression.Expression;
  * @author Zhou Xiaoxiang
  * @since 1.1
  */
-public class InExpression<T> extends ComparisonExpression<T> {
+public class InExpression<T> extends InListExpression<T> {
 
     @Override
     public void render(RenderContext renderContext, Expression<T>...expressions) {
-        //valid args quantity
-        validArgsQuantity(expressions);
-
-        renderContext.renderString("in");
-        renderContext.renderBlank();
-        renderContext.renderString("(");
-
-        String split = "";
-        for (Expression<T> expression : expressions) {
-            renderContext.renderString(split);
-            expression.render(renderContext);
-            split = ", ";
-        }
-
-        renderContext.renderString(")");
+        renderList(renderContext, "in", "= ANY", expressions);
     }
 }
@@ -0,0 +1,85 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.criteria.expression.operator.comparison;
+
+import com.alilitech.mybatis.dialect.SqlDialectFactoryRegistry;
+import com.alilitech.mybatis.jpa.criteria.RenderContext;
+import com.alilitech.mybatis.jpa.criteria.expression.Expression;
+import com.alilitech.mybatis.jpa.criteria.expression.ParameterExpression;
+import com.alilitech.mybatis.jpa.parameter.InListStrategy;
+import org.apache.ibatis.type.ArrayTypeHandler;
+
+/**
+ * IN list expression, the list is padded or bound as an array according to {@link InListStrategy}
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+public abstract class InListExpression<T> extends ComparisonExpression<T> {
+
+    /**
+     * @param operator operator of the list, such as "in"
+     * @param arrayOperator operator of the array parameter, such as "= ANY"
+     */
+    protected void renderList(RenderContext renderContext, String operator, String arrayOperator, Expression<T>[] expressions) {
+        //valid args quantity
+        validArgsQuantity(expressions);
+
+        InListStrategy inListStrategy = InListStrategy.getInstance();
+
+        // 整个列表绑定成一个数组参数
+        if(expressions.length > 0 && isAllParameters(expressions)
+                && inListStrategy.isArrayBinding(SqlDialectFactoryRegistry.getInstance().get(renderContext.getDatabaseId()).getDatabaseType())) {
+            Object[] values = new Object[expressions.length];
+            for (int i = 0; i < expressions.length; i++) {
+                values[i] = ((ParameterExpression<T>) expressions[i]).getParamValue();
+            }
+            renderContext.renderString(arrayOperator);
+            renderContext.renderString("(");
+            new ParameterExpression<T>(InListStrategy.toArray(values), ArrayTypeHandler.class).render(renderContext);
+            renderContext.renderString(")");
+            return;
+        }
+
+        // 补齐到桶的大小，重复最后一个值
+        int size = expressions.length;
+        if(inListStrategy.isPadding()) {
+            size = InListStrategy.bucketSize(size, inListStrategy.getBindLimit(renderContext.getDatabaseId()));
+        }
+
+        renderContext.renderString(operator);
+        renderContext.renderBlank();
+        renderContext.renderString("(");
+
+        String split = "";
+        for (int i = 0; i < size; i++) {
+            renderContext.renderString(split);
+            expressions[Math.min(i, expressions.length - 1)].render(renderContext);
+            split = ", ";
+        }
+
+        renderContext.renderString(")");
+    }
+
+    private boolean isAllParameters(Expression<T>[] expressions) {
+        for (Expression<T> expression : expressions) {
+            if(!(expression instanceof ParameterExpression)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
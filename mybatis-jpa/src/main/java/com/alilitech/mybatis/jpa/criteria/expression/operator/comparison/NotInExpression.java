@@ -22,24 +22,10 @@ import com.alilitech.mybatis.jpa.criteria.expression.Expression;
  * @author Zhou Xiaoxiang
  * @since 1.1
  */
-public class NotInExpression<T> extends ComparisonExpression<T> {
+public class NotInExpression<T> extends InListExpression<T> {
 
     @Override
     public void render(RenderContext renderContext, Expression<T>...expressions) {
-        //valid args quantity
-        validArgsQuantity(expressions);
-
-        renderContext.renderString("not in");
-        renderContext.renderBlank();
-        renderContext.renderString("(");
-
-        String split = "";
-        for(int i = 0; i< expressions.length; i++) {
-            renderContext.renderString(split);
-            expressions[i].render(renderContext);
-            split = ", ";
-        }
-
-        renderContext.renderString(")");
+        renderList(renderContext, "not in", "<> ALL", expressions);
     }
 }
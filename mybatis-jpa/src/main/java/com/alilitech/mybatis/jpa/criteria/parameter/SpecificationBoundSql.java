@@ -0,0 +1,59 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.criteria.parameter;
+
+import com.alilitech.mybatis.jpa.criteria.CriteriaQuery;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.session.Configuration;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 规格查询的BoundSql，记录每个ParameterMapping对应{@link CriteriaQuery}中参数的下标，
+ * 绑定参数时按下标直接取值，不再通过MetaObject解析 _parameter.paramValues.paramN
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+public class SpecificationBoundSql extends BoundSql {
+
+    private final CriteriaQuery<?> query;
+
+    /**
+     * ParameterMapping到参数下标，按对象标识查找，分页等插件追加的参数不在其中
+     */
+    private final Map<ParameterMapping, Integer> paramIndexes;
+
+    public SpecificationBoundSql(Configuration configuration, String sql, List<ParameterMapping> parameterMappings, CriteriaQuery<?> query, Map<ParameterMapping, Integer> paramIndexes) {
+        super(configuration, sql, parameterMappings, query);
+        this.query = query;
+        this.paramIndexes = paramIndexes;
+    }
+
+    /**
+     * @return 参数下标，不是规格查询的参数时返回-1
+     */
+    public int getParamIndex(ParameterMapping parameterMapping) {
+        Integer index = paramIndexes.get(parameterMapping);
+        return index == null ? -1 : index;
+    }
+
+    public Object getParamValue(int index) {
+        return query.getParamValue(index);
+    }
+}
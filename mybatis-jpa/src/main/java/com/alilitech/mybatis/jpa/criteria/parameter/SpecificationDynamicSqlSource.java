@@ -19,20 +19,32 @@ import com.alilitech.mybatis.jpa.EntityMetaDataRegistry;
 import com.alilitech.mybatis.jpa.anotation.Trigger;
 import com.alilitech.mybatis.jpa.criteria.CriteriaBuilder;
 import com.alilitech.mybatis.jpa.criteria.CriteriaQuery;
+import com.alilitech.mybatis.jpa.criteria.FetchPlan;
+import com.alilitech.mybatis.jpa.criteria.FetchPlanSpecification;
 import com.alilitech.mybatis.jpa.criteria.Specification;
 import com.alilitech.mybatis.jpa.criteria.UpdateSpecification;
 import com.alilitech.mybatis.jpa.criteria.expression.PredicateExpression;
 import com.alilitech.mybatis.jpa.definition.MethodDefinition;
 import com.alilitech.mybatis.jpa.meta.ColumnMetaData;
 import com.alilitech.mybatis.jpa.parameter.ParameterAssistant;
+import com.alilitech.mybatis.jpa.util.ConcurrentCache;
 import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.SqlSource;
 import org.apache.ibatis.parsing.GenericTokenParser;
+import org.apache.ibatis.scripting.xmltags.DynamicContext;
 import org.apache.ibatis.scripting.xmltags.DynamicSqlSource;
 import org.apache.ibatis.scripting.xmltags.SqlNode;
 import org.apache.ibatis.session.Configuration;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 
 /**
  * 扩展DynamicSqlSource，主要是扩展一些参数信息和转换
@@ -41,22 +53,64 @@ import java.util.Map;
  */
 public class SpecificationDynamicSqlSource extends DynamicSqlSource {
 
+    /**
+     * 每个statement缓存的sql形状数量
+     */
+    private static final int SQL_SHAPE_CACHE_SIZE = 256;
+
+    /**
+     * 每个statement缓存的抓取计划数量
+     */
+    private static final int FETCH_PLAN_CACHE_SIZE = 64;
+
+    /**
+     * 规格查询参数的属性前缀，见{@link com.alilitech.mybatis.jpa.criteria.RenderContext}
+     */
+    private static final String PARAM_PROPERTY_PREFIX = "_parameter.paramValues.param";
+
+    private final Configuration configuration;
+
     private Class<?> domainType;
 
     private MethodDefinition methodDefinition;
 
+    /**
+     * 相同结构的规格查询渲染出的脚本相同(参数按顺序命名)，缓存解析后的sql和ParameterMapping，跳过动态节点和#{}的重复解析
+     * @since 2.2.5
+     */
+    private final ConcurrentCache<SqlShapeKey, SqlShape> sqlShapeCache = new ConcurrentCache<>(SQL_SHAPE_CACHE_SIZE);
+
+    /**
+     * 按抓取计划生成sql脚本
+     * @since 2.2.5
+     */
+    private Function<FetchPlan<?>, String> fetchPlanScriptFunction;
+
+    /**
+     * 每种抓取计划的SqlSource，key是{@link FetchPlan#getKey()}
+     * @since 2.2.5
+     */
+    private final ConcurrentCache<String, SqlSource> fetchPlanSqlSourceCache = new ConcurrentCache<>(FETCH_PLAN_CACHE_SIZE);
+
     public SpecificationDynamicSqlSource(Configuration configuration, SqlNode rootSqlNode) {
         super(configuration, rootSqlNode);
+        this.configuration = configuration;
     }
 
     public SpecificationDynamicSqlSource(Configuration configuration, SqlNode rootSqlNode, Class<?> domainType, MethodDefinition methodDefinition) {
         super(configuration, rootSqlNode);
+        this.configuration = configuration;
         this.domainType = domainType;
         this.methodDefinition = methodDefinition;
     }
 
     @Override
     public BoundSql getBoundSql(Object parameterObject) {
+        // 带抓取计划时，交给按抓取计划生成的SqlSource
+        if(parameterObject instanceof FetchPlanSpecification && fetchPlanScriptFunction != null) {
+            return getFetchPlanSqlSource(((FetchPlanSpecification<?>) parameterObject).getFetchPlan()).getBoundSql(parameterObject);
+        }
+
         // 以下操作是在${ }转换前需要操作的
         // 转换规格查询参数
         if(parameterObject instanceof Specification && domainType != null) {
@@ -64,7 +118,7 @@ public class SpecificationDynamicSqlSource extends DynamicSqlSource {
 
             CriteriaBuilder<?> cb = new CriteriaBuilder<>(domainType, methodDefinition);
 
-            CriteriaQuery<?> query = new CriteriaQuery<>(domainType, methodDefinition);
+            CriteriaQuery<?> query = new CriteriaQuery<>(domainType, methodDefinition, configuration.getDatabaseId());
 
             PredicateExpression<?> predicate = specification.toPredicate(cb, query);
 
@@ -95,10 +149,115 @@ public class SpecificationDynamicSqlSource extends DynamicSqlSource {
                 }
             }
 
-            parameterObject = query;
+            return getCachedBoundSql(query);
         }
 
         return super.getBoundSql(parameterObject);
     }
 
+    /**
+     * 按sql形状取缓存，未命中时走原来的解析，参数按下标绑定
+     */
+    private BoundSql getCachedBoundSql(CriteriaQuery<?> query) {
+        SqlShapeKey key = new SqlShapeKey(query.getSetScript(), query.getWhereScript(), query.getOrderByScript(), query.getParamTypes());
+        SqlShape sqlShape = sqlShapeCache.get(key);
+        if(sqlShape == null) {
+            BoundSql boundSql = super.getBoundSql(query);
+            sqlShape = new SqlShape(boundSql.getSql(), new ArrayList<>(boundSql.getParameterMappings()));
+            sqlShapeCache.put(key, sqlShape);
+        }
+
+        // 与DynamicContext的绑定参数保持一致
+        BoundSql boundSql = new SpecificationBoundSql(configuration, sqlShape.sql, new ArrayList<>(sqlShape.parameterMappings), query, sqlShape.paramIndexes);
+        boundSql.setAdditionalParameter(DynamicContext.PARAMETER_OBJECT_KEY, query);
+        boundSql.setAdditionalParameter(DynamicContext.DATABASE_ID_KEY, configuration.getDatabaseId());
+        return boundSql;
+    }
+
+    private SqlSource getFetchPlanSqlSource(FetchPlan<?> fetchPlan) {
+        String key = fetchPlan.getKey();
+        SqlSource sqlSource = fetchPlanSqlSourceCache.get(key);
+        if(sqlSource == null) {
+            String script = fetchPlanScriptFunction.apply(fetchPlan);
+            sqlSource = new SpecificationLanguageDriver(methodDefinition).createSqlSource(configuration, script, domainType);
+            fetchPlanSqlSourceCache.put(key, sqlSource);
+        }
+        return sqlSource;
+    }
+
+    public void setFetchPlanScriptFunction(Function<FetchPlan<?>, String> fetchPlanScriptFunction) {
+        this.fetchPlanScriptFunction = fetchPlanScriptFunction;
+    }
+
+    public ConcurrentCache<?, ?> getSqlShapeCache() {
+        return sqlShapeCache;
+    }
+
+    private static final class SqlShapeKey {
+
+        private final String setScript;
+
+        private final String whereScript;
+
+        private final String orderByScript;
+
+        private final Class<?>[] paramTypes;
+
+        private final int hashCode;
+
+        private SqlShapeKey(String setScript, String whereScript, String orderByScript, Class<?>[] paramTypes) {
+            this.setScript = setScript;
+            this.whereScript = whereScript;
+            this.orderByScript = orderByScript;
+            this.paramTypes = paramTypes;
+            this.hashCode = 31 * Objects.hash(setScript, whereScript, orderByScript) + Arrays.hashCode(paramTypes);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SqlShapeKey)) {
+                return false;
+            }
+            SqlShapeKey that = (SqlShapeKey) o;
+            return hashCode == that.hashCode
+                    && Objects.equals(whereScript, that.whereScript)
+                    && Objects.equals(orderByScript, that.orderByScript)
+                    && Objects.equals(setScript, that.setScript)
+                    && Arrays.equals(paramTypes, that.paramTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private static final class SqlShape {
+
+        private final String sql;
+
+        private final List<ParameterMapping> parameterMappings;
+
+        /** 规格查询参数 _parameter.paramValues.paramN 的下标 */
+        private final Map<ParameterMapping, Integer> paramIndexes = new IdentityHashMap<>();
+
+        private SqlShape(String sql, List<ParameterMapping> parameterMappings) {
+            this.sql = sql;
+            this.parameterMappings = parameterMappings;
+            for (ParameterMapping parameterMapping : parameterMappings) {
+                String property = parameterMapping.getProperty();
+                if(property.startsWith(PARAM_PROPERTY_PREFIX)) {
+                    try {
+                        paramIndexes.put(parameterMapping, Integer.parseInt(property.substring(PARAM_PROPERTY_PREFIX.length())));
+                    } catch (NumberFormatException e) {
+                        // 不是按顺序命名的参数，按默认方式解析
+                    }
+                }
+            }
+        }
+    }
+
 }
@@ -15,8 +15,8 @@
  */
 package com.alilitech.mybatis.jpa.criteria.parameter;
 
+import com.alilitech.mybatis.jpa.criteria.FetchPlan;
 import com.alilitech.mybatis.jpa.definition.MethodDefinition;
-import com.alilitech.mybatis.jpa.parameter.MybatisJpaParameterHandler;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
@@ -25,6 +25,8 @@ import org.apache.ibatis.parsing.XNode;
 import org.apache.ibatis.scripting.xmltags.XMLLanguageDriver;
 import org.apache.ibatis.session.Configuration;
 
+import java.util.function.Function;
+
 
 /**
  *
@@ -35,22 +37,39 @@ public class SpecificationLanguageDriver extends XMLLanguageDriver {
 
     private MethodDefinition methodDefinition;
 
+    /**
+     * 按抓取计划生成sql脚本，为null时不支持抓取计划
+     */
+    private Function<FetchPlan<?>, String> fetchPlanScriptFunction;
+
     public SpecificationLanguageDriver(MethodDefinition methodDefinition) {
         this.methodDefinition = methodDefinition;
     }
 
+    /**
+     * @since 2.2.5
+     */
+    public SpecificationLanguageDriver(MethodDefinition methodDefinition, Function<FetchPlan<?>, String> fetchPlanScriptFunction) {
+        this.methodDefinition = methodDefinition;
+        this.fetchPlanScriptFunction = fetchPlanScriptFunction;
+    }
+
 
     @Override
     public ParameterHandler createParameterHandler(MappedStatement mappedStatement,
                                                    Object parameterObject,
                                                    BoundSql boundSql) {
         /* 使用自定义 ParameterHandler */
-        return new MybatisJpaParameterHandler(mappedStatement, parameterObject, boundSql);
+        return new SpecificationParameterHandler(mappedStatement, parameterObject, boundSql);
     }
 
     @Override
     public SqlSource createSqlSource(Configuration configuration, XNode script, Class<?> parameterType) {
         SpecificationXMLScriptBuilder builder = new SpecificationXMLScriptBuilder(configuration, script, parameterType, methodDefinition);
-        return builder.parseScriptNode();
+        SqlSource sqlSource = builder.parseScriptNode();
+        if(fetchPlanScriptFunction != null && sqlSource instanceof SpecificationDynamicSqlSource) {
+            ((SpecificationDynamicSqlSource) sqlSource).setFetchPlanScriptFunction(fetchPlanScriptFunction);
+        }
+        return sqlSource;
     }
 }
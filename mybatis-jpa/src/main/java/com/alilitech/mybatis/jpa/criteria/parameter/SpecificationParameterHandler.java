@@ -0,0 +1,93 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.criteria.parameter;
+
+import com.alilitech.mybatis.jpa.parameter.MybatisJpaParameterHandler;
+import org.apache.ibatis.executor.ErrorContext;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.TypeException;
+import org.apache.ibatis.type.TypeHandler;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * 规格查询的参数按下标绑定，其它参数(如分页插件追加的参数)按mybatis默认方式解析
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+public class SpecificationParameterHandler extends MybatisJpaParameterHandler {
+
+    private final MappedStatement mappedStatement;
+
+    private final BoundSql boundSql;
+
+    public SpecificationParameterHandler(MappedStatement mappedStatement, Object parameterObject, BoundSql boundSql) {
+        super(mappedStatement, parameterObject, boundSql);
+        this.mappedStatement = mappedStatement;
+        this.boundSql = boundSql;
+    }
+
+    @Override
+    public void setParameters(PreparedStatement ps) {
+        if(!(boundSql instanceof SpecificationBoundSql)) {
+            super.setParameters(ps);
+            return;
+        }
+        SpecificationBoundSql specificationBoundSql = (SpecificationBoundSql) boundSql;
+        ErrorContext.instance().activity("setting parameters").object(mappedStatement.getParameterMap().getId());
+        Configuration configuration = mappedStatement.getConfiguration();
+        List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
+        MetaObject metaObject = null;
+        for (int i = 0; i < parameterMappings.size(); i++) {
+            ParameterMapping parameterMapping = parameterMappings.get(i);
+            if (parameterMapping.getMode() == ParameterMode.OUT) {
+                continue;
+            }
+            Object value;
+            int paramIndex = specificationBoundSql.getParamIndex(parameterMapping);
+            String propertyName = parameterMapping.getProperty();
+            if (paramIndex >= 0) {
+                value = specificationBoundSql.getParamValue(paramIndex);
+            } else if (boundSql.hasAdditionalParameter(propertyName)) {
+                value = boundSql.getAdditionalParameter(propertyName);
+            } else {
+                if(metaObject == null) {
+                    metaObject = configuration.newMetaObject(getParameterObject());
+                }
+                value = metaObject.getValue(propertyName);
+            }
+            TypeHandler typeHandler = parameterMapping.getTypeHandler();
+            JdbcType jdbcType = parameterMapping.getJdbcType();
+            if (value == null && jdbcType == null) {
+                jdbcType = configuration.getJdbcTypeForNull();
+            }
+            try {
+                typeHandler.setParameter(ps, i + 1, value, jdbcType);
+            } catch (TypeException | SQLException e) {
+                throw new TypeException("Could not set parameters for mapping: " + parameterMapping + ". Cause: " + e, e);
+            }
+        }
+    }
+}
@@ -51,6 +51,30 @@ public class JoinStatementDefinition {
      */
     private Set<ColumnDefinition> columnDefinitions;
 
+    /**
+     * 主表关联字段的java属性，批量抓取时按此属性收集主表的值
+     * @since 2.2.5
+     */
+    private String keyProperty;
+
+    /**
+     * 批量抓取的statementId，不是批量抓取则为null
+     * @since 2.2.5
+     */
+    private String batchFetchStatementId;
+
+    /**
+     * 主表关联字段的列名，延迟加载时作为嵌套查询的参数列
+     * @since 2.2.5
+     */
+    private String keyColumn;
+
+    /**
+     * 延迟加载，不参与LEFT JOIN
+     * @since 2.2.5
+     */
+    private boolean lazy = false;
+
     public JoinStatementDefinition(JoinColumnMetaData joinColumnMetaData, MethodDefinition referencedMethodDefinition) {
         this.resultType = (Class<?>) joinColumnMetaData.getJoinEntityType();
         this.property = joinColumnMetaData.getCurrentProperty();
@@ -65,6 +89,10 @@ public class JoinStatementDefinition {
         this.referencedMethodDefinition = referencedMethodDefinition;
         this.tableName = joinColumnMetaData.getTableName();
         this.tableIndexAlias = joinColumnMetaData.getTableIndexAlias();
+        // 多对多时主表字段是referencedProperty
+        boolean direct = joinColumnMetaData.getJoinTableName() == null || joinColumnMetaData.getJoinTableName().isEmpty();
+        this.keyProperty = direct ? joinColumnMetaData.getProperty() : joinColumnMetaData.getReferencedProperty();
+        this.keyColumn = direct ? joinColumnMetaData.getColumnName() : joinColumnMetaData.getReferencedColumnName();
     }
 
     public Class<?> getResultType() {
@@ -107,6 +135,34 @@ public class JoinStatementDefinition {
         return tableIndexAlias;
     }
 
+    public String getKeyProperty() {
+        return keyProperty;
+    }
+
+    public String getBatchFetchStatementId() {
+        return batchFetchStatementId;
+    }
+
+    public void setBatchFetchStatementId(String batchFetchStatementId) {
+        this.batchFetchStatementId = batchFetchStatementId;
+    }
+
+    public boolean isBatchFetch() {
+        return batchFetchStatementId != null;
+    }
+
+    public String getKeyColumn() {
+        return keyColumn;
+    }
+
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    public void setLazy(boolean lazy) {
+        this.lazy = lazy;
+    }
+
     /**
      * 构建查询列
      */
@@ -18,6 +18,7 @@ package com.alilitech.mybatis.jpa.definition;
 import org.springframework.core.GenericTypeResolver;
 
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.util.ArrayList;
@@ -57,6 +58,10 @@ public class MapperDefinition {
         this.genericType = genericType(mapper);
 
         for (Method method : mapper.getMethods()) {
+            // default and static methods are invoked directly, no statement
+            if(method.isDefault() || Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
             MethodDefinition methodDefinition = new MethodDefinition(this, method);
             methodDefinitions.add(methodDefinition);
         }
@@ -18,10 +18,13 @@ package com.alilitech.mybatis.jpa.definition;
 import com.alilitech.mybatis.jpa.anotation.IfTest;
 import com.alilitech.mybatis.jpa.criteria.SpecificationType;
 import com.alilitech.mybatis.jpa.exception.ParameterNumberNotMatchException;
+import com.alilitech.mybatis.jpa.statement.parser.LikePlan;
 import com.alilitech.mybatis.jpa.statement.parser.PartTree;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.util.*;
 
 
@@ -62,6 +65,12 @@ public class MethodDefinition {
      */
     private Class<?> returnType;
 
+    /**
+     * 返回接口或DTO时的投影类型，只查询投影的列，不关联查询
+     * @since 2.2.5
+     */
+    private Class<?> projectionType;
+
     /**
      * 是否是单个查询，不会关联查询
      */
@@ -97,6 +106,18 @@ public class MethodDefinition {
      */
     private List<JoinStatementDefinition> joinStatementDefinitions = new ArrayList<>();
 
+    /**
+     * 此方法需要批量抓取的集合，不参与LEFT JOIN
+     * @since 2.2.5
+     */
+    private final List<JoinStatementDefinition> batchFetchStatementDefinitions = new ArrayList<>();
+
+    /**
+     * 此方法需要延迟加载的关联，通过嵌套查询加载，不参与LEFT JOIN
+     * @since 2.2.5
+     */
+    private final List<JoinStatementDefinition> lazyStatementDefinitions = new ArrayList<>();
+
     //===========以下字段关联表需要====================
     //中间表名称
     private String joinTableName;
@@ -109,10 +130,21 @@ public class MethodDefinition {
 
     private String inverseReferencedColumnName;
 
+    /**
+     * like参数计划，没有like条件时为null
+     * @since 2.2.5
+     */
+    private LikePlan likePlan;
+
     public MethodDefinition(MapperDefinition mapperDefinition, Method method) {
         this(method);
         this.mapperDefinition = mapperDefinition;
         this.namespace = mapperDefinition.getNamespace();
+        if(compositeResultMap) {
+            this.projectionType = resolveProjectionType(method, mapperDefinition.getGenericType().getDomainType());
+            // 投影查询不关联
+            this.compositeResultMap = projectionType == null;
+        }
     }
 
     public MethodDefinition(String namespace, String methodName, Set<ColumnDefinition> columnDefinitions) {
@@ -156,6 +188,30 @@ public class MethodDefinition {
         }
     }
 
+    /**
+     * 返回值(或List, Optional, Cursor的元素)是接口或DTO，而不是实体或者java的类型时，作为投影类型
+     */
+    private static Class<?> resolveProjectionType(Method method, Type domainType) {
+        Type type = method.getGenericReturnType();
+        if(type instanceof ParameterizedType) {
+            ParameterizedType parameterizedType = (ParameterizedType) type;
+            Class<?> rawType = (Class<?>) parameterizedType.getRawType();
+            if(!Iterable.class.isAssignableFrom(rawType) && rawType != Optional.class) {
+                return null;
+            }
+            type = parameterizedType.getActualTypeArguments()[0];
+        }
+        if(!(type instanceof Class) || !(domainType instanceof Class)) {
+            return null;
+        }
+        Class<?> clazz = (Class<?>) type;
+        if(clazz.isAssignableFrom((Class<?>) domainType) || clazz.isPrimitive() || clazz.isArray() || clazz.isEnum()
+                || clazz.getName().startsWith("java.") || Iterable.class.isAssignableFrom(clazz) || Map.class.isAssignableFrom(clazz)) {
+            return null;
+        }
+        return clazz;
+    }
+
     public MapperDefinition getMapperDefinition() {
         return mapperDefinition;
     }
@@ -208,6 +264,10 @@ public class MethodDefinition {
         return returnType;
     }
 
+    public Class<?> getProjectionType() {
+        return projectionType;
+    }
+
     public boolean isBaseResultMap() {
         return baseResultMap;
     }
@@ -255,6 +315,14 @@ public class MethodDefinition {
         this.joinStatementDefinitions = joinStatementDefinitions;
     }
 
+    public List<JoinStatementDefinition> getBatchFetchStatementDefinitions() {
+        return batchFetchStatementDefinitions;
+    }
+
+    public List<JoinStatementDefinition> getLazyStatementDefinitions() {
+        return lazyStatementDefinitions;
+    }
+
     public String getJoinTableName() {
         return joinTableName;
     }
@@ -317,6 +385,14 @@ public class MethodDefinition {
         return count;
     }
 
+    public LikePlan getLikePlan() {
+        return likePlan;
+    }
+
+    public void setLikePlan(LikePlan likePlan) {
+        this.likePlan = likePlan;
+    }
+
     public String getStatementId() {
         return namespace + "." + methodName;
     }
@@ -0,0 +1,137 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.domain;
+
+import java.beans.Transient;
+
+/**
+ * Keyset (seek) pagination.
+ * <p>
+ * Instead of skipping rows by offset, it queries the rows after the last seen sort key values,
+ * e.g. "WHERE (a, b) &gt; (?, ?) ORDER BY a, b LIMIT n", so the deep pages are as fast as the first one.
+ * The primary key is appended to the sort as tie-breaker if absent, and only the not null columns of main table can be sorted by,
+ * i.e. primary keys, primitive types or the properties with {@code @Column(nullable = false)}.
+ * The total is not counted, {@link #getNextToken()} is the token to query the next page, null means no more pages.
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+@SuppressWarnings("java:S1948")
+public class KeysetPage<T> extends Page<T> {
+
+    /**
+     * the continuation token returned by the previous page, null means the first page
+     */
+    private String token;
+
+    /**
+     * the continuation token of the next page
+     */
+    private String nextToken;
+
+    /**
+     * the last seen sort key values, it takes precedence over token
+     */
+    private transient Object[] lastValues;
+
+    /**
+     * the sort key properties, resolved when querying
+     */
+    private transient String[] keyProperties;
+
+    public KeysetPage() {
+        this.selectCount = false;
+    }
+
+    public KeysetPage(Integer size) {
+        this(null, size);
+    }
+
+    public KeysetPage(String token, Integer size) {
+        this();
+        this.token = token;
+        this.size = size;
+    }
+
+    public KeysetPage(String token, Integer size, Sort sort) {
+        this(token, size);
+        this.setSort(sort);
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    public void setNextToken(String nextToken) {
+        this.nextToken = nextToken;
+    }
+
+    public boolean hasNext() {
+        return nextToken != null;
+    }
+
+    @Transient
+    public Object[] getLastValues() {
+        return lastValues;
+    }
+
+    public void setLastValues(Object... lastValues) {
+        this.lastValues = lastValues;
+    }
+
+    @Transient
+    public String[] getKeyProperties() {
+        return keyProperties;
+    }
+
+    public void setKeyProperties(String[] keyProperties) {
+        this.keyProperties = keyProperties;
+    }
+
+    /**
+     * keyset pagination always seeks from the first row after the last seen one
+     */
+    @Override
+    public Integer getPage() {
+        return 1;
+    }
+
+    @Override
+    public boolean hasPrevious() {
+        return token != null || lastValues != null;
+    }
+
+    @Override
+    public void setSelectCount(boolean selectCount) {
+        // keyset pagination never counts
+    }
+
+    public static <T> KeysetPage<T> first(Integer size) {
+        return new KeysetPage<>(size);
+    }
+
+    public static <T> KeysetPage<T> after(String token, Integer size) {
+        return new KeysetPage<>(token, size);
+    }
+}
@@ -16,7 +16,6 @@
 package com.alilitech.mybatis.jpa.domain;
 
 import com.alilitech.mybatis.jpa.criteria.SerializableFunction;
-import org.apache.ibatis.reflection.property.PropertyNamer;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -135,7 +134,7 @@ public class Sort {
         }
 
         public <R> Sort by(SerializableFunction<T, R> function) {
-            return new Sort(PropertyNamer.methodToProperty(function.getImplMethodName()));
+            return new Sort(function.getPropertyName());
         }
 
     }
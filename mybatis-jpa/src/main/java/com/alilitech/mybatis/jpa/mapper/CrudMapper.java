@@ -16,6 +16,7 @@
 package com.alilitech.mybatis.jpa.mapper;
 
 import com.alilitech.mybatis.jpa.anotation.NoMapperBean;
+import org.apache.ibatis.cursor.Cursor;
 
 import java.util.Collection;
 import java.util.List;
@@ -32,6 +33,12 @@ public interface CrudMapper<T, ID> extends Mapper<T, ID> {
 
     List<T> findAll();
 
+    /**
+     * stream all rows with a forward-only cursor, the cursor must be consumed and closed in a transaction
+     * @since 2.2.5
+     */
+    Cursor<T> streamAll();
+
     Optional<T> findById(ID id);
 
     List<T> findAllById(Collection<ID> ids);
@@ -19,9 +19,13 @@ import com.alilitech.mybatis.jpa.anotation.NoMapperBean;
 import com.alilitech.mybatis.jpa.criteria.Specification;
 import com.alilitech.mybatis.jpa.criteria.UpdateSpecification;
 import com.alilitech.mybatis.jpa.domain.Pageable;
+import org.apache.ibatis.cursor.Cursor;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * @author Zhou Xiaoxiang
@@ -36,5 +40,23 @@ public interface SpecificationMapper<T, ID> extends Mapper<T, ID> {
 
     List<T> findPageSpecification(Pageable<T> pageable, Specification<T> specification);
 
+    /**
+     * stream the rows with a forward-only cursor, the cursor must be consumed and closed in a transaction
+     * @since 2.2.5
+     */
+    Cursor<T> streamSpecification(Specification<T> specification);
+
+    /**
+     * consume the rows one by one without loading all of them, must be called in a transaction
+     * @since 2.2.5
+     */
+    default void forEach(Specification<T> specification, Consumer<? super T> consumer) {
+        try (Cursor<T> cursor = streamSpecification(specification)) {
+            cursor.forEach(consumer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     int updateSpecification(UpdateSpecification<T> specification);
 }
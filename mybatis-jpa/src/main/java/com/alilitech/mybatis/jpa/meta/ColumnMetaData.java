@@ -19,8 +19,10 @@ import com.alilitech.mybatis.jpa.JoinType;
 import com.alilitech.mybatis.jpa.anotation.ColumnResult;
 import com.alilitech.mybatis.jpa.anotation.GeneratedValue;
 import com.alilitech.mybatis.jpa.anotation.*;
+import com.alilitech.mybatis.jpa.exception.MybatisJpaException;
 import com.alilitech.mybatis.jpa.parameter.GenerationType;
 import com.alilitech.mybatis.jpa.primary.key.KeyGenerator;
+import com.alilitech.mybatis.jpa.util.AccessorUtils;
 import com.alilitech.mybatis.jpa.util.ColumnUtils;
 import org.apache.ibatis.type.JdbcType;
 import org.apache.ibatis.type.TypeHandler;
@@ -31,9 +33,13 @@ import javax.persistence.*;
 import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 
 /**
@@ -47,6 +53,9 @@ public class ColumnMetaData {
 
     /** 是否为主键 */
     private boolean primaryKey;
+
+    /** 是否可为空，主键、基本类型和@Column(nullable = false)的字段不可为空 */
+    private boolean nullable;
     //主键生成策略
     private GenerationType idGenerationType;
     //根据此序列生成
@@ -81,6 +90,14 @@ public class ColumnMetaData {
 
     private List<Trigger> triggers;
 
+    /** 属性的getter和setter，首次使用时生成 */
+    private volatile Function<Object, Object> getter;
+
+    private volatile BiConsumer<Object, Object> setter;
+
+    /** 触发器的取值函数，和triggers一一对应 */
+    private volatile List<Supplier<Object>> triggerValueSuppliers;
+
     public ColumnMetaData(Field field, EntityMetaData entityMetaData) {
         this.field = field;
         this.entityMetaData = entityMetaData;
@@ -109,6 +126,8 @@ public class ColumnMetaData {
         if(field.isAnnotationPresent(Id.class)) {
             primaryKey = true;
         }
+        nullable = !type.isPrimitive()
+                && !(field.isAnnotationPresent(Column.class) && !field.getAnnotation(Column.class).nullable());
         if(field.isAnnotationPresent(GeneratedValue.class)) {
             GeneratedValue generatedValue = field.getAnnotation(GeneratedValue.class);
             idGenerationType = generatedValue.value();
@@ -174,21 +193,25 @@ public class ColumnMetaData {
 
             if(field.isAnnotationPresent(OneToOne.class) ) {
                 joinColumnMetaData.setJoinType(JoinType.ONE_TO_ONE);
+                joinColumnMetaData.setFetchType(field.getAnnotation(OneToOne.class).fetch());
                 if(!StringUtils.isEmpty(field.getAnnotation(OneToOne.class).mappedBy())) {
                     joinColumnMetaData.setMappedProperty(field.getAnnotation(OneToOne.class).mappedBy());
                 }
             } else if(field.isAnnotationPresent(OneToMany.class) ) {
                 joinColumnMetaData.setJoinType(JoinType.ONE_TO_MANY);
+                joinColumnMetaData.setFetchType(field.getAnnotation(OneToMany.class).fetch());
                 if(!StringUtils.isEmpty(field.getAnnotation(OneToMany.class).mappedBy())) {
                     joinColumnMetaData.setMappedProperty(field.getAnnotation(OneToMany.class).mappedBy());
                 }
             } else if(field.isAnnotationPresent(ManyToMany.class)) {
                 joinColumnMetaData.setJoinType(JoinType.MANY_TO_MANY);
+                joinColumnMetaData.setFetchType(field.getAnnotation(ManyToMany.class).fetch());
                 if(!StringUtils.isEmpty(field.getAnnotation(ManyToMany.class).mappedBy())) {
                     joinColumnMetaData.setMappedProperty(field.getAnnotation(ManyToMany.class).mappedBy());
                 }
             } else if(field.isAnnotationPresent(ManyToOne.class)) {
                 joinColumnMetaData.setJoinType(JoinType.MANY_TO_ONE);
+                joinColumnMetaData.setFetchType(field.getAnnotation(ManyToOne.class).fetch());
             }
 
             //设置哪些需要关联
@@ -206,6 +229,11 @@ public class ColumnMetaData {
             if(field.isAnnotationPresent(SubQuery.class)) {
                 joinColumnMetaData.setSubQuery(field.getAnnotation(SubQuery.class));
             }
+
+            //批量抓取，只支持集合
+            if(field.isAnnotationPresent(BatchFetch.class)) {
+                joinColumnMetaData.setBatchFetch(true);
+            }
         }
     }
 
@@ -225,6 +253,13 @@ public class ColumnMetaData {
         this.primaryKey = primaryKey;
     }
 
+    /**
+     * @since 2.2.5
+     */
+    public boolean isNullable() {
+        return nullable && !primaryKey;
+    }
+
     public GenerationType getIdGenerationType() {
         return idGenerationType;
     }
@@ -298,6 +333,8 @@ public class ColumnMetaData {
 
     public void setField(Field field) {
         this.field = field;
+        this.getter = null;
+        this.setter = null;
     }
 
     public boolean isJoin() {
@@ -322,6 +359,7 @@ public class ColumnMetaData {
 
     public void setTriggers(List<Trigger> triggers) {
         this.triggers = triggers;
+        this.triggerValueSuppliers = null;
     }
 
     public Class<? extends KeyGenerator> getIdGeneratorClass() {
@@ -331,4 +369,68 @@ public class ColumnMetaData {
     public void setIdGeneratorClass(Class<? extends KeyGenerator> idGeneratorClass) {
         this.idGeneratorClass = idGeneratorClass;
     }
+
+    /**
+     * 读取实体的属性值
+     * @since 2.2.5
+     */
+    public Object getValue(Object entity) {
+        Function<Object, Object> getter = this.getter;
+        if(getter == null) {
+            getter = AccessorUtils.createGetter(getAccessorType(), field);
+            this.getter = getter;
+        }
+        return getter.apply(entity);
+    }
+
+    /**
+     * 设置实体的属性值
+     * @since 2.2.5
+     */
+    public void setValue(Object entity, Object value) {
+        BiConsumer<Object, Object> setter = this.setter;
+        if(setter == null) {
+            setter = AccessorUtils.createSetter(getAccessorType(), field);
+            this.setter = setter;
+        }
+        setter.accept(entity, value);
+    }
+
+    /**
+     * 触发器的取值函数，触发器类只实例化一次
+     * @since 2.2.5
+     */
+    public Supplier<Object> getTriggerValueSupplier(Trigger trigger) {
+        List<Supplier<Object>> suppliers = this.triggerValueSuppliers;
+        if(suppliers == null) {
+            suppliers = new ArrayList<>(triggers.size());
+            for (Trigger each : triggers) {
+                suppliers.add(createTriggerValueSupplier(each));
+            }
+            this.triggerValueSuppliers = suppliers;
+        }
+        for (int i = 0; i < triggers.size(); i++) {
+            if(triggers.get(i) == trigger) {
+                return suppliers.get(i);
+            }
+        }
+        return createTriggerValueSupplier(trigger);
+    }
+
+    /**
+     * 触发器方法有误时，取值时再抛出异常
+     */
+    private Supplier<Object> createTriggerValueSupplier(Trigger trigger) {
+        try {
+            return AccessorUtils.createSupplier(trigger.valueClass(), trigger.methodName());
+        } catch (MybatisJpaException e) {
+            return () -> {
+                throw e;
+            };
+        }
+    }
+
+    private Class<?> getAccessorType() {
+        return entityMetaData != null ? entityMetaData.getEntityType() : field.getDeclaringClass();
+    }
 }
@@ -17,10 +17,16 @@ package com.alilitech.mybatis.jpa.meta;
 
 
 import com.alilitech.mybatis.jpa.definition.GenericType;
+import com.alilitech.mybatis.jpa.exception.PropertyNotFoundException;
+import com.alilitech.mybatis.jpa.statement.parser.PropertyPath;
+import com.alilitech.mybatis.jpa.EntityMetaDataRegistry;
+import com.alilitech.mybatis.jpa.util.CommonUtils;
 import com.alilitech.mybatis.jpa.util.EntityUtils;
+import org.apache.ibatis.mapping.SqlCommandType;
 
 import java.lang.reflect.Field;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 
@@ -51,6 +57,12 @@ public class EntityMetaData {
 
     private final Set<String> columnNames;
 
+    /** 属性路径索引，直接属性和一级关联属性预先生成，其它属性解析成功后加入 */
+    private final Map<String, PropertyPath> propertyPathIndex = new ConcurrentHashMap<>();
+
+    /** 每种sql命令的触发器计划 */
+    private final Map<SqlCommandType, TriggerPlan> triggerPlans = new EnumMap<>(SqlCommandType.class);
+
     public EntityMetaData(Class<?> clazz) {
         this.entityType = clazz;
 
@@ -97,6 +109,14 @@ public class EntityMetaData {
                 columnNames.add(columnMetaData.getColumnName());
             }
         }
+
+        for (ColumnMetaData columnMetaData : columnMetaDataMap.values()) {
+            propertyPathIndex.put(columnMetaData.getProperty(), new PropertyPath(columnMetaData.getProperty(), columnMetaData.getColumnName(), entityType));
+        }
+
+        for (SqlCommandType sqlCommandType : new SqlCommandType[] {SqlCommandType.INSERT, SqlCommandType.UPDATE}) {
+            triggerPlans.put(sqlCommandType, new TriggerPlan(sqlCommandType, columnMetaDataMap.values()));
+        }
     }
 
     public Class<?> getEntityType() {
@@ -122,12 +142,73 @@ public class EntityMetaData {
         return null;
     }
 
+    /**
+     * 从索引中获取属性路径，没有时返回null
+     * @since 2.2.5
+     */
+    public PropertyPath getPropertyPath(String property) {
+        return propertyPathIndex.get(property);
+    }
+
+    /**
+     * @since 2.2.5
+     */
+    public void addPropertyPath(PropertyPath propertyPath) {
+        propertyPathIndex.putIfAbsent(propertyPath.getName(), propertyPath);
+    }
+
+    /**
+     * 生成一级关联属性的索引，如 deptName，需要在关联元数据初始化后调用
+     * @since 2.2.5
+     */
+    public void indexJoinPropertyPaths() {
+        for (ColumnMetaData columnMetaData : columnMetaDataMap.values()) {
+            if(!columnMetaData.isJoin() || columnMetaData.getJoinColumnMetaData().getJoinEntityType() == null) {
+                continue;
+            }
+            EntityMetaData joinEntityMetaData = EntityMetaDataRegistry.getInstance().get((Class<?>) columnMetaData.getJoinColumnMetaData().getJoinEntityType());
+            if(joinEntityMetaData == null) {
+                continue;
+            }
+            for (ColumnMetaData joinColumnMetaData : joinEntityMetaData.getColumnMetaDataMap().values()) {
+                // 只索引关联实体的普通字段
+                if(joinColumnMetaData.isJoin()) {
+                    continue;
+                }
+                String property = columnMetaData.getProperty() + CommonUtils.upperFirst(joinColumnMetaData.getProperty());
+                try {
+                    // 按解析规则生成，保证和运行时解析的结果一致
+                    PropertyPath.from(property, Optional.of(entityType), null);
+                } catch (PropertyNotFoundException e) {
+                    // 驼峰切割解析到其他属性时解析不到，不加入索引
+                }
+            }
+        }
+    }
+
+    /**
+     * 触发器计划，只有insert和update有触发器
+     * @since 2.2.5
+     */
+    public TriggerPlan getTriggerPlan(SqlCommandType sqlCommandType) {
+        TriggerPlan triggerPlan = triggerPlans.get(sqlCommandType);
+        return triggerPlan != null ? triggerPlan : new TriggerPlan(sqlCommandType, Collections.emptyList());
+    }
+
+    /**
+     * @since 2.2.5
+     */
+    public Map<SqlCommandType, TriggerPlan> getTriggerPlans() {
+        return Collections.unmodifiableMap(triggerPlans);
+    }
+
     public Map<String, ColumnMetaData> getColumnMetaDataMap() {
         return columnMetaDataMap;
     }
 
     public void setColumnMetaDataMap(Map<String, ColumnMetaData> columnMetaDataMap) {
         this.columnMetaDataMap = columnMetaDataMap;
+        triggerPlans.replaceAll((sqlCommandType, triggerPlan) -> new TriggerPlan(sqlCommandType, columnMetaDataMap.values()));
     }
 
     public Set<String> getColumnNames() {
@@ -140,6 +140,12 @@ public class JoinColumnMetaData {
 
     private FetchType fetchType;
 
+    /**
+     * 批量抓取集合，不使用LEFT JOIN
+     * @since 2.2.5
+     */
+    private boolean batchFetch = false;
+
     /**
      * 关联表
      */
@@ -358,6 +364,14 @@ public class JoinColumnMetaData {
         this.fetchType = fetchType;
     }
 
+    public boolean isBatchFetch() {
+        return batchFetch;
+    }
+
+    public void setBatchFetch(boolean batchFetch) {
+        this.batchFetch = batchFetch;
+    }
+
     public String getTableName() {
         return tableName;
     }
@@ -0,0 +1,140 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.meta;
+
+import com.alilitech.mybatis.jpa.anotation.Trigger;
+import com.alilitech.mybatis.jpa.parameter.TriggerValueType;
+import org.apache.ibatis.mapping.SqlCommandType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 实体在某种sql命令下的触发器计划，注册实体时生成，执行时只遍历有触发器的列
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+public class TriggerPlan {
+
+    private final SqlCommandType sqlCommandType;
+
+    /** java代码触发器，按列和触发器的声明顺序 */
+    private final List<Step> javaCodeSteps;
+
+    /** 数据库函数触发器，每列只取第一个 */
+    private final List<Step> databaseFunctionSteps;
+
+    public TriggerPlan(SqlCommandType sqlCommandType, Collection<ColumnMetaData> columnMetaDatas) {
+        this.sqlCommandType = sqlCommandType;
+        List<Step> javaCodes = new ArrayList<>();
+        List<Step> databaseFunctions = new ArrayList<>();
+        for (ColumnMetaData columnMetaData : columnMetaDatas) {
+            if(columnMetaData.getTriggers() == null) {
+                continue;
+            }
+            boolean hasDatabaseFunction = false;
+            for (Trigger trigger : columnMetaData.getTriggers()) {
+                if(trigger.triggerType() != sqlCommandType) {
+                    continue;
+                }
+                if(trigger.valueType() == TriggerValueType.JAVA_CODE) {
+                    javaCodes.add(new Step(columnMetaData, trigger, columnMetaData.getTriggerValueSupplier(trigger)));
+                } else if(trigger.valueType() == TriggerValueType.DATABASE_FUNCTION && !hasDatabaseFunction) {
+                    databaseFunctions.add(new Step(columnMetaData, trigger, null));
+                    hasDatabaseFunction = true;
+                }
+            }
+        }
+        this.javaCodeSteps = Collections.unmodifiableList(Arrays.asList(javaCodes.toArray(new Step[0])));
+        this.databaseFunctionSteps = Collections.unmodifiableList(Arrays.asList(databaseFunctions.toArray(new Step[0])));
+    }
+
+    public SqlCommandType getSqlCommandType() {
+        return sqlCommandType;
+    }
+
+    public List<Step> getJavaCodeSteps() {
+        return javaCodeSteps;
+    }
+
+    public List<Step> getDatabaseFunctionSteps() {
+        return databaseFunctionSteps;
+    }
+
+    public boolean isEmpty() {
+        return javaCodeSteps.isEmpty() && databaseFunctionSteps.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "TriggerPlan{" +
+                "sqlCommandType=" + sqlCommandType +
+                ", javaCodeSteps=" + javaCodeSteps +
+                ", databaseFunctionSteps=" + databaseFunctionSteps +
+                '}';
+    }
+
+    /**
+     * 计划中的一步：列的访问器、触发器取值函数和是否强制设置
+     */
+    public static class Step {
+
+        private final ColumnMetaData columnMetaData;
+
+        private final Trigger trigger;
+
+        private final Supplier<Object> valueSupplier;
+
+        private final boolean force;
+
+        private Step(ColumnMetaData columnMetaData, Trigger trigger, Supplier<Object> valueSupplier) {
+            this.columnMetaData = columnMetaData;
+            this.trigger = trigger;
+            this.valueSupplier = valueSupplier;
+            this.force = trigger.force();
+        }
+
+        public ColumnMetaData getColumnMetaData() {
+            return columnMetaData;
+        }
+
+        public Trigger getTrigger() {
+            return trigger;
+        }
+
+        /**
+         * java代码触发器的取值函数，数据库函数触发器为null
+         */
+        public Supplier<Object> getValueSupplier() {
+            return valueSupplier;
+        }
+
+        public boolean isForce() {
+            return force;
+        }
+
+        @Override
+        public String toString() {
+            String value = valueSupplier == null ? trigger.value() : trigger.valueClass().getName() + "." + trigger.methodName();
+            return columnMetaData.getProperty() + "=" + value + (valueSupplier != null && force ? "(force)" : "");
+        }
+    }
+}
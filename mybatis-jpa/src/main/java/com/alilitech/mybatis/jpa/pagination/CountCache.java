@@ -0,0 +1,278 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.pagination;
+
+import com.alilitech.mybatis.jpa.EntityMetaDataRegistry;
+import com.alilitech.mybatis.jpa.StatementRegistry;
+import com.alilitech.mybatis.jpa.cache.TransactionalInvalidation;
+import com.alilitech.mybatis.jpa.definition.MethodDefinition;
+import com.alilitech.mybatis.jpa.meta.ColumnMetaData;
+import com.alilitech.mybatis.jpa.meta.EntityMetaData;
+import com.alilitech.mybatis.jpa.meta.JoinColumnMetaData;
+import com.alilitech.mybatis.jpa.util.ConcurrentCache;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.transaction.Transaction;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of pagination total, keyed by count sql and bound parameters.
+ * <p>
+ * Each table has a version, which is increased when the table is written by the generated statements of CrudMapper,
+ * and the total is cached with the versions of the tables it selects, so the stale totals are never hit and evicted later.
+ * The tables of custom statements are unknown, so their totals are invalidated by any write,
+ * and the writes of custom statements invalidate all totals.
+ * The writes out of this application can not be detected, use ttl or call {@link #invalidate(String)} for them.
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+public class CountCache {
+
+    private static final String[] NO_TABLES = new String[0];
+
+    private static final CountCache countCache = new CountCache();
+
+    /**
+     * null means disabled
+     */
+    private volatile ConcurrentCache<CacheKey, Long> cache;
+
+    /**
+     * key: table name
+     */
+    private final Map<String, AtomicLong> tableVersions = new ConcurrentHashMap<>();
+
+    /**
+     * increased by the writes of custom statements and invalidating all
+     */
+    private final AtomicLong epoch = new AtomicLong();
+
+    /**
+     * increased by any write
+     */
+    private final AtomicLong writeVersion = new AtomicLong();
+
+    /**
+     * key: statementId, value: tables selected by the generated statement, the main table is the first
+     */
+    private final Map<String, String[]> statementTables = new ConcurrentHashMap<>();
+
+    /**
+     * key: transaction of the session, value: the tables written and not committed.
+     * keyed by transaction, because the interceptors of a session see different executor proxies
+     */
+    private final Map<Transaction, PendingTables> pendingTablesMap = new ConcurrentHashMap<>();
+
+    private CountCache() {
+    }
+
+    public static CountCache getInstance() {
+        return countCache;
+    }
+
+    /**
+     * @param maxSize max count of cached totals, less than or equals 0 means disabled
+     * @param ttl expire time in milliseconds, less than or equals 0 means never expire
+     */
+    public void configure(int maxSize, long ttl) {
+        this.cache = maxSize <= 0 ? null : new ConcurrentCache<>(maxSize, 0, null, ttl);
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    /**
+     * create the cache key with the current versions of selected tables, it must be created before counting,
+     * so the total counted with a concurrent write is cached with the stale versions.
+     */
+    public CacheKey createKey(Executor executor, MappedStatement ms, MappedStatement countMs, Object parameterObject) {
+        BoundSql countBoundSql = countMs.getBoundSql(parameterObject);
+        CacheKey cacheKey = executor.createCacheKey(countMs, parameterObject, RowBounds.DEFAULT, countBoundSql);
+        String[] tables = getTables(ms.getId());
+        if(tables.length == 0) {
+            cacheKey.update(writeVersion.get());
+        } else {
+            long version = epoch.get();
+            for (String table : tables) {
+                version += getTableVersion(table).get();
+            }
+            cacheKey.update(version);
+        }
+        return cacheKey;
+    }
+
+    public Long get(CacheKey cacheKey) {
+        ConcurrentCache<CacheKey, Long> currentCache = this.cache;
+        return currentCache == null ? null : currentCache.get(cacheKey);
+    }
+
+    public void put(CacheKey cacheKey, long total) {
+        ConcurrentCache<CacheKey, Long> currentCache = this.cache;
+        if(currentCache != null) {
+            currentCache.put(cacheKey, total);
+        }
+    }
+
+    /**
+     * invalidate the totals selecting the table written by the statement
+     */
+    public void invalidate(MappedStatement ms) {
+        String[] tables = getTables(ms.getId());
+        if(tables.length == 0) {
+            invalidateAll();
+        } else {
+            invalidate(tables[0]);
+        }
+    }
+
+    /**
+     * invalidate the totals selecting the table
+     */
+    public void invalidate(String tableName) {
+        getTableVersion(tableName).incrementAndGet();
+        writeVersion.incrementAndGet();
+    }
+
+    public void invalidateAll() {
+        epoch.incrementAndGet();
+        writeVersion.incrementAndGet();
+    }
+
+    /**
+     * invalidate the totals of the table written by the statement,
+     * and remember the table until the transaction completes if the session is in a transaction
+     */
+    public void onWrite(Executor executor, MappedStatement ms) {
+        if(!isEnabled()) {
+            return;
+        }
+        invalidate(ms);
+        if(!TransactionalInvalidation.isAutoCommit(executor)) {
+            pendingTablesMap.computeIfAbsent(executor.getTransaction(), key -> new PendingTables()).add(getTables(ms.getId()));
+        }
+    }
+
+    /**
+     * the session has written and not committed, its totals should not be cached or read from cache
+     */
+    public boolean hasPendingWrites(Executor executor) {
+        return !pendingTablesMap.isEmpty() && pendingTablesMap.containsKey(executor.getTransaction());
+    }
+
+    /**
+     * commit or rollback, invalidate the written tables again, the session may go on writing
+     */
+    public void onCompletion(Transaction transaction) {
+        PendingTables pendingTables = transaction == null ? null : pendingTablesMap.get(transaction);
+        if(pendingTables != null) {
+            pendingTables.invalidate();
+        }
+    }
+
+    /**
+     * close, invalidate the written tables again after the transaction completes
+     */
+    public void onClose(Transaction transaction) {
+        PendingTables pendingTables = transaction == null ? null : pendingTablesMap.remove(transaction);
+        if(pendingTables != null) {
+            TransactionalInvalidation.getInstance().invalidateOnClose(pendingTables::invalidate);
+        }
+    }
+
+    public ConcurrentCache<CacheKey, Long> getCache() {
+        return cache;
+    }
+
+    /**
+     * get the tables of generated statement, the main table is the first, empty means custom statement
+     */
+    public String[] getTables(String statementId) {
+        return statementTables.computeIfAbsent(statementId, this::resolveTables);
+    }
+
+    private String[] resolveTables(String statementId) {
+        MethodDefinition methodDefinition = StatementRegistry.getInstance().getMethodDefinition(statementId);
+        if(methodDefinition == null) {
+            return NO_TABLES;
+        }
+        EntityMetaData entityMetaData = EntityMetaDataRegistry.getInstance().get(methodDefinition.getMapperDefinition().getGenericType().getDomainType());
+        if(entityMetaData == null) {
+            return NO_TABLES;
+        }
+        Set<String> tables = new LinkedHashSet<>();
+        tables.add(entityMetaData.getTableName());
+        for (ColumnMetaData columnMetaData : entityMetaData.getColumnMetaDataMap().values()) {
+            if(columnMetaData.isJoin()) {
+                JoinColumnMetaData joinColumnMetaData = columnMetaData.getJoinColumnMetaData();
+                if(joinColumnMetaData.getTableName() != null) {
+                    tables.add(joinColumnMetaData.getTableName());
+                }
+                if(joinColumnMetaData.getJoinTableName() != null) {
+                    tables.add(joinColumnMetaData.getJoinTableName());
+                }
+            }
+        }
+        return tables.toArray(new String[0]);
+    }
+
+    private AtomicLong getTableVersion(String tableName) {
+        return tableVersions.computeIfAbsent(tableName.toLowerCase(), key -> new AtomicLong());
+    }
+
+    /**
+     * the tables written by a session and not committed
+     */
+    private static class PendingTables {
+
+        private final Set<String> tables = new HashSet<>();
+
+        /**
+         * written by custom statements, the tables are unknown
+         */
+        private boolean all;
+
+        void add(String[] statementTables) {
+            if(statementTables.length == 0) {
+                all = true;
+            } else {
+                // the main table is written
+                tables.add(statementTables[0]);
+            }
+        }
+
+        void invalidate() {
+            CountCache countCache = CountCache.getInstance();
+            if(all) {
+                countCache.invalidateAll();
+                return;
+            }
+            for (String table : tables) {
+                countCache.invalidate(table);
+            }
+        }
+    }
+}
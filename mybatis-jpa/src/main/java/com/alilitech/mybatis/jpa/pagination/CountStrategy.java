@@ -0,0 +1,36 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.pagination;
+
+/**
+ * the strategy to get the total of pagination
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+public enum CountStrategy {
+
+    /**
+     * count by `SELECT COUNT(*)`
+     */
+    EXACT,
+
+    /**
+     * estimate by the database statistics, e.g. mysql `EXPLAIN` rows, postgresql `reltuples`,
+     * it falls back to exact count when the dialect does not support or the estimated total is less than the threshold
+     */
+    ESTIMATED
+}
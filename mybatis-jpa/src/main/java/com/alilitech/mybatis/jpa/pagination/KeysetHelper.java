@@ -0,0 +1,152 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.pagination;
+
+import com.alilitech.mybatis.jpa.exception.MybatisJpaException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.*;
+import java.util.Base64;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * keyset pagination token util.
+ * the token is the base64 of sort key values, each value is written as "length:value",
+ * and it is converted back to the property type when seeking, so no class information is carried by the token.
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+public class KeysetHelper {
+
+    private KeysetHelper() {
+    }
+
+    /**
+     * encode the sort key values to continuation token
+     */
+    public static String encode(Object[] values) {
+        StringBuilder builder = new StringBuilder();
+        for (Object value : values) {
+            if(value == null) {
+                throw new MybatisJpaException("Keyset pagination does not support null sort key value");
+            }
+            String text = toText(value);
+            builder.append(text.length()).append(':').append(text);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * decode the continuation token to sort key values
+     * @param token continuation token
+     * @param types the type of each sort key
+     */
+    public static Object[] decode(String token, Class<?>[] types) {
+        Object[] values = new Object[types.length];
+        try {
+            String text = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int index = 0;
+            for (int i = 0; i < types.length; i++) {
+                int colon = text.indexOf(':', index);
+                int length = Integer.parseInt(text.substring(index, colon));
+                index = colon + 1 + length;
+                values[i] = fromText(text.substring(colon + 1, index), types[i]);
+            }
+            if(index != text.length()) {
+                throw new MybatisJpaException("Invalid keyset pagination token: " + token);
+            }
+        } catch (MybatisJpaException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new MybatisJpaException("Invalid keyset pagination token: " + token, e);
+        }
+        return values;
+    }
+
+    private static String toText(Object value) {
+        if(value instanceof java.sql.Date || value instanceof Time) {
+            return value.toString();
+        }
+        if(value instanceof Date) {
+            return ((Date) value).toInstant().toString();
+        }
+        if(value instanceof Enum) {
+            return ((Enum<?>) value).name();
+        }
+        if(value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString();
+        }
+        return value.toString();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object fromText(String text, Class<?> type) {
+        if(type == String.class) {
+            return text;
+        } else if(type == Long.class || type == long.class) {
+            return Long.valueOf(text);
+        } else if(type == Integer.class || type == int.class) {
+            return Integer.valueOf(text);
+        } else if(type == Short.class || type == short.class) {
+            return Short.valueOf(text);
+        } else if(type == Byte.class || type == byte.class) {
+            return Byte.valueOf(text);
+        } else if(type == Double.class || type == double.class) {
+            return Double.valueOf(text);
+        } else if(type == Float.class || type == float.class) {
+            return Float.valueOf(text);
+        } else if(type == Boolean.class || type == boolean.class) {
+            return Boolean.valueOf(text);
+        } else if(type == Character.class || type == char.class) {
+            return text.charAt(0);
+        } else if(type == BigDecimal.class) {
+            return new BigDecimal(text);
+        } else if(type == BigInteger.class) {
+            return new BigInteger(text);
+        } else if(type == java.sql.Date.class) {
+            return java.sql.Date.valueOf(text);
+        } else if(type == Time.class) {
+            return Time.valueOf(text);
+        } else if(type == Timestamp.class) {
+            return Timestamp.from(Instant.parse(text));
+        } else if(type == Date.class) {
+            return Date.from(Instant.parse(text));
+        } else if(type == Instant.class) {
+            return Instant.parse(text);
+        } else if(type == LocalDateTime.class) {
+            return LocalDateTime.parse(text);
+        } else if(type == LocalDate.class) {
+            return LocalDate.parse(text);
+        } else if(type == LocalTime.class) {
+            return LocalTime.parse(text);
+        } else if(type == OffsetDateTime.class) {
+            return OffsetDateTime.parse(text);
+        } else if(type == ZonedDateTime.class) {
+            return ZonedDateTime.parse(text);
+        } else if(type == UUID.class) {
+            return UUID.fromString(text);
+        } else if(type.isEnum()) {
+            return Enum.valueOf((Class<Enum>) type, text);
+        }
+        throw new MybatisJpaException("Keyset pagination does not support the sort key type: " + type.getName());
+    }
+}
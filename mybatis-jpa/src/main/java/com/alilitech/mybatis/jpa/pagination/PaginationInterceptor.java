@@ -17,23 +17,20 @@ package com.alilitech.mybatis.jpa.pagination;
 
 import com.alilitech.mybatis.MybatisJpaProperties;
 import com.alilitech.mybatis.dialect.SqlDialectFactory;
-import com.alilitech.mybatis.jpa.EntityMetaDataRegistry;
-import com.alilitech.mybatis.jpa.StatementRegistry;
-import com.alilitech.mybatis.jpa.definition.MethodDefinition;
+import com.alilitech.mybatis.dialect.SqlDialectFactoryRegistry;
+import com.alilitech.mybatis.dialect.pagination.KeysetCondition;
+import com.alilitech.mybatis.jpa.domain.KeysetPage;
+import com.alilitech.mybatis.jpa.exception.MybatisJpaException;
 import com.alilitech.mybatis.jpa.meta.ColumnMetaData;
-import com.alilitech.mybatis.jpa.meta.EntityMetaData;
-import com.alilitech.mybatis.jpa.pagination.sqlparser.ParseResult;
+import com.alilitech.mybatis.jpa.pagination.sqlparser.KeysetTemplate;
 import com.alilitech.mybatis.jpa.pagination.sqlparser.SqlParser;
-import com.alilitech.mybatis.jpa.pagination.sqlparser.SqlSelectBody;
 import net.sf.jsqlparser.JSQLParserException;
-import net.sf.jsqlparser.expression.Alias;
-import net.sf.jsqlparser.schema.Column;
-import net.sf.jsqlparser.statement.select.*;
 import org.apache.ibatis.executor.statement.StatementHandler;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.plugin.Interceptor;
 import org.apache.ibatis.plugin.Intercepts;
@@ -45,8 +42,9 @@ import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.RowBounds;
 
 import java.sql.Connection;
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 
 /**
@@ -58,12 +56,16 @@ import java.util.stream.Collectors;
 @Intercepts({@Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class})})
 public class PaginationInterceptor implements Interceptor {
 
+    private static final String KEYSET_PARAMETER_PREFIX = "__keyset_";
+
     private final Log log = LogFactory.getLog(PaginationInterceptor.class);
 
     private MybatisJpaProperties mybatisJpaProperties;
 
     public PaginationInterceptor(MybatisJpaProperties mybatisJpaProperties) {
         this.mybatisJpaProperties = mybatisJpaProperties;
+        MybatisJpaProperties.Page pageProperties = mybatisJpaProperties.getPage();
+        SqlParser.getInstance().resizeCache(pageProperties.getParseCacheSize(), pageProperties.getParseCacheMaxWeight());
     }
 
     @Override
@@ -94,29 +96,35 @@ public class PaginationInterceptor implements Interceptor {
             // determine whether the paging dialect is actively set or auto set by config
             // add since v1.2.7
             Connection connection = (Connection) invocation.getArgs()[0];
+            SqlDialectFactoryRegistry sqlDialectFactoryRegistry = SqlDialectFactoryRegistry.getInstance();
             SqlDialectFactory sqlDialectFactory;
             if (page.getDatabaseType() == null) {
                 // add since v1.2.8 use autoDialect
                 if (this.mybatisJpaProperties.getPage().isAutoDialect()) {
-                    String databaseProductName = connection.getMetaData().getDatabaseProductName();
-                    sqlDialectFactory = new SqlDialectFactory(databaseProductName);
+                    // resolved dialect is memoized by jdbc url, add since v2.2.5
+                    sqlDialectFactory = sqlDialectFactoryRegistry.resolve(connection);
 
                     if (sqlDialectFactory.getDatabaseType() == null) {
                         log.warn("The databaseId of current connection used auto dialect do not has databaseType in com.alilitech.mybatis.jpa.DatabaseTypeRegistry, it will use mybatis configuration's databaseId!");
-                        // get the configuration and instantiate a SqlDialectFactory
+                        // get the configuration and get the SqlDialectFactory
                         Configuration configuration = (Configuration) metaObject.getValue("delegate.configuration");
-                        sqlDialectFactory = new SqlDialectFactory(configuration.getDatabaseId());
+                        sqlDialectFactory = sqlDialectFactoryRegistry.get(configuration.getDatabaseId());
                     }
 
                 } else {
-                    // get the configuration and instantiate a SqlDialectFactory
+                    // get the configuration and get the SqlDialectFactory
                     Configuration configuration = (Configuration) metaObject.getValue("delegate.configuration");
-                    sqlDialectFactory = new SqlDialectFactory(configuration.getDatabaseId());
+                    sqlDialectFactory = sqlDialectFactoryRegistry.get(configuration.getDatabaseId());
                 }
             } else {
-                sqlDialectFactory = new SqlDialectFactory(page.getDatabaseType());
+                sqlDialectFactory = sqlDialectFactoryRegistry.get(page.getDatabaseType());
+            }
+            if (page instanceof KeysetPage) {
+                Configuration configuration = (Configuration) metaObject.getValue("delegate.configuration");
+                originalSql = generateToKeysetPageSql(mappedStatement.getId(), originalSql, sqlDialectFactory, (KeysetPage<?>) page, configuration, metaObject);
+            } else {
+                originalSql = generateToPageSql(mappedStatement.getId(), originalSql, sqlDialectFactory, page);
             }
-            originalSql = generateToPageSql(mappedStatement.getId(), originalSql, sqlDialectFactory, page);
         }
         // 替换成分页sql
         metaObject.setValue("delegate.boundSql.sql", originalSql);
@@ -130,93 +138,55 @@ public class PaginationInterceptor implements Interceptor {
      * 生成需要跟分页参数拼接的sql
      */
     private String generateToPageSql(String statementId, String originalSql, SqlDialectFactory sqlDialectFactory, Pagination<?> page) throws JSQLParserException {
-        // custom sql
-        if(!StatementRegistry.getInstance().contains(statementId)) {
-            return sqlDialectFactory.buildPaginationSql(page, originalSql);
-        }
-
-        ParseResult parseResult = SqlParser.getInstance().parse(originalSql);
+        return SqlParser.getInstance().getPaginationTemplate(statementId, originalSql).buildPaginationSql(sqlDialectFactory, page);
+    }
 
-        // 如果没有关联查询，则直接拼接
-        if(parseResult.isJoinEmpty()) {
-            return sqlDialectFactory.buildPaginationSql(page, originalSql);
+    /**
+     * 生成keyset分页的sql，并追加seek条件的参数
+     */
+    private String generateToKeysetPageSql(String statementId, String originalSql, SqlDialectFactory sqlDialectFactory, KeysetPage<?> page, Configuration configuration, MetaObject metaObject) throws JSQLParserException {
+        KeysetTemplate keysetTemplate = SqlParser.getInstance().getKeysetTemplate(statementId, originalSql);
+        page.setKeyProperties(keysetTemplate.getProperties());
+
+        ColumnMetaData[] columnMetaDatas = keysetTemplate.getColumnMetaDatas();
+        Object[] lastValues = page.getLastValues();
+        if(lastValues == null && page.getToken() != null) {
+            lastValues = KeysetHelper.decode(page.getToken(), Arrays.stream(columnMetaDatas).map(ColumnMetaData::getType).toArray(Class<?>[]::new));
         }
-
-        MethodDefinition methodDefinition = StatementRegistry.getInstance().getMethodDefinition(statementId);
-        EntityMetaData entityMetaData = EntityMetaDataRegistry.getInstance().get(methodDefinition.getMapperDefinition().getGenericType().getDomainType());
-        String mainTableAlias = entityMetaData.getTableAlias() + "_0";
-
-        PlainSelect plainSelect = parseResult.getSelect();
-        List<SelectItem> selectItems = plainSelect.getSelectItems();
-
-        // 基于原始的解析copy一个，也是
-        PlainSelect plainSelectPage = new PlainSelect()
-                .withSelectItems(plainSelect.getSelectItems())
-                .withJoins(plainSelect.getJoins())
-                .withOrderByElements(plainSelect.getOrderByElements())
-                .withFromItem(plainSelect.getFromItem())
-                .withWhere(plainSelect.getWhere());
-
-
-        PlainSelect plainSelectFrom;
-        // 只有主表时，直接不需要join，加条件和排序，再加分页作为子表
-        if (parseResult.isOnlyMainTable()) {
-            List<SelectItem> mainTableItems = selectItems.stream()
-                    .filter(selectItem -> Objects.equals(mainTableAlias, ((Column) ((SelectExpressionItem) selectItem).getExpression()).getTable().getName()))
-                    .collect(Collectors.toList());
-            plainSelectFrom = new PlainSelect()
-                    .withSelectItems(mainTableItems)
-                    .withFromItem(plainSelect.getFromItem())
-                    .withWhere(plainSelect.getWhere())
-                    .withOrderByElements(plainSelect.getOrderByElements());
-
-        } else {
-            // 非主表时分有没有子表的排序，如果没有
-            // 则子查询是：查询主表字段，关联有条件的表，再加上条件，group by主表的主键，并limit
-            // 最后外层再套一层查询，作为最终查询
-            List<SelectItem> mainTableItems = selectItems.stream()
-                    .filter(selectItem -> Objects.equals(mainTableAlias, ((Column) ((SelectExpressionItem) selectItem).getExpression()).getTable().getName()))
-                    .collect(Collectors.toList());
-            // 准备join
-            Set<Join> joins = new LinkedHashSet<>();
-            parseResult.getJoinMap().forEach((key, value) -> {
-                if (parseResult.getWhereTables().contains(key)) {
-                    joins.add(value);
-                }
-                if (parseResult.getOrderTables().contains(key)) {
-                    joins.add(value);
-                }
-            });
-
-            plainSelectFrom = new PlainSelect()
-                    .withSelectItems(mainTableItems)
-                    .withFromItem(plainSelect.getFromItem())
-                    .withWhere(plainSelect.getWhere())
-                    .withOrderByElements(plainSelect.getOrderByElements())
-                    .withJoins(new ArrayList<>(joins));
-
-            // 准备group by column
-            Set<String> primaryKeys = entityMetaData.getPrimaryColumnMetaDatas().stream().map(ColumnMetaData::getColumnName).collect(Collectors.toSet());
-
-            List<Column> primaryColumns = mainTableItems.stream()
-                    .map(selectItem -> (Column) ((SelectExpressionItem) selectItem).getExpression())
-                    .filter(column -> primaryKeys.contains(column.getColumnName()))
-                    .collect(Collectors.toList());
-            primaryColumns.forEach(plainSelectFrom::addGroupByColumnReference);
-
+        // 第一页
+        if(lastValues == null) {
+            return keysetTemplate.buildFirstPageSql(sqlDialectFactory, page);
+        }
+        if(lastValues.length != columnMetaDatas.length) {
+            throw new MybatisJpaException("Keyset pagination needs " + columnMetaDatas.length + " sort key values " + Arrays.toString(keysetTemplate.getProperties()) + ", but got " + lastValues.length);
         }
 
-        String paginationSql = sqlDialectFactory.buildPaginationSql(page, plainSelectFrom.toString());
-
-        SqlSelectBody sqlSelectBody = new SqlSelectBody().withSql(paginationSql);
+        KeysetCondition keysetCondition = sqlDialectFactory.buildKeysetCondition(keysetTemplate.getColumns(), keysetTemplate.getDescending());
 
-        SubSelect subSelect = new SubSelect().withSelectBody(sqlSelectBody).withAlias(new Alias(mainTableAlias, false));
+        // seek条件在where的最后，所以参数追加在最后
+        BoundSql boundSql = (BoundSql) metaObject.getValue("delegate.boundSql");
+        List<ParameterMapping> parameterMappings = new ArrayList<>(boundSql.getParameterMappings());
+        int[] parameterIndexes = keysetCondition.getParameterIndexes();
+        for (int i = 0; i < parameterIndexes.length; i++) {
+            ColumnMetaData columnMetaData = columnMetaDatas[parameterIndexes[i]];
+            Object value = lastValues[parameterIndexes[i]];
+            if(value == null) {
+                throw new MybatisJpaException("Keyset pagination does not support null sort key value, property: " + columnMetaData.getProperty());
+            }
+            String property = KEYSET_PARAMETER_PREFIX + i;
+            boundSql.setAdditionalParameter(property, value);
 
-        plainSelectPage.setFromItem(subSelect);
-        // 外层查询不需要where与orderBy了
-        plainSelectPage.setWhere(null);
-        plainSelectPage.setOrderByElements(null);
-        return new Select().withSelectBody(plainSelectPage).toString();
+            ParameterMapping.Builder builder = new ParameterMapping.Builder(configuration, property, columnMetaData.getType());
+            if(columnMetaData.getJdbcType() != null) {
+                builder.jdbcType(columnMetaData.getJdbcType());
+            }
+            if(columnMetaData.getTypeHandler() != null) {
+                builder.typeHandler(configuration.getTypeHandlerRegistry().getInstance(columnMetaData.getType(), columnMetaData.getTypeHandler()));
+            }
+            parameterMappings.add(builder.build());
+        }
+        metaObject.setValue("delegate.boundSql.parameterMappings", parameterMappings);
 
+        return keysetTemplate.buildSeekPageSql(sqlDialectFactory, page, keysetCondition);
     }
 }
@@ -15,12 +15,19 @@
  */
 package com.alilitech.mybatis.jpa.pagination;
 
+import com.alilitech.mybatis.MybatisJpaProperties;
+import com.alilitech.mybatis.dialect.SqlDialectFactory;
+import com.alilitech.mybatis.dialect.SqlDialectFactoryRegistry;
 import com.alilitech.mybatis.jpa.StatementRegistry;
+import com.alilitech.mybatis.jpa.cache.TransactionalInvalidation;
+import com.alilitech.mybatis.jpa.domain.KeysetPage;
 import com.alilitech.mybatis.jpa.pagination.sqlparser.SqlParser;
 import com.alilitech.mybatis.jpa.parameter.TriggerValue4NoKeyGenerator;
+import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.executor.CachingExecutor;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.Environment;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ResultMap;
 import org.apache.ibatis.mapping.SqlSource;
@@ -31,13 +38,20 @@ import org.apache.ibatis.plugin.Signature;
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.SystemMetaObject;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.transaction.Transaction;
 
+import java.lang.reflect.Method;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -46,6 +60,9 @@ import java.util.regex.Pattern;
  * Handle the case where null is passed in paging, which means no paging
  * If you need to query by page, the total number of queries.
  * If the total number is equal to 0, the query ends and an empty List is returned directly
+ * The total can be cached or estimated, and the writes invalidate the cached totals, see {@link CountCache}.
+ * The tables written in a transaction are invalidated again when the session is committed, rolled back and closed,
+ * and the session does not use the cached totals until it is closed.
  * @author Zhou Xiaoxiang
  * @since 1.3.7
  */
@@ -53,7 +70,23 @@ import java.util.regex.Pattern;
         @Signature(
                 type = Executor.class,
                 method = "query",
-                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class})
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(
+                type = Executor.class,
+                method = "update",
+                args = {MappedStatement.class, Object.class}),
+        @Signature(
+                type = Executor.class,
+                method = "commit",
+                args = {boolean.class}),
+        @Signature(
+                type = Executor.class,
+                method = "rollback",
+                args = {boolean.class}),
+        @Signature(
+                type = Executor.class,
+                method = "close",
+                args = {boolean.class})
 })
 public class PrePaginationInterceptor implements Interceptor {
 
@@ -63,8 +96,53 @@ public class PrePaginationInterceptor implements Interceptor {
 
     public static final String STATEMENT_ID_POSTFIX = "_count";
 
+    public static final String ESTIMATE_STATEMENT_ID_POSTFIX = "_estimate";
+
+    private final MybatisJpaProperties mybatisJpaProperties;
+
+    /**
+     * the executor to run count query in parallel mode
+     */
+    private volatile java.util.concurrent.Executor countExecutor;
+
+    public PrePaginationInterceptor() {
+        this(new MybatisJpaProperties());
+    }
+
+    public PrePaginationInterceptor(MybatisJpaProperties mybatisJpaProperties) {
+        this.mybatisJpaProperties = mybatisJpaProperties;
+        MybatisJpaProperties.Page pageProperties = mybatisJpaProperties.getPage();
+        CountCache.getInstance().configure(pageProperties.getCountCacheSize(), pageProperties.getCountCacheTtl());
+    }
+
     @Override
     public Object intercept(Invocation invocation) throws Throwable {
+        String methodName = invocation.getMethod().getName();
+        // the write invalidates the cached totals of the table
+        if("update".equals(methodName)) {
+            try {
+                return invocation.proceed();
+            } finally {
+                CountCache.getInstance().onWrite((Executor) invocation.getTarget(), (MappedStatement) invocation.getArgs()[0]);
+            }
+        }
+
+        // commit, rollback, close, invalidate the written tables again, see EntityCacheInterceptor
+        if(!"query".equals(methodName)) {
+            Executor executor = (Executor) invocation.getTarget();
+            // the transaction can not be got after the executor is closed
+            Transaction transaction = executor.isClosed() ? null : executor.getTransaction();
+            try {
+                return invocation.proceed();
+            } finally {
+                if("close".equals(methodName)) {
+                    CountCache.getInstance().onClose(transaction);
+                } else {
+                    CountCache.getInstance().onCompletion(transaction);
+                }
+            }
+        }
+
         Object rowBounds = invocation.getArgs()[2];
         // If the incoming paging parameter is null, it is set to RowBounds.DEFAULT
         if(rowBounds == null) {
@@ -78,6 +156,15 @@ public class PrePaginationInterceptor implements Interceptor {
 
         MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
 
+        // keyset pagination does not count, and returns the token of next page
+        if (rowBounds instanceof KeysetPage) {
+            KeysetPage<?> page = (KeysetPage<?>) rowBounds;
+            page.setTotal(Long.MAX_VALUE);
+            List<?> list = this.queryKeysetPage(invocation, ms, page);
+            page.setNextToken(buildNextToken(page, list));
+            return list;
+        }
+
         if (rowBounds instanceof Pagination) {
             Pagination<?> page = (Pagination<?>) rowBounds;
 
@@ -98,7 +185,29 @@ public class PrePaginationInterceptor implements Interceptor {
 
 //                String countSql = buildCountSql(originalSql, ms.getId());
                 String countSql = SqlParser.getInstance().parseCountSql(originalSql, ms.getId());
-                long totalCount = this.queryTotal(configuration, executor, ms, originalBoundSql, countSql);
+                MappedStatement countMs = this.buildCountMappedStatement(configuration, ms, originalBoundSql, countSql);
+
+                CountCache countCache = CountCache.getInstance();
+                // 有未提交写入的会话不使用缓存的总数
+                boolean useCache = countCache.isEnabled() && !countCache.hasPendingWrites(executor);
+                CacheKey cacheKey = useCache ? countCache.createKey(executor, ms, countMs, originalBoundSql.getParameterObject()) : null;
+                Long cachedTotal = cacheKey == null ? null : countCache.get(cacheKey);
+
+                // run count query on another connection, at the same time of page query
+                // 在事务中时另一个连接看不到未提交的数据，所以串行计数
+                if(cachedTotal == null && mybatisJpaProperties.getPage().isParallelCount() && TransactionalInvalidation.isAutoCommit(executor)) {
+                    return this.queryInParallel(invocation, configuration, ms, countMs, originalBoundSql, page, cacheKey);
+                }
+
+                long totalCount;
+                if(cachedTotal != null) {
+                    totalCount = cachedTotal;
+                } else {
+                    totalCount = this.countTotal(executor, configuration, ms, countMs, originalBoundSql, page);
+                    if(cacheKey != null) {
+                        countCache.put(cacheKey, totalCount);
+                    }
+                }
                 page.setTotal(totalCount);
 
                 // if total count equal zero, do not execute page query
@@ -113,6 +222,38 @@ public class PrePaginationInterceptor implements Interceptor {
         return invocation.proceed();
     }
 
+    /**
+     * the offset of keyset page is always 0, so the seek values are added to the cache key, otherwise the following pages hit the cache of the first page
+     */
+    private List<?> queryKeysetPage(Invocation invocation, MappedStatement ms, KeysetPage<?> page) throws SQLException {
+        Executor executor = (Executor) invocation.getTarget();
+        Object parameter = invocation.getArgs()[1];
+        BoundSql boundSql = ms.getBoundSql(parameter);
+        CacheKey cacheKey = executor.createCacheKey(ms, parameter, page, boundSql);
+        if(page.getLastValues() != null) {
+            cacheKey.updateAll(page.getLastValues());
+        } else {
+            cacheKey.update(page.getToken());
+        }
+        return executor.query(ms, parameter, page, (ResultHandler<?>) invocation.getArgs()[3], cacheKey, boundSql);
+    }
+
+    /**
+     * build the token of next page from the sort key values of the last row, null means no more pages
+     */
+    private String buildNextToken(KeysetPage<?> page, List<?> list) {
+        if(list.isEmpty() || list.size() < page.getSize() || page.getKeyProperties() == null) {
+            return null;
+        }
+        MetaObject metaObject = SystemMetaObject.forObject(list.get(list.size() - 1));
+        String[] keyProperties = page.getKeyProperties();
+        Object[] values = new Object[keyProperties.length];
+        for (int i = 0; i < keyProperties.length; i++) {
+            values[i] = metaObject.getValue(keyProperties[i]);
+        }
+        return KeysetHelper.encode(values);
+    }
+
     /**
      * according to the original sql to build `count sql`
      * @param originalSql original sql
@@ -143,11 +284,59 @@ public class PrePaginationInterceptor implements Interceptor {
     }
 
     /**
-     * query total count
+     * run count query with a new executor in count executor, and run page query in current thread
+     */
+    private Object queryInParallel(Invocation invocation, Configuration configuration, MappedStatement ms, MappedStatement countMs, BoundSql originalBoundSql, Pagination<?> page, CacheKey cacheKey) throws Throwable {
+        // FutureTask can be interrupted when cancelled, CompletableFuture can not
+        FutureTask<Long> totalFuture = new FutureTask<>(() -> {
+            Environment environment = configuration.getEnvironment();
+            Transaction transaction = environment.getTransactionFactory().newTransaction(environment.getDataSource(), null, false);
+            Executor executor = configuration.newExecutor(transaction, ExecutorType.SIMPLE);
+            try {
+                long totalCount = this.countTotal(executor, configuration, ms, countMs, originalBoundSql, page);
+                if(cacheKey != null) {
+                    CountCache.getInstance().put(cacheKey, totalCount);
+                }
+                return totalCount;
+            } finally {
+                executor.close(false);
+            }
+        });
+        getCountExecutor().execute(totalFuture);
+
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            totalFuture.cancel(true);
+            throw e;
+        }
+
+        try {
+            page.setTotal(totalFuture.get());
+        } catch (ExecutionException e) {
+            throw e.getCause() == null ? e : e.getCause();
+        } catch (InterruptedException e) {
+            totalFuture.cancel(true);
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+        return result;
+    }
+
+    /**
+     * construct 'count MappedStatement'
      */
-    private Long queryTotal(Configuration configuration, Executor executor, MappedStatement ms, BoundSql originalBoundSql, String countSql) throws SQLException {
+    private MappedStatement buildCountMappedStatement(Configuration configuration, MappedStatement ms, BoundSql originalBoundSql, String countSql) {
+        return this.buildMappedStatement(configuration, ms, originalBoundSql, countSql, STATEMENT_ID_POSTFIX, Long.class);
+    }
+
+    /**
+     * construct the MappedStatement with the parameters of original statement
+     */
+    private MappedStatement buildMappedStatement(Configuration configuration, MappedStatement ms, BoundSql originalBoundSql, String sql, String idPostfix, Class<?> resultType) {
         // construct 'count BoundSql'
-        BoundSql countBoundSql = new BoundSql(configuration, countSql, originalBoundSql.getParameterMappings(), originalBoundSql.getParameterObject());
+        BoundSql countBoundSql = new BoundSql(configuration, sql, originalBoundSql.getParameterMappings(), originalBoundSql.getParameterObject());
 
         MetaObject metaObject = configuration.newMetaObject(originalBoundSql);
         Map<String, Object> additionalParameters = (Map) metaObject.getValue("additionalParameters");
@@ -159,7 +348,7 @@ public class PrePaginationInterceptor implements Interceptor {
 
         // construct 'count MappedStatement'
         MappedStatement.Builder builder =
-                new MappedStatement.Builder(ms.getConfiguration(), ms.getId() + STATEMENT_ID_POSTFIX, new BoundSqlSqlSource(countBoundSql), ms.getSqlCommandType());
+                new MappedStatement.Builder(ms.getConfiguration(), ms.getId() + idPostfix, new BoundSqlSqlSource(countBoundSql), ms.getSqlCommandType());
         builder.resource(ms.getResource());
         builder.fetchSize(ms.getFetchSize());
         builder.statementType(ms.getStatementType());
@@ -167,7 +356,7 @@ public class PrePaginationInterceptor implements Interceptor {
         builder.timeout(ms.getTimeout());
         builder.parameterMap(ms.getParameterMap());
         List<ResultMap> resultMaps = new ArrayList<>();
-        ResultMap resultMap = new ResultMap.Builder(ms.getConfiguration(), ms.getId(), Long.class, new ArrayList<>(0)).build();
+        ResultMap resultMap = new ResultMap.Builder(ms.getConfiguration(), ms.getId(), resultType, new ArrayList<>(0)).build();
         resultMaps.add(resultMap);
         builder.resultMaps(resultMaps);
         builder.resultSetType(ms.getResultSetType());
@@ -175,10 +364,74 @@ public class PrePaginationInterceptor implements Interceptor {
         builder.flushCacheRequired(ms.isFlushCacheRequired());
         builder.useCache(ms.isUseCache());
 
-        MappedStatement countMs = builder.build();
+        return builder.build();
+    }
+
+    /**
+     * count the total by the count strategy
+     */
+    private long countTotal(Executor executor, Configuration configuration, MappedStatement ms, MappedStatement countMs, BoundSql originalBoundSql, Pagination<?> page) throws SQLException {
+        MybatisJpaProperties.Page pageProperties = mybatisJpaProperties.getPage();
+        if(pageProperties.getCountStrategy() == CountStrategy.ESTIMATED) {
+            Long estimatedTotal = this.queryEstimatedTotal(executor, configuration, ms, countMs, originalBoundSql, page);
+            // the small total is counted exactly, it is cheap and the estimate is inaccurate
+            if(estimatedTotal != null && estimatedTotal >= pageProperties.getEstimatedCountThreshold()) {
+                return estimatedTotal;
+            }
+        }
+        return this.queryTotal(executor, countMs, originalBoundSql.getParameterObject());
+    }
+
+    /**
+     * query the estimated total by the dialect, null means not supported
+     */
+    @SuppressWarnings("unchecked")
+    private Long queryEstimatedTotal(Executor executor, Configuration configuration, MappedStatement ms, MappedStatement countMs, BoundSql originalBoundSql, Pagination<?> page) throws SQLException {
+        SqlDialectFactory sqlDialectFactory = this.resolveSqlDialectFactory(executor, configuration, page);
+        String estimateSql = sqlDialectFactory.buildEstimatedCountSql(originalBoundSql.getSql(), this.resolveWholeTableName(ms, countMs, originalBoundSql));
+        if(estimateSql == null) {
+            return null;
+        }
+        MappedStatement estimateMs = this.buildMappedStatement(configuration, ms, originalBoundSql, estimateSql, ESTIMATE_STATEMENT_ID_POSTFIX, Map.class);
+        List<Map<String, Object>> rows = executor.query(estimateMs, originalBoundSql.getParameterObject(), RowBounds.DEFAULT, null);
+        return sqlDialectFactory.readEstimatedCount(rows);
+    }
+
+    private SqlDialectFactory resolveSqlDialectFactory(Executor executor, Configuration configuration, Pagination<?> page) throws SQLException {
+        SqlDialectFactoryRegistry sqlDialectFactoryRegistry = SqlDialectFactoryRegistry.getInstance();
+        if(page.getDatabaseType() != null) {
+            return sqlDialectFactoryRegistry.get(page.getDatabaseType());
+        }
+        if(mybatisJpaProperties.getPage().isAutoDialect()) {
+            SqlDialectFactory sqlDialectFactory = sqlDialectFactoryRegistry.resolve(executor.getTransaction().getConnection());
+            if(sqlDialectFactory.getDatabaseType() != null) {
+                return sqlDialectFactory;
+            }
+        }
+        return sqlDialectFactoryRegistry.get(configuration.getDatabaseId());
+    }
+
+    /**
+     * the main table name if the generated statement selects the whole table without any condition, otherwise null
+     */
+    private String resolveWholeTableName(MappedStatement ms, MappedStatement countMs, BoundSql originalBoundSql) {
+        String[] tables = CountCache.getInstance().getTables(ms.getId());
+        if(tables.length == 0 || !originalBoundSql.getParameterMappings().isEmpty()) {
+            return null;
+        }
+        String loweredCountSql = countMs.getBoundSql(originalBoundSql.getParameterObject()).getSql().toLowerCase();
+        if(loweredCountSql.contains(" where ") || loweredCountSql.contains(" join ")) {
+            return null;
+        }
+        return tables[0];
+    }
 
+    /**
+     * query total count
+     */
+    private Long queryTotal(Executor executor, MappedStatement countMs, Object parameterObject) throws SQLException {
         // use Executor to doQuery
-        List<Object> retList = executor.query(countMs, originalBoundSql.getParameterObject(), RowBounds.DEFAULT, null);
+        List<Object> retList = executor.query(countMs, parameterObject, RowBounds.DEFAULT, null);
 
         if(!retList.isEmpty()) {
             return (Long) retList.get(0);
@@ -188,6 +441,41 @@ public class PrePaginationInterceptor implements Interceptor {
         }
     }
 
+    private java.util.concurrent.Executor getCountExecutor() {
+        if(countExecutor == null) {
+            synchronized (this) {
+                if(countExecutor == null) {
+                    countExecutor = createCountExecutor(mybatisJpaProperties.getPage().getCountThreads());
+                }
+            }
+        }
+        return countExecutor;
+    }
+
+    /**
+     * set the executor to run count query in parallel mode
+     */
+    public void setCountExecutor(java.util.concurrent.Executor countExecutor) {
+        this.countExecutor = countExecutor;
+    }
+
+    /**
+     * use virtual threads if the jdk supports (jdk 21+), otherwise use a fixed daemon thread pool
+     */
+    private static java.util.concurrent.Executor createCountExecutor(int threads) {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (java.util.concurrent.Executor) method.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger threadIndex = new AtomicInteger();
+            return Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "mybatis-jpa-count-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
     static class BoundSqlSqlSource implements SqlSource {
         private BoundSql boundSql;
         public BoundSqlSqlSource(BoundSql boundSql) {
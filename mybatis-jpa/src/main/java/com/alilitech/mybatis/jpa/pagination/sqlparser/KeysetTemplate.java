@@ -0,0 +1,92 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.pagination.sqlparser;
+
+import com.alilitech.mybatis.dialect.SqlDialectFactory;
+import com.alilitech.mybatis.dialect.pagination.KeysetCondition;
+import com.alilitech.mybatis.jpa.meta.ColumnMetaData;
+import com.alilitech.mybatis.jpa.pagination.Pagination;
+
+import java.util.List;
+
+/**
+ * Precompiled keyset page sql of a sql shape.
+ * The sort keys are the columns of order by, with the primary key appended as tie-breaker.
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+public class KeysetTemplate {
+
+    static final String CONDITION_PLACEHOLDER = "__KEYSET_CONDITION__";
+
+    /**
+     * sort columns with table alias
+     */
+    private final List<String> columns;
+
+    private final boolean[] descending;
+
+    private final ColumnMetaData[] columnMetaDatas;
+
+    private final String[] properties;
+
+    /**
+     * page sql of the first page, without seek condition
+     */
+    private final PaginationTemplate firstTemplate;
+
+    /**
+     * page sql with the placeholder of seek condition
+     */
+    private final PaginationTemplate seekTemplate;
+
+    public KeysetTemplate(List<String> columns, boolean[] descending, ColumnMetaData[] columnMetaDatas, PaginationTemplate firstTemplate, PaginationTemplate seekTemplate) {
+        this.columns = columns;
+        this.descending = descending;
+        this.columnMetaDatas = columnMetaDatas;
+        this.firstTemplate = firstTemplate;
+        this.seekTemplate = seekTemplate;
+        this.properties = new String[columnMetaDatas.length];
+        for (int i = 0; i < columnMetaDatas.length; i++) {
+            properties[i] = columnMetaDatas[i].getProperty();
+        }
+    }
+
+    public String buildFirstPageSql(SqlDialectFactory sqlDialectFactory, Pagination<?> page) {
+        return firstTemplate.buildPaginationSql(sqlDialectFactory, page);
+    }
+
+    public String buildSeekPageSql(SqlDialectFactory sqlDialectFactory, Pagination<?> page, KeysetCondition keysetCondition) {
+        return seekTemplate.buildPaginationSql(sqlDialectFactory, page).replace(CONDITION_PLACEHOLDER, keysetCondition.getSql());
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public boolean[] getDescending() {
+        return descending;
+    }
+
+    public ColumnMetaData[] getColumnMetaDatas() {
+        return columnMetaDatas;
+    }
+
+    public String[] getProperties() {
+        return properties;
+    }
+}
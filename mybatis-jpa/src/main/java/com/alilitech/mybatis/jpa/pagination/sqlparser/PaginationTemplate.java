@@ -0,0 +1,72 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.pagination.sqlparser;
+
+import com.alilitech.mybatis.dialect.SqlDialectFactory;
+import com.alilitech.mybatis.jpa.pagination.Pagination;
+
+/**
+ * Precompiled page sql of a sql shape.
+ * The sql to be paged is handed to the dialect, then wrapped by prefix and suffix if they exist,
+ * so no sql parsing or printing is needed per request.
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+public class PaginationTemplate {
+
+    /**
+     * the sql passed to pagination dialect
+     */
+    private final String pageSql;
+
+    /**
+     * the outer select before the paged sql, null if the paged sql is the final sql
+     */
+    private final String prefix;
+
+    private final String suffix;
+
+    public PaginationTemplate(String pageSql) {
+        this(pageSql, null, null);
+    }
+
+    public PaginationTemplate(String pageSql, String prefix, String suffix) {
+        this.pageSql = pageSql;
+        this.prefix = prefix;
+        this.suffix = suffix;
+    }
+
+    public String buildPaginationSql(SqlDialectFactory sqlDialectFactory, Pagination<?> page) {
+        String paginationSql = sqlDialectFactory.buildPaginationSql(page, pageSql);
+        if(prefix == null) {
+            return paginationSql;
+        }
+        return prefix + paginationSql + suffix;
+    }
+
+    public String getPageSql() {
+        return pageSql;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public String getSuffix() {
+        return suffix;
+    }
+}
@@ -37,6 +37,26 @@ public class ParseResult {
 
     private final PlainSelect select;
 
+    /**
+     * original sql length, used as cache weight
+     */
+    private final int weight;
+
+    /**
+     * precompiled count sql, built at the first counting
+     */
+    private volatile String countSql;
+
+    /**
+     * precompiled page sql, built at the first paging
+     */
+    private volatile PaginationTemplate paginationTemplate;
+
+    /**
+     * precompiled keyset page sql, built at the first keyset paging
+     */
+    private volatile KeysetTemplate keysetTemplate;
+
     private Map<String, Join> joinMap;
 
     private final Set<String> whereTables = new LinkedHashSet<>();
@@ -49,6 +69,8 @@ public class ParseResult {
 
     public ParseResult(String originalSql) throws JSQLParserException {
 
+        this.weight = originalSql.length();
+
         Select parse = (Select) CCJSqlParserUtil.parse(originalSql);
 
         this.select = (PlainSelect) parse.getSelectBody();
@@ -120,6 +142,34 @@ public class ParseResult {
         return orderTables;
     }
 
+    public int getWeight() {
+        return weight;
+    }
+
+    public String getCountSql() {
+        return countSql;
+    }
+
+    public void setCountSql(String countSql) {
+        this.countSql = countSql;
+    }
+
+    public PaginationTemplate getPaginationTemplate() {
+        return paginationTemplate;
+    }
+
+    public void setPaginationTemplate(PaginationTemplate paginationTemplate) {
+        this.paginationTemplate = paginationTemplate;
+    }
+
+    public KeysetTemplate getKeysetTemplate() {
+        return keysetTemplate;
+    }
+
+    public void setKeysetTemplate(KeysetTemplate keysetTemplate) {
+        this.keysetTemplate = keysetTemplate;
+    }
+
     /**
      * 判断是否只有主表的排序
      */
@@ -18,16 +18,20 @@ package com.alilitech.mybatis.jpa.pagination.sqlparser;
 import com.alilitech.mybatis.jpa.EntityMetaDataRegistry;
 import com.alilitech.mybatis.jpa.StatementRegistry;
 import com.alilitech.mybatis.jpa.definition.MethodDefinition;
+import com.alilitech.mybatis.jpa.exception.MybatisJpaException;
 import com.alilitech.mybatis.jpa.meta.ColumnMetaData;
 import com.alilitech.mybatis.jpa.meta.EntityMetaData;
-import com.alilitech.mybatis.jpa.util.LRUCache;
+import com.alilitech.mybatis.jpa.util.ConcurrentCache;
 import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.expression.Alias;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.Parenthesis;
+import net.sf.jsqlparser.expression.operators.conditional.AndExpression;
 import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.schema.Table;
 import net.sf.jsqlparser.statement.select.*;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 /**
@@ -40,10 +44,14 @@ public class SqlParser {
             new SelectExpressionItem(new Column().withColumnName("COUNT(*)"))
     );
 
+    public static final int DEFAULT_CACHE_SIZE = 10000;
+
+    private static final String PAGE_SQL_PLACEHOLDER = "__PAGE_SQL__";
+
     /**
-     * key: original sql
+     * key: statement id and original sql
      */
-    private final LRUCache<String, ParseResult> sqlParserCache = new LRUCache<>(10000);
+    private volatile ConcurrentCache<ParseKey, ParseResult> sqlParserCache = new ConcurrentCache<>(DEFAULT_CACHE_SIZE);
 
     private static final SqlParser SQL_PARSER = new SqlParser();
     public static SqlParser getInstance() {
@@ -58,8 +66,44 @@ public class SqlParser {
             return String.format("SELECT COUNT(*) FROM ( %s ) TOTAL", originalSql);
         }
 
-        ParseResult parseResult = parse(originalSql);
+        ParseResult parseResult = parse(statementId, originalSql);
+
+        String countSql = parseResult.getCountSql();
+        if(countSql == null) {
+            countSql = buildCountSql(parseResult, statementId);
+            parseResult.setCountSql(countSql);
+        }
+        return countSql;
+    }
+
+    /**
+     * get the precompiled page sql of the generated statement, only offset and limit need to be spliced per request
+     */
+    public PaginationTemplate getPaginationTemplate(String statementId, String originalSql) throws JSQLParserException {
+        // custom sql
+        if(!StatementRegistry.getInstance().contains(statementId)) {
+            return new PaginationTemplate(originalSql);
+        }
+
+        ParseResult parseResult = parse(statementId, originalSql);
 
+        PaginationTemplate paginationTemplate = parseResult.getPaginationTemplate();
+        if(paginationTemplate == null) {
+            paginationTemplate = buildPaginationTemplate(parseResult, parseResult.getSelect(), statementId, originalSql, false);
+            parseResult.setPaginationTemplate(paginationTemplate);
+        }
+        return paginationTemplate;
+    }
+
+    /**
+     * precompile count sql and page sql of a generated statement whose sql is static
+     */
+    public void precompile(String statementId, String originalSql) throws JSQLParserException {
+        parseCountSql(originalSql, statementId);
+        getPaginationTemplate(statementId, originalSql);
+    }
+
+    private String buildCountSql(ParseResult parseResult, String statementId) {
         PlainSelect plainSelect = parseResult.getSelect();
 
         PlainSelect plainSelectCount = new PlainSelect()
@@ -93,18 +137,217 @@ public class SqlParser {
         return selectCount.toString();
     }
 
+    /**
+     * get the precompiled keyset page sql of the generated statement
+     */
+    public KeysetTemplate getKeysetTemplate(String statementId, String originalSql) throws JSQLParserException {
+        // custom sql
+        if(!StatementRegistry.getInstance().contains(statementId)) {
+            throw new MybatisJpaException("Keyset pagination only supports the generated statement, statement: " + statementId);
+        }
+
+        ParseResult parseResult = parse(statementId, originalSql);
+
+        KeysetTemplate keysetTemplate = parseResult.getKeysetTemplate();
+        if(keysetTemplate == null) {
+            keysetTemplate = buildKeysetTemplate(parseResult, statementId);
+            parseResult.setKeysetTemplate(keysetTemplate);
+        }
+        return keysetTemplate;
+    }
+
+    private KeysetTemplate buildKeysetTemplate(ParseResult parseResult, String statementId) {
+        EntityMetaData entityMetaData = getEntityMetaData(statementId);
+        String mainTableAlias = entityMetaData.getTableAlias() + "_0";
+
+        Map<String, ColumnMetaData> columnMetaDataMap = new HashMap<>();
+        entityMetaData.getColumnMetaDataMap().values().stream()
+                .filter(columnMetaData -> !columnMetaData.isJoin())
+                .forEach(columnMetaData -> columnMetaDataMap.put(columnMetaData.getColumnName(), columnMetaData));
+
+        PlainSelect plainSelect = parseResult.getSelect();
+
+        List<OrderByElement> orderByElements = new ArrayList<>();
+        List<ColumnMetaData> keys = new ArrayList<>();
+        if(plainSelect.getOrderByElements() != null) {
+            for (OrderByElement orderByElement : plainSelect.getOrderByElements()) {
+                Expression expression = orderByElement.getExpression();
+                ColumnMetaData columnMetaData = null;
+                if(expression instanceof Column && ((Column) expression).getTable() != null
+                        && mainTableAlias.equals(((Column) expression).getTable().getName())) {
+                    columnMetaData = columnMetaDataMap.get(((Column) expression).getColumnName());
+                }
+                if(columnMetaData == null) {
+                    throw new MybatisJpaException("Keyset pagination only supports sorting by the columns of main table, statement: " + statementId + ", sort: " + orderByElement);
+                }
+                // null值无法参与比较，会导致分页跳过或重复
+                if(columnMetaData.isNullable()) {
+                    throw new MybatisJpaException("Keyset pagination requires not null sort columns, mark the property with @Column(nullable = false) or use a primitive type, statement: " + statementId + ", sort: " + orderByElement);
+                }
+                orderByElements.add(orderByElement);
+                keys.add(columnMetaData);
+            }
+        }
+        // 主键作为最后的排序，保证排序唯一
+        for (ColumnMetaData primaryColumnMetaData : entityMetaData.getPrimaryColumnMetaDatas()) {
+            if(!keys.contains(primaryColumnMetaData)) {
+                orderByElements.add(new OrderByElement().withExpression(new Column(new Table(mainTableAlias), primaryColumnMetaData.getColumnName())));
+                keys.add(primaryColumnMetaData);
+            }
+        }
+
+        List<String> columns = new ArrayList<>(keys.size());
+        boolean[] descending = new boolean[keys.size()];
+        for (int i = 0; i < keys.size(); i++) {
+            columns.add(mainTableAlias + "." + keys.get(i).getColumnName());
+            descending[i] = !orderByElements.get(i).isAsc();
+        }
+
+        PlainSelect plainSelectFirst = new PlainSelect()
+                .withSelectItems(plainSelect.getSelectItems())
+                .withJoins(plainSelect.getJoins())
+                .withOrderByElements(orderByElements)
+                .withFromItem(plainSelect.getFromItem())
+                .withWhere(plainSelect.getWhere());
+
+        // 查询条件用占位替代，查询时替换成各数据库的条件
+        Column condition = new Column(KeysetTemplate.CONDITION_PLACEHOLDER);
+        PlainSelect plainSelectSeek = new PlainSelect()
+                .withSelectItems(plainSelect.getSelectItems())
+                .withJoins(plainSelect.getJoins())
+                .withOrderByElements(orderByElements)
+                .withFromItem(plainSelect.getFromItem())
+                .withWhere(plainSelect.getWhere() == null ? condition : new AndExpression(new Parenthesis(plainSelect.getWhere()), condition));
+
+        return new KeysetTemplate(columns, descending, keys.toArray(new ColumnMetaData[0]),
+                buildPaginationTemplate(parseResult, plainSelectFirst, statementId, plainSelectFirst.toString(), true),
+                buildPaginationTemplate(parseResult, plainSelectSeek, statementId, plainSelectSeek.toString(), true));
+    }
+
+    /**
+     * @param outerOrderBy whether the outer query keeps the order by, keyset pagination takes the next token from the last row, so the order must be kept
+     */
+    private PaginationTemplate buildPaginationTemplate(ParseResult parseResult, PlainSelect plainSelect, String statementId, String sql, boolean outerOrderBy) {
+        // 如果没有关联查询，则直接拼接
+        if(parseResult.isJoinEmpty()) {
+            return new PaginationTemplate(sql);
+        }
+
+        EntityMetaData entityMetaData = getEntityMetaData(statementId);
+        String mainTableAlias = entityMetaData.getTableAlias() + "_0";
+
+        List<SelectItem> selectItems = plainSelect.getSelectItems();
+
+        // 基于原始的解析copy一个，也是
+        PlainSelect plainSelectPage = new PlainSelect()
+                .withSelectItems(plainSelect.getSelectItems())
+                .withJoins(plainSelect.getJoins())
+                .withOrderByElements(plainSelect.getOrderByElements())
+                .withFromItem(plainSelect.getFromItem())
+                .withWhere(plainSelect.getWhere());
+
+        List<SelectItem> mainTableItems = selectItems.stream()
+                .filter(selectItem -> Objects.equals(mainTableAlias, ((Column) ((SelectExpressionItem) selectItem).getExpression()).getTable().getName()))
+                .collect(Collectors.toList());
+
+        PlainSelect plainSelectFrom;
+        // 只有主表时，直接不需要join，加条件和排序，再加分页作为子表
+        if (parseResult.isOnlyMainTable()) {
+            plainSelectFrom = new PlainSelect()
+                    .withSelectItems(mainTableItems)
+                    .withFromItem(plainSelect.getFromItem())
+                    .withWhere(plainSelect.getWhere())
+                    .withOrderByElements(plainSelect.getOrderByElements());
+
+        } else {
+            // 非主表时分有没有子表的排序，如果没有
+            // 则子查询是：查询主表字段，关联有条件的表，再加上条件，group by主表的主键，并limit
+            // 最后外层再套一层查询，作为最终查询
+            // 准备join
+            Set<Join> joins = new LinkedHashSet<>();
+            parseResult.getJoinMap().forEach((key, value) -> {
+                if (parseResult.getWhereTables().contains(key)) {
+                    joins.add(value);
+                }
+                if (parseResult.getOrderTables().contains(key)) {
+                    joins.add(value);
+                }
+            });
+
+            plainSelectFrom = new PlainSelect()
+                    .withSelectItems(mainTableItems)
+                    .withFromItem(plainSelect.getFromItem())
+                    .withWhere(plainSelect.getWhere())
+                    .withOrderByElements(plainSelect.getOrderByElements())
+                    .withJoins(new ArrayList<>(joins));
+
+            // 准备group by column
+            Set<String> primaryKeys = entityMetaData.getPrimaryColumnMetaDatas().stream().map(ColumnMetaData::getColumnName).collect(Collectors.toSet());
+
+            List<Column> primaryColumns = mainTableItems.stream()
+                    .map(selectItem -> (Column) ((SelectExpressionItem) selectItem).getExpression())
+                    .filter(column -> primaryKeys.contains(column.getColumnName()))
+                    .collect(Collectors.toList());
+            primaryColumns.forEach(plainSelectFrom::addGroupByColumnReference);
+
+        }
+
+        // 分页的sql用占位替代，之后按占位切分为前后两部分
+        SqlSelectBody sqlSelectBody = new SqlSelectBody().withSql(PAGE_SQL_PLACEHOLDER);
+
+        SubSelect subSelect = new SubSelect().withSelectBody(sqlSelectBody).withAlias(new Alias(mainTableAlias, false));
+
+        plainSelectPage.setFromItem(subSelect);
+        // 外层查询不需要where了，orderBy只有keyset分页保留，其排序列都是主表的列，按子查询的别名同样可以排序
+        plainSelectPage.setWhere(null);
+        if(!outerOrderBy) {
+            plainSelectPage.setOrderByElements(null);
+        }
+        String outerSql = new Select().withSelectBody(plainSelectPage).toString();
+
+        int index = outerSql.indexOf(PAGE_SQL_PLACEHOLDER);
+        return new PaginationTemplate(plainSelectFrom.toString(), outerSql.substring(0, index), outerSql.substring(index + PAGE_SQL_PLACEHOLDER.length()));
+    }
+
     public ParseResult parse(String originalSql) throws JSQLParserException {
-        if(sqlParserCache.containsKey(originalSql)) {
-            return sqlParserCache.get(originalSql);
+        return parse(null, originalSql);
+    }
+
+    /**
+     * parse the sql, the result is cached by statement id and sql.
+     * the cached result is shared between threads, so it must be treated as read only
+     */
+    public ParseResult parse(String statementId, String originalSql) throws JSQLParserException {
+        ParseKey key = new ParseKey(statementId, originalSql);
+        ConcurrentCache<ParseKey, ParseResult> cache = this.sqlParserCache;
+        ParseResult parseResult = cache.get(key);
+        if(parseResult == null) {
+            parseResult = new ParseResult(originalSql);
+            cache.put(key, parseResult);
         }
+        return parseResult;
+    }
+
+    /**
+     * rebuild the parse cache, the cached results will be dropped
+     * @param maxSize max cached sql count
+     * @param maxWeight max total length of cached sql, less than or equals 0 means no limit
+     */
+    public void resizeCache(int maxSize, long maxWeight) {
+        this.sqlParserCache = new ConcurrentCache<>(maxSize, maxWeight, maxWeight > 0 ? ParseResult::getWeight : null);
+    }
 
-        return new ParseResult(originalSql);
+    public ConcurrentCache<?, ParseResult> getSqlParserCache() {
+        return sqlParserCache;
     }
 
-    private String buildCountSelect(String statementId) {
+    private EntityMetaData getEntityMetaData(String statementId) {
         MethodDefinition methodDefinition = StatementRegistry.getInstance().getMethodDefinition(statementId);
+        return EntityMetaDataRegistry.getInstance().get(methodDefinition.getMapperDefinition().getGenericType().getDomainType());
+    }
 
-        EntityMetaData entityMetaData = EntityMetaDataRegistry.getInstance().get(methodDefinition.getMapperDefinition().getGenericType().getDomainType());
+    private String buildCountSelect(String statementId) {
+        EntityMetaData entityMetaData = getEntityMetaData(statementId);
 
         String mainTableAliasAndDot = entityMetaData.getTableAlias() + "_0.";
 
@@ -142,4 +385,32 @@ public class SqlParser {
 //        return true;
 //    }
 
+    private static final class ParseKey {
+
+        private final String statementId;
+
+        private final String sql;
+
+        private final int hash;
+
+        private ParseKey(String statementId, String sql) {
+            this.statementId = statementId;
+            this.sql = sql;
+            this.hash = 31 * Objects.hashCode(statementId) + sql.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ParseKey)) return false;
+            ParseKey parseKey = (ParseKey) o;
+            return hash == parseKey.hash && Objects.equals(statementId, parseKey.statementId) && sql.equals(parseKey.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
 }
@@ -0,0 +1,148 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.parameter;
+
+import com.alilitech.mybatis.MybatisJpaProperties;
+import com.alilitech.mybatis.dialect.SqlDialectFactoryRegistry;
+import com.alilitech.mybatis.jpa.EntityMetaDataRegistry;
+import com.alilitech.mybatis.jpa.StatementRegistry;
+import com.alilitech.mybatis.jpa.definition.MethodDefinition;
+import com.alilitech.mybatis.jpa.meta.EntityMetaData;
+import com.alilitech.mybatis.jpa.statement.MethodType;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.ParamNameResolver;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Split findAllById and deleteBatch into several statements when the ids exceed the bind limit of database,
+ * the results are merged, see {@link InListStrategy}
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+@Intercepts({
+        @Signature(
+                type = Executor.class,
+                method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(
+                type = Executor.class,
+                method = "update",
+                args = {MappedStatement.class, Object.class})
+})
+public class InListInterceptor implements Interceptor {
+
+    private static final String COLLECTION_KEY = "collection";
+
+    public InListInterceptor() {
+    }
+
+    public InListInterceptor(MybatisJpaProperties mybatisJpaProperties) {
+        InListStrategy.getInstance().configure(mybatisJpaProperties.getInList());
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        InListStrategy inListStrategy = InListStrategy.getInstance();
+        if(!inListStrategy.isChunk()) {
+            return invocation.proceed();
+        }
+
+        Object[] args = invocation.getArgs();
+        MappedStatement ms = (MappedStatement) args[0];
+        EntityMetaData entityMetaData = getEntityMetaData(ms);
+        if(entityMetaData == null || !(args[1] instanceof Map) || !(((Map<?, ?>) args[1]).get(COLLECTION_KEY) instanceof Collection)) {
+            return invocation.proceed();
+        }
+
+        // 数组绑定只有一个参数，不需要拆分
+        String databaseId = ms.getConfiguration().getDatabaseId();
+        if(!entityMetaData.isCompositePrimaryKey() && inListStrategy.isArrayBinding(SqlDialectFactoryRegistry.getInstance().get(databaseId).getDatabaseType())) {
+            return invocation.proceed();
+        }
+
+        Collection<?> ids = (Collection<?>) ((Map<?, ?>) args[1]).get(COLLECTION_KEY);
+        int chunkSize = inListStrategy.getBindLimit(databaseId) / entityMetaData.getPrimaryColumnMetaDatas().size();
+        if(chunkSize <= 0 || ids.size() <= chunkSize) {
+            return invocation.proceed();
+        }
+
+        Executor executor = (Executor) invocation.getTarget();
+        List<List<Object>> chunks = split(ids, chunkSize);
+        if(ms.getSqlCommandType() == SqlCommandType.DELETE) {
+            int rows = 0;
+            for (List<Object> chunk : chunks) {
+                rows += executor.update(ms, ParamNameResolver.wrapToMapIfCollection(chunk, null));
+            }
+            return rows;
+        }
+
+        List<Object> results = new ArrayList<>(ids.size());
+        for (List<Object> chunk : chunks) {
+            List<Object> chunkResults = executor.query(ms, ParamNameResolver.wrapToMapIfCollection(chunk, null), (RowBounds) args[2], (ResultHandler<?>) args[3]);
+            if(chunkResults != null) {
+                results.addAll(chunkResults);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * @return entity meta data when the statement is findAllById or deleteBatch, otherwise null
+     */
+    private EntityMetaData getEntityMetaData(MappedStatement ms) {
+        MethodDefinition methodDefinition = StatementRegistry.getInstance().getMethodDefinition(ms.getId());
+        if(methodDefinition == null || methodDefinition.getMapperDefinition() == null) {
+            return null;
+        }
+        String methodName = methodDefinition.getMethodName();
+        if(!MethodType.FIND_ALL_BY_ID.getType().equals(methodName) && !MethodType.DELETE_BATCH.getType().equals(methodName)) {
+            return null;
+        }
+        return EntityMetaDataRegistry.getInstance().get(methodDefinition.getMapperDefinition().getGenericType().getDomainType());
+    }
+
+    /**
+     * split the ids into chunks in order, only the last chunk may be smaller than the chunk size
+     */
+    static List<List<Object>> split(Collection<?> ids, int chunkSize) {
+        List<List<Object>> chunks = new ArrayList<>();
+        List<Object> chunk = new ArrayList<>(chunkSize);
+        for (Object id : ids) {
+            chunk.add(id);
+            if(chunk.size() == chunkSize) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if(!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.parameter;
+
+import com.alilitech.mybatis.MybatisJpaProperties;
+import com.alilitech.mybatis.jpa.DatabaseType;
+
+import java.lang.reflect.Array;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * IN list strategy, see {@link MybatisJpaProperties.InList}.
+ * <p>
+ * Every distinct list size produces distinct sql, which defeats the statement cache and the plan cache of database.
+ * Padding the list to the power-of-two size by repeating the last value does not change the result of IN or NOT IN,
+ * and limits the sql texts to a few buckets.
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+public class InListStrategy {
+
+    /**
+     * the ognl expression to pad the collection of foreach, the first argument is the collection expression
+     */
+    public static final String PAD_EXPRESSION = "@" + InListStrategy.class.getName() + "@pad(%s, _databaseId, %d)";
+
+    /**
+     * the ognl expression to convert the collection to array for array binding
+     */
+    public static final String ARRAY_EXPRESSION = "@" + InListStrategy.class.getName() + "@toArray(%s)";
+
+    private static final InListStrategy INSTANCE = new InListStrategy();
+
+    private volatile boolean padding;
+
+    private volatile boolean arrayBinding;
+
+    private volatile boolean chunk;
+
+    /**
+     * key: databaseId
+     */
+    private final Map<String, Integer> bindLimits = new ConcurrentHashMap<>();
+
+    private InListStrategy() {
+        // IN列表元素上限
+        bindLimits.put(DatabaseType.ORACLE.getDatabaseId(), 1000);
+        // 参数个数上限2100，留一些给其他条件
+        bindLimits.put(DatabaseType.SQL_SERVER.getDatabaseId(), 2000);
+        bindLimits.put(DatabaseType.MS_SQL_SERVER.getDatabaseId(), 2000);
+        bindLimits.put(DatabaseType.POSTGRE.getDatabaseId(), 32767);
+        bindLimits.put(DatabaseType.SQLITE.getDatabaseId(), 999);
+    }
+
+    public static InListStrategy getInstance() {
+        return INSTANCE;
+    }
+
+    public void configure(MybatisJpaProperties.InList inList) {
+        this.padding = inList.isPadding();
+        this.arrayBinding = inList.isArrayBinding();
+        this.chunk = inList.isChunk();
+        if(inList.getBindLimits() != null) {
+            bindLimits.putAll(inList.getBindLimits());
+        }
+    }
+
+    public boolean isPadding() {
+        return padding;
+    }
+
+    public boolean isChunk() {
+        return chunk;
+    }
+
+    /**
+     * only PostgreSQL supports binding the list as an array with "= ANY(?)" without creating types in database
+     */
+    public boolean isArrayBinding(DatabaseType databaseType) {
+        return arrayBinding && databaseType == DatabaseType.POSTGRE;
+    }
+
+    /**
+     * @return max bind parameters of an IN list in one statement, less than or equals 0 means no limit
+     */
+    public int getBindLimit(String databaseId) {
+        if(databaseId == null) {
+            return 0;
+        }
+        Integer bindLimit = bindLimits.get(databaseId);
+        return bindLimit == null ? 0 : bindLimit;
+    }
+
+    /**
+     * the power-of-two bucket size of the list, it does not exceed the max size if the list does not
+     */
+    public static int bucketSize(int size, int maxSize) {
+        if(size <= 1) {
+            return size;
+        }
+        int bucketSize = size > (1 << 30) ? size : Integer.highestOneBit(size - 1) << 1;
+        if(maxSize > 0 && bucketSize > maxSize) {
+            return Math.max(size, maxSize);
+        }
+        return bucketSize;
+    }
+
+    /**
+     * pad the collection or array to the bucket size when padding is enabled, used by ognl of foreach
+     * @param values collection or array
+     * @param databaseId databaseId of configuration
+     * @param paramsPerValue bind parameters of each value, it is greater than 1 in composite primary keys
+     * @return padded list, or the original values
+     */
+    public static Object pad(Object values, String databaseId, int paramsPerValue) {
+        if(!INSTANCE.padding || values == null) {
+            return values;
+        }
+        int maxSize = INSTANCE.getBindLimit(databaseId) / Math.max(paramsPerValue, 1);
+        if(values instanceof Collection) {
+            Collection<?> collection = (Collection<?>) values;
+            int size = collection.size();
+            int bucketSize = bucketSize(size, maxSize);
+            if(bucketSize == size) {
+                return values;
+            }
+            List<Object> padded = new ArrayList<>(bucketSize);
+            padded.addAll(collection);
+            return fill(padded, bucketSize);
+        }
+        if(values.getClass().isArray()) {
+            int size = Array.getLength(values);
+            int bucketSize = bucketSize(size, maxSize);
+            if(bucketSize == size) {
+                return values;
+            }
+            List<Object> padded = new ArrayList<>(bucketSize);
+            for (int i = 0; i < size; i++) {
+                padded.add(Array.get(values, i));
+            }
+            return fill(padded, bucketSize);
+        }
+        return values;
+    }
+
+    private static List<Object> fill(List<Object> padded, int bucketSize) {
+        Object last = padded.get(padded.size() - 1);
+        while (padded.size() < bucketSize) {
+            padded.add(last);
+        }
+        return padded;
+    }
+
+    /**
+     * convert the collection or array to a typed array, so that ArrayTypeHandler can resolve the type name of database
+     */
+    public static Object[] toArray(Object values) {
+        List<Object> list = new ArrayList<>();
+        if(values instanceof Collection) {
+            list.addAll((Collection<?>) values);
+        } else if(values != null && values.getClass().isArray()) {
+            for (int i = 0; i < Array.getLength(values); i++) {
+                list.add(Array.get(values, i));
+            }
+        } else if(values != null) {
+            list.add(values);
+        }
+        Class<?> componentType = list.stream().filter(Objects::nonNull).findFirst().<Class<?>>map(Object::getClass).orElse(Object.class);
+        return list.toArray((Object[]) Array.newInstance(componentType, list.size()));
+    }
+}
@@ -16,6 +16,7 @@
 package com.alilitech.mybatis.jpa.parameter;
 
 import com.alilitech.mybatis.jpa.LikeContainer;
+import com.alilitech.mybatis.jpa.statement.parser.LikePlan;
 import com.alilitech.mybatis.jpa.statement.parser.LikeType;
 import org.apache.ibatis.binding.MapperMethod;
 import org.apache.ibatis.mapping.BoundSql;
@@ -35,60 +36,94 @@ public class MybatisJpaParameterHandler extends DefaultParameterHandler {
         super(mappedStatement, process(mappedStatement, parameterObject, boundSql), boundSql);
     }
 
-    @SuppressWarnings("java:S3740")
+    @SuppressWarnings({"java:S3740", "deprecation"})
     private static Object process(MappedStatement mappedStatement, Object parameterObject, BoundSql boundSql) {
         //对like参数进行转换，防止sql注入，前提必须是有参数
-        if(parameterObject != null && mappedStatement.getSqlCommandType().equals(SqlCommandType.SELECT)) {
-            String methodId = mappedStatement.getId();
-            LikeContainer likeContainer = LikeContainer.getInstance();
+        if(parameterObject == null || mappedStatement.getSqlCommandType() != SqlCommandType.SELECT) {
+            return parameterObject;
+        }
+
+        // 没有like条件的语句直接返回
+        LikeContainer likeContainer = LikeContainer.getInstance();
+        LikePlan likePlan = likeContainer.getLikePlan(mappedStatement.getId());
+        if(likePlan == null) {
+            return likeContainer.hasLikeTypes() ? processByLikeKeys(mappedStatement.getId(), parameterObject, boundSql) : parameterObject;
+        }
 
-            //多参数
-            if(parameterObject instanceof MapperMethod.ParamMap) {
-                MapperMethod.ParamMap paramMap = (MapperMethod.ParamMap<?>) parameterObject;
-                paramMap.forEach((key, value) -> {
-                    String likeKey = methodId + "." + key;
-                    if(likeContainer.isExist(likeKey)
-                            && needTransfer(value)) {
-                        Object setVal = transferValue(likeContainer.get(likeKey), value);
-                        paramMap.put(key, setVal);
-                    }
-                });
-            } else { // 单参数
-                String likeKey = methodId + "._parameter";
-                if(likeContainer.isExist(likeKey)
-                        && needTransfer(parameterObject)) {
-                    parameterObject = transferValue(likeContainer.get(likeKey), parameterObject);
-                    // 单个参数，必须手动设置，否则无效。因为传参的是值，不是引用
-                    boundSql.setAdditionalParameter("_parameter", parameterObject);
+        //多参数
+        if(parameterObject instanceof MapperMethod.ParamMap) {
+            MapperMethod.ParamMap paramMap = (MapperMethod.ParamMap<?>) parameterObject;
+            for (int i = 0; i < likePlan.size(); i++) {
+                LikeType likeType = likePlan.getLikeType(i);
+                if(likeType == null) {
+                    continue;
+                }
+                String key = likePlan.getArgumentName(i);
+                // ParamMap get不存在的key会抛异常
+                if(!paramMap.containsKey(key)) {
+                    continue;
                 }
+                Object value = paramMap.get(key);
+                Object setVal = transferValue(likeType, value);
+                if(setVal != value) {
+                    paramMap.put(key, setVal);
+                }
+            }
+        } else if(likePlan.getParameterLikeType() != null) { // 单参数
+            Object setVal = transferValue(likePlan.getParameterLikeType(), parameterObject);
+            if(setVal != parameterObject) {
+                parameterObject = setVal;
+                // 单个参数，必须手动设置，否则无效。因为传参的是值，不是引用
+                boundSql.setAdditionalParameter("_parameter", parameterObject);
             }
         }
         return parameterObject;
     }
 
-    // 是否需要转换
-    private static boolean needTransfer(Object value) {
-        return value != null &&   // value为null的情况不处理
-                !(value.toString().startsWith("%") || value.toString().endsWith("%"));  // value已经前后有了%说明参数已经处理过了
+    /**
+     * 兼容按参数key注册的like类型，见{@link LikeContainer#put(String, LikeType)}
+     */
+    @SuppressWarnings({"java:S3740", "deprecation"})
+    private static Object processByLikeKeys(String methodId, Object parameterObject, BoundSql boundSql) {
+        LikeContainer likeContainer = LikeContainer.getInstance();
+        //多参数
+        if(parameterObject instanceof MapperMethod.ParamMap) {
+            MapperMethod.ParamMap paramMap = (MapperMethod.ParamMap<?>) parameterObject;
+            paramMap.replaceAll((key, value) -> {
+                LikeType likeType = likeContainer.get(methodId + "." + key);
+                return likeType == null ? value : transferValue(likeType, value);
+            });
+        } else { // 单参数
+            LikeType likeType = likeContainer.get(methodId + "._parameter");
+            Object setVal = likeType == null ? parameterObject : transferValue(likeType, parameterObject);
+            if(setVal != parameterObject) {
+                parameterObject = setVal;
+                // 单个参数，必须手动设置，否则无效。因为传参的是值，不是引用
+                boundSql.setAdditionalParameter("_parameter", parameterObject);
+            }
+        }
+        return parameterObject;
     }
 
-    // 转成成占位的值
+    // 转成成占位的值，value为null或者前后已经有了%(说明参数已经处理过了)时原样返回
     private static Object transferValue(LikeType likeType, Object value) {
+        if(value == null) {
+            return null;
+        }
+        String str = value.toString();
+        if(str.startsWith("%") || str.endsWith("%")) {
+            return value;
+        }
         switch (likeType) {
-            case BEFORE: {
-                value = "%" + value;
-                break;
-            }
-            case AFTER: {
-                value = value + "%";
-                break;
-            }
-            case CONTAIN: {
-                value = "%" + value + "%";
-                break;
-            }
+            case BEFORE:
+                return "%" + str;
+            case AFTER:
+                return str + "%";
+            case CONTAIN:
+                return "%" + str + "%";
+            default:
+                return value;
         }
-        return value;
     }
 
 }
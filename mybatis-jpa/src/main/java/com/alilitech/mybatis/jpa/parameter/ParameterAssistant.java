@@ -15,25 +15,26 @@
  */
 package com.alilitech.mybatis.jpa.parameter;
 
+import com.alilitech.mybatis.jpa.EntityMetaDataRegistry;
 import com.alilitech.mybatis.jpa.anotation.Trigger;
 import com.alilitech.mybatis.jpa.meta.ColumnMetaData;
 import com.alilitech.mybatis.jpa.meta.EntityMetaData;
+import com.alilitech.mybatis.jpa.meta.TriggerPlan;
 import com.alilitech.mybatis.jpa.primary.key.GeneratorRegistry;
 import com.alilitech.mybatis.jpa.primary.key.KeyGenerator;
 import com.alilitech.mybatis.jpa.primary.key.KeyGenerator4Auto;
+import com.alilitech.mybatis.jpa.primary.key.KeyGenerator4Snowflake;
 import com.alilitech.mybatis.jpa.primary.key.SnowflakeKeyGeneratorBuilder;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.SqlCommandType;
-import org.apache.ibatis.reflection.MetaObject;
-import org.springframework.util.CollectionUtils;
 
-import java.lang.reflect.InvocationTargetException;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 
 /**
@@ -62,77 +63,130 @@ public class ParameterAssistant {
         return parameters;
     }
 
+    /**
+     * populate the keys and trigger values of the entities in batch,
+     * the snowflake keys are generated in range instead of one by one
+     * @since 2.2.5
+     */
+    public void populateKeysAndTriggerValues(MappedStatement mappedStatement, Collection<Object> parameters) {
+        EntityMetaData batchEntityMetaData = null;
+        long[] keys = null;
+        if (mappedStatement.getSqlCommandType() == SqlCommandType.INSERT && !parameters.isEmpty()) {
+            batchEntityMetaData = EntityMetaDataRegistry.getInstance().get(parameters.iterator().next().getClass());
+            if (batchEntityMetaData != null && !batchEntityMetaData.isCompositePrimaryKey()) {
+                KeyGenerator keyGenerator = resolveKeyGenerator(batchEntityMetaData);
+                if (keyGenerator instanceof KeyGenerator4Snowflake) {
+                    // 批量生成失败时逐个生成
+                    try {
+                        keys = ((KeyGenerator4Snowflake) keyGenerator).generateBatch(parameters.size());
+                    } catch (Exception e) {
+                        log.error("Primary key generate failed, check your id generator '" + keyGenerator.getClass() + "'", e);
+                    }
+                }
+            }
+        }
+
+        int index = 0;
+        for (Object parameter : parameters) {
+            EntityMetaData entityMetaData = EntityMetaDataRegistry.getInstance().get(parameter.getClass());
+            Object key = keys != null && entityMetaData == batchEntityMetaData ? keys[index] : null;
+            populateKeyAndTriggerValue(mappedStatement, parameter, entityMetaData, key);
+            index++;
+        }
+    }
+
     public Object populateKeyAndTriggerValue(MappedStatement mappedStatement,
                                              Object parameterObject,
                                              EntityMetaData entityMetaData) {
-        // MetaObject to operate the parameter object
-        MetaObject metaObject = mappedStatement.getConfiguration().newMetaObject(parameterObject);
+        return populateKeyAndTriggerValue(mappedStatement, parameterObject, entityMetaData, null);
+    }
 
+    private Object populateKeyAndTriggerValue(MappedStatement mappedStatement,
+                                              Object parameterObject,
+                                              EntityMetaData entityMetaData,
+                                              Object generatedKey) {
+        // 属性通过ColumnMetaData生成的访问函数读写，不再每次创建MetaObject
         if (mappedStatement.getSqlCommandType() == SqlCommandType.INSERT && !entityMetaData.isCompositePrimaryKey()) {
 
-            /**
-             * set the primary key
-             * first: according to {@link GenerationType} to get {@link KeyGenerator}
-             */
-            GenerationType idGenerationType = entityMetaData.getPrimaryColumnMetaData().getIdGenerationType();
-
-            //get id generator class
-            Class<? extends KeyGenerator> generatorClass = entityMetaData.getPrimaryColumnMetaData().getIdGeneratorClass();
-
-            KeyGenerator keyGenerator = null;
-
-            // UUID global
-            if(idGenerationType == GenerationType.UUID || idGenerationType == GenerationType.COMB_UUID) {
-                keyGenerator = GeneratorRegistry.getInstance().get(idGenerationType);
-            }
-            // SNOWFLAKE for every entity
-            else if (idGenerationType == GenerationType.SNOWFLAKE) {
-                keyGenerator = GeneratorRegistry.getInstance().get(entityMetaData.getEntityType());
-                if(keyGenerator == null) {
-                    keyGenerator = SnowflakeKeyGeneratorBuilder.getInstance().build(entityMetaData.getEntityType());
-                }
-            }
-            // 自定义
-            else if(generatorClass != KeyGenerator4Auto.class){
-                keyGenerator = GeneratorRegistry.getInstance().getOrRegister(entityMetaData.getEntityType(), generatorClass);
-            }
-
-            if(keyGenerator != null) {
+            // the key generated in batch
+            if(generatedKey != null) {
                 try {
-                    Object idValue = keyGenerator.generate(parameterObject);
-                    metaObject.setValue(entityMetaData.getPrimaryColumnMetaData().getProperty(), idValue);
+                    entityMetaData.getPrimaryColumnMetaData().setValue(parameterObject, generatedKey);
                 } catch (Exception e) {
-                    log.error("Primary key generate failed, check your id generator '" + keyGenerator.getClass() + "'", e);
+                    log.error("Primary key generate failed, check your id generator '" + resolveKeyGenerator(entityMetaData).getClass() + "'", e);
                 }
             } else {
-                log.warn("The entity '" + entityMetaData.getEntityType() + "' do not have the key generator!");
+                KeyGenerator keyGenerator = resolveKeyGenerator(entityMetaData);
+
+                if(keyGenerator != null) {
+                    try {
+                        Object idValue = keyGenerator.generate(parameterObject);
+                        entityMetaData.getPrimaryColumnMetaData().setValue(parameterObject, idValue);
+                    } catch (Exception e) {
+                        log.error("Primary key generate failed, check your id generator '" + keyGenerator.getClass() + "'", e);
+                    }
+                } else {
+                    log.warn("The entity '" + entityMetaData.getEntityType() + "' do not have the key generator!");
+                }
             }
         }
 
         //set the trigger value
-        for(ColumnMetaData columnMetaData : entityMetaData.getColumnMetaDataMap().values()) {
-            if(CollectionUtils.isEmpty(columnMetaData.getTriggers())) {
-                continue;
-            }
-            for(Trigger trigger : columnMetaData.getTriggers()) {
-                if(trigger.triggerType() == mappedStatement.getSqlCommandType()
-                        && trigger.valueType() == TriggerValueType.JAVA_CODE)
-                    if (metaObject.getValue(columnMetaData.getProperty()) == null || trigger.force()) {
-                        Object obj = getTriggerValue(columnMetaData, trigger);
-                        metaObject.setValue(columnMetaData.getProperty(), obj);
-                    }
+        List<TriggerPlan.Step> steps = entityMetaData.getTriggerPlan(mappedStatement.getSqlCommandType()).getJavaCodeSteps();
+        for (int i = 0; i < steps.size(); i++) {
+            TriggerPlan.Step step = steps.get(i);
+            ColumnMetaData columnMetaData = step.getColumnMetaData();
+            if (step.isForce() || columnMetaData.getValue(parameterObject) == null) {
+                columnMetaData.setValue(parameterObject, getTriggerValue(columnMetaData, step.getTrigger(), step.getValueSupplier()));
             }
         }
 
-        return metaObject.getOriginalObject();
+        return parameterObject;
     }
 
 
+    /**
+     * set the primary key
+     * first: according to {@link GenerationType} to get {@link KeyGenerator}
+     */
+    private KeyGenerator resolveKeyGenerator(EntityMetaData entityMetaData) {
+        GenerationType idGenerationType = entityMetaData.getPrimaryColumnMetaData().getIdGenerationType();
+
+        //get id generator class
+        Class<? extends KeyGenerator> generatorClass = entityMetaData.getPrimaryColumnMetaData().getIdGeneratorClass();
+
+        KeyGenerator keyGenerator = null;
+
+        // UUID global
+        if(idGenerationType == GenerationType.UUID || idGenerationType == GenerationType.COMB_UUID) {
+            keyGenerator = GeneratorRegistry.getInstance().get(idGenerationType);
+        }
+        // SNOWFLAKE for every entity
+        else if (idGenerationType == GenerationType.SNOWFLAKE) {
+            keyGenerator = GeneratorRegistry.getInstance().get(entityMetaData.getEntityType());
+            if(keyGenerator == null) {
+                keyGenerator = SnowflakeKeyGeneratorBuilder.getInstance().build(entityMetaData.getEntityType());
+            }
+        }
+        // 自定义
+        else if(generatorClass != KeyGenerator4Auto.class){
+            keyGenerator = GeneratorRegistry.getInstance().getOrRegister(entityMetaData.getEntityType(), generatorClass);
+        }
+        return keyGenerator;
+    }
+
     public static Object getTriggerValue(ColumnMetaData columnMetaData, Trigger trigger) {
+        return getTriggerValue(columnMetaData, trigger, columnMetaData.getTriggerValueSupplier(trigger));
+    }
+
+    private static Object getTriggerValue(ColumnMetaData columnMetaData, Trigger trigger, Supplier<Object> valueSupplier) {
         Object obj = null;
         try {
-            obj = trigger.valueClass().getMethod(trigger.methodName()).invoke(trigger.valueClass().newInstance());
-        } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException | InstantiationException e) {
+            obj = valueSupplier.get();
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            // 生成的Supplier会原样抛出触发方法的受检异常
             log.error(columnMetaData.getProperty() + " trigger failed, check your trigger method: " + trigger.valueClass().getName() + "." + trigger.methodName(), e);
         }
         return obj;
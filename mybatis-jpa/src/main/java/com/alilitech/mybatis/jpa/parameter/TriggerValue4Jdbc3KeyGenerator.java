@@ -49,10 +49,7 @@ public class TriggerValue4Jdbc3KeyGenerator extends Jdbc3KeyGenerator {
         Collection<Object> parameters = parameterAssistant.getParameters(parameterObject);
         //trigger auto set value and id auto set
         if (parameters != null) {
-            for (Object parameter : parameters) {
-                EntityMetaData entityMetaData = EntityMetaDataRegistry.getInstance().get(parameter.getClass());
-                parameterAssistant.populateKeyAndTriggerValue(mappedStatement, parameter, entityMetaData);
-            }
+            parameterAssistant.populateKeysAndTriggerValues(mappedStatement, parameters);
         } else {
             // Specification's trigger in MybatisJpaDynamicSqlSource
             if(parameterObject instanceof Specification) {
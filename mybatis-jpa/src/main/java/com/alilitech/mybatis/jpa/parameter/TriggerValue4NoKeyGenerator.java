@@ -51,10 +51,7 @@ public class TriggerValue4NoKeyGenerator extends NoKeyGenerator {
         Collection<Object> parameters = parameterAssistant.getParameters(parameterObject);
         //trigger auto set value
         if (parameters != null) {
-            for (Object parameter : parameters) {
-                EntityMetaData entityMetaData = EntityMetaDataRegistry.getInstance().get(parameter.getClass());
-                parameterAssistant.populateKeyAndTriggerValue(mappedStatement, parameter, entityMetaData);
-            }
+            parameterAssistant.populateKeysAndTriggerValues(mappedStatement, parameters);
         } else {
             EntityMetaData entityMetaData = EntityMetaDataRegistry.getInstance().get(parameterObject.getClass());
             parameterAssistant.populateKeyAndTriggerValue(mappedStatement, parameterObject, entityMetaData);
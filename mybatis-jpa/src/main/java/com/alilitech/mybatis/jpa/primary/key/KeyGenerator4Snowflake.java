@@ -41,4 +41,12 @@ public class KeyGenerator4Snowflake implements KeyGenerator {
         return snowflakeGenerator.generate(snowflakeContext);
     }
 
+    /**
+     * generate ids in batch, the sequences are reserved in range
+     * @since 2.2.5
+     */
+    public long[] generateBatch(int count) {
+        return snowflakeGenerator.generateBatch(snowflakeContext, count);
+    }
+
 }
@@ -1,5 +1,6 @@
 package com.alilitech.mybatis.jpa.primary.key.snowflake;
 
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @author Wang Chengyang
@@ -10,11 +11,8 @@ public class SnowflakeContext {
 
     // 下面两个每个5位, 加起来就是10位的工作机器id
     private long groupId;   // 组id
-    private long workerId;    // 工作id
-    private long extraWorkerId; // 备用工作id
-
-    // 12位的序列号
-    private long sequence = 0L;
+    private volatile long workerId;    // 工作id
+    private volatile long extraWorkerId; // 备用工作id
 
     public SnowflakeContext(long groupId, long workerId) {
         // check for workerId
@@ -40,7 +38,7 @@ public class SnowflakeContext {
     }
 
     // 时间偏移量
-    private long offset = 1288834974657L;
+    private volatile long offset = 1288834974657L;
 
     // 长度为5位
     private long groupIdBits = 5L;
@@ -62,8 +60,8 @@ public class SnowflakeContext {
     // 时间戳需要左移位数 12+5+5=22位
     private long timestampLeftShift = sequenceBits + workerIdBits + groupIdBits;
 
-    // 上次时间戳, 初始值为负数
-    private long lastTimestamp = -1L;
+    // 上次时间戳(减去偏移量)和12位的序列号, 打包为 timestamp << sequenceBits | sequence, 用于CAS, 初始时间戳为负数
+    private final AtomicLong state = new AtomicLong(-1L << sequenceBits);
 
     // 发生时间回拨时容忍的最大回拨时间 (毫秒)
     private long maxBackTime = 1L*1000;
@@ -89,11 +87,12 @@ public class SnowflakeContext {
     }
 
     public long getSequence() {
-        return sequence;
+        return state.get() & sequenceMask;
     }
 
     public void setSequence(long sequence) {
-        this.sequence = sequence;
+        long current = state.get();
+        state.set((current & ~sequenceMask) | (sequence & sequenceMask));
     }
 
     public void setOffset(long offset) {
@@ -121,11 +120,32 @@ public class SnowflakeContext {
     }
 
     public long getLastTimestamp() {
-        return lastTimestamp;
+        long timestamp = state.get() >> sequenceBits;
+        return timestamp < 0 ? -1 : timestamp + offset;
     }
 
     public void setLastTimestamp(long lastTimestamp) {
-        this.lastTimestamp = lastTimestamp;
+        long timestamp = lastTimestamp < 0 ? -1 : lastTimestamp - offset;
+        state.set((timestamp << sequenceBits) | getSequence());
+    }
+
+    public long getSequenceBits() {
+        return sequenceBits;
+    }
+
+    /**
+     * the packed last timestamp (minus offset) and sequence
+     * @since 2.2.5
+     */
+    public long getState() {
+        return state.get();
+    }
+
+    /**
+     * @since 2.2.5
+     */
+    public boolean compareAndSetState(long expect, long update) {
+        return state.compareAndSet(expect, update);
     }
 
     public long getMaxBackTime() {
@@ -1,6 +1,7 @@
 package com.alilitech.mybatis.jpa.primary.key.snowflake.generator;
 
 
+import com.alilitech.mybatis.jpa.primary.key.snowflake.SnowFlakeKeyGenerateException;
 import com.alilitech.mybatis.jpa.primary.key.snowflake.SnowflakeContext;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
@@ -28,6 +29,92 @@ public abstract class AbstractSnowflakeGenerator implements SnowflakeGenerator {
         return currentTimestamp;
     }
 
+    /**
+     * lock free, reserve the sequence by CAS on the packed timestamp and sequence of context
+     */
+    @Override
+    public long generate(SnowflakeContext context) {
+        return reserve(context, 1);
+    }
+
+    /**
+     * reserve a contiguous sequence range for each millisecond, so the ids of a batch are generated by a few CAS
+     */
+    @Override
+    public long[] generateBatch(SnowflakeContext context, int count) {
+        long[] ids = new long[count];
+        // 新的一毫秒序列号从0或1开始, 所以每毫秒最多保留 sequenceMask 个
+        int maxRange = (int) context.getSequenceMask();
+        int index = 0;
+        while (index < count) {
+            int range = Math.min(count - index, maxRange);
+            long firstId = reserve(context, range);
+            for (int i = 0; i < range; i++) {
+                ids[index++] = firstId + i;
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * reserve the contiguous sequences in one millisecond
+     * @param context snowflake context
+     * @param count the count of sequences, not greater than sequence mask
+     * @return the first id
+     */
+    protected long reserve(SnowflakeContext context, int count) {
+        long sequenceBits = context.getSequenceBits();
+        long sequenceMask = context.getSequenceMask();
+        for (;;) {
+            // 先读workerId, CAS成功后确认没有被切换
+            long workerId = context.getWorkerId();
+            long timestamp = currentTimestamp() - context.getOffset();
+            long state = context.getState();
+            long lastTimestamp = state >> sequenceBits;
+
+            long first;
+            if (timestamp > lastTimestamp) {
+                // 新的一毫秒 0或1，不然奇偶不均匀
+                first = (timestamp << sequenceBits) | (timestamp & 1);
+            } else if (timestamp == lastTimestamp) {
+                // 同一毫秒内序列号用完, 等到下一毫秒
+                if ((state & sequenceMask) + count > sequenceMask) {
+                    tilNextMillis(lastTimestamp + context.getOffset());
+                    continue;
+                }
+                first = state + 1;
+            } else {
+                // 其他线程可能在读取时间后刚进入下一毫秒, 再读一次时间确认是否回拨
+                long backTimestamp = currentTimestamp() - context.getOffset();
+                if (backTimestamp < lastTimestamp) {
+                    clockBackwards(context, lastTimestamp, backTimestamp);
+                }
+                continue;
+            }
+
+            if (context.compareAndSetState(state, first + count - 1) && context.getWorkerId() == workerId) {
+                return ((first >> sequenceBits) << context.getTimestampLeftShift()) |
+                        (context.getGroupId() << context.getGroupIdShift()) |
+                        (workerId << context.getWorkerIdShift()) |
+                        (first & sequenceMask);
+            }
+        }
+    }
+
+    /**
+     * handle the clock moving backwards, then the generation is retried
+     * @param context snowflake context
+     * @param lastTimestamp last timestamp minus offset
+     * @param currentTimestamp current timestamp minus offset
+     */
+    protected void clockBackwards(SnowflakeContext context, long lastTimestamp, long currentTimestamp) {
+        throw new SnowFlakeKeyGenerateException(String.format("Clock moved backwards. Refusing to generate id for %d milliseconds", lastTimestamp - currentTimestamp));
+    }
+
+    /**
+     * @deprecated since 2.2.5, it is not thread safe, use {@link #reserve(SnowflakeContext, int)}
+     */
+    @Deprecated
     protected long calculate(SnowflakeContext context, long currentTimestamp) {
         // 获取当前时间戳如果等于上次时间戳（同一毫秒内），则在序列号加一；否则序列号赋值为0，从0开始。
         if (context.getLastTimestamp() == currentTimestamp) {
@@ -28,4 +28,16 @@ public interface SnowflakeGenerator {
 
     long generate(SnowflakeContext context);
 
+    /**
+     * generate ids in batch
+     * @since 2.2.5
+     */
+    default long[] generateBatch(SnowflakeContext context, int count) {
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = generate(context);
+        }
+        return ids;
+    }
+
 }
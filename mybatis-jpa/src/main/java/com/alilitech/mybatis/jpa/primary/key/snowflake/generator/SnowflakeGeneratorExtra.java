@@ -15,22 +15,19 @@ import com.alilitech.mybatis.jpa.primary.key.snowflake.TimeCallbackStrategy;
 public class SnowflakeGeneratorExtra extends AbstractSnowflakeGenerator {
 
     @Override
-    public synchronized long generate(SnowflakeContext context) {
-        // 下一个ID生成算法
-        long currentTimestamp = currentTimestamp();
-        long lastTimestamp = context.getLastTimestamp();
-        // 获取当前时间戳如果小于上次时间戳, 则表示时间出现回滚，启用备用工作id
-        if (currentTimestamp < lastTimestamp) {
+    protected void clockBackwards(SnowflakeContext context, long lastTimestamp, long currentTimestamp) {
+        synchronized (context) {
+            // 其他线程已经切换过
+            if (currentTimestamp() - context.getOffset() >= context.getState() >> context.getSequenceBits()) {
+                return;
+            }
+            // 时间出现回滚，启用备用工作id, 先切换workerId再重置lastTimestamp
             long workerIdTemp = context.getWorkerId();
             context.setWorkerId(context.getExtraWorkerId());
             context.setExtraWorkerId(workerIdTemp);
-
-            // 切换workerId后重置lastTimestamp
             context.setLastTimestamp(-1);
 
             log.warn("Clock is moving backwards. Back time is " + (lastTimestamp - currentTimestamp) + " ms. ");
         }
-
-        return calculate(context, currentTimestamp);
     }
 }
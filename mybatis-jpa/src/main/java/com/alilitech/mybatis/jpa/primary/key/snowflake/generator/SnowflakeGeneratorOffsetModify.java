@@ -38,17 +38,16 @@ public class SnowflakeGeneratorOffsetModify extends AbstractSnowflakeGenerator {
     private Class<?> entityClass;
 
     @Override
-    public synchronized long generate(SnowflakeContext context) {
-        // 下一个ID生成算法
-        long lastTimestamp = context.getLastTimestamp();
-        long currentTimestamp = currentTimestamp();
-        // 获取当前时间戳如果小于上次时间戳, 则表示时间出现回滚，减少偏移量，让时间提前
-        if (currentTimestamp < lastTimestamp) {
-            // 抛弃当前时间戳，offset+1
-            long offsetOffset = lastTimestamp - currentTimestamp + 1;
-            context.setOffset(context.getOffset() - offsetOffset);
-            // 重置lastTimestamp
-            context.setLastTimestamp(-1);
+    protected void clockBackwards(SnowflakeContext context, long lastTimestamp, long currentTimestamp) {
+        synchronized (context) {
+            // 其他线程已经修改过偏移量
+            long backTimestamp = currentTimestamp() - context.getOffset();
+            long stateTimestamp = context.getState() >> context.getSequenceBits();
+            if (backTimestamp >= stateTimestamp) {
+                return;
+            }
+            // 时间出现回滚，减少偏移量，让时间提前, 之后的时间戳从 lastTimestamp + 1 开始
+            context.setOffset(context.getOffset() - (stateTimestamp - backTimestamp + 1));
 
             if (offsetBlockingQueue != null) {
                 try {
@@ -58,10 +57,8 @@ public class SnowflakeGeneratorOffsetModify extends AbstractSnowflakeGenerator {
                     Thread.currentThread().interrupt();
                 }
             }
-            log.warn("Clock is moving backwards. Back time is " + (lastTimestamp - currentTimestamp) + " ms.");
+            log.warn("Clock is moving backwards. Back time is " + (stateTimestamp - backTimestamp) + " ms.");
         }
-
-        return calculate(context, currentTimestamp);
     }
 
 
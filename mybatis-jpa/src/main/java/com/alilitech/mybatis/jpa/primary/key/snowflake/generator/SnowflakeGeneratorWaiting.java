@@ -17,27 +17,23 @@ import java.util.concurrent.TimeUnit;
  */
 public class SnowflakeGeneratorWaiting extends AbstractSnowflakeGenerator {
 
+    /**
+     * wait without lock until the back time is over
+     */
     @Override
-    public synchronized long generate(SnowflakeContext context) {
-        // 下一个ID生成算法
-        long currentTimestamp = currentTimestamp();
-        long lastTimestamp = context.getLastTimestamp();
+    protected void clockBackwards(SnowflakeContext context, long lastTimestamp, long currentTimestamp) {
         // 获取当前时间戳如果小于上次时间戳，则表示时间戳获取出现异常
-        if(currentTimestamp < lastTimestamp) {
-            if ((lastTimestamp - currentTimestamp) < context.getMaxBackTime()) {
-                try {
-                    TimeUnit.MILLISECONDS.sleep(lastTimestamp - currentTimestamp);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    throw new SnowFlakeKeyGenerateException("Waiting time to over occur exception!");
-                }
-            } else {
-                throw new SnowFlakeKeyGenerateException(String.format("Clock moved backwards. Refusing to generate id for %d milliseconds", lastTimestamp - currentTimestamp));
-            }
+        if ((lastTimestamp - currentTimestamp) < context.getMaxBackTime()) {
             log.warn("Clock is moving backwards. Back time is " + (lastTimestamp - currentTimestamp) + " ms.");
+            try {
+                TimeUnit.MILLISECONDS.sleep(lastTimestamp - currentTimestamp);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SnowFlakeKeyGenerateException("Waiting time to over occur exception!");
+            }
+        } else {
+            throw new SnowFlakeKeyGenerateException(String.format("Clock moved backwards. Refusing to generate id for %d milliseconds", lastTimestamp - currentTimestamp));
         }
-
-        return calculate(context, currentTimestamp);
     }
 
 }
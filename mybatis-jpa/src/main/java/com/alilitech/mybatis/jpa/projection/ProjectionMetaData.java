@@ -0,0 +1,149 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.projection;
+
+import com.alilitech.mybatis.jpa.exception.MybatisJpaException;
+import com.alilitech.mybatis.jpa.util.AccessorUtils;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.property.PropertyNamer;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.util.*;
+
+/**
+ * 投影类型的元数据，与实体无关，投影的属性与实体的属性同名
+ * <ul>
+ *     <li>接口：abstract getter即投影属性，由{@link ProjectionObjectFactory}创建代理，default方法调用接口的实现</li>
+ *     <li>有无参构造的DTO：有setter的属性即投影属性</li>
+ *     <li>没有无参构造的DTO：用参数最多的构造方法，需要用-parameters编译保留参数名</li>
+ * </ul>
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+public class ProjectionMetaData {
+
+    private final Class<?> projectionType;
+
+    /**
+     * 投影属性，通过构造方法创建时即构造参数的顺序
+     */
+    private final List<String> properties = new ArrayList<>();
+
+    /**
+     * 是否通过构造方法创建，接口或没有无参构造的DTO
+     */
+    private final boolean constructorBased;
+
+    /**
+     * 接口getter方法名对应的构造参数下标
+     */
+    private final Map<String, Integer> getterIndexes = new HashMap<>();
+
+    /**
+     * DTO构造方法的参数类型
+     */
+    private Class<?>[] constructorParameterTypes;
+
+    /**
+     * 接口的default方法，由代理调用接口的实现
+     */
+    private final Map<Method, MethodHandle> defaultMethodHandles = new HashMap<>();
+
+    public ProjectionMetaData(Class<?> projectionType) {
+        this.projectionType = projectionType;
+        if(projectionType.isInterface()) {
+            // 按属性名排序，保证同一个接口在不同实体下的参数顺序一致
+            SortedMap<String, List<String>> getters = new TreeMap<>();
+            for (Method method : projectionType.getMethods()) {
+                if(method.isDefault()) {
+                    defaultMethodHandles.put(method, AccessorUtils.createDefaultMethodHandle(method));
+                    continue;
+                }
+                if(Modifier.isStatic(method.getModifiers()) || method.getParameterCount() > 0
+                        || !PropertyNamer.isGetter(method.getName())) {
+                    continue;
+                }
+                getters.computeIfAbsent(PropertyNamer.methodToProperty(method.getName()), k -> new ArrayList<>()).add(method.getName());
+            }
+            getters.forEach((property, methodNames) -> {
+                methodNames.forEach(methodName -> getterIndexes.put(methodName, properties.size()));
+                properties.add(property);
+            });
+            constructorBased = true;
+        } else if(hasDefaultConstructor(projectionType)) {
+            properties.addAll(Arrays.asList(new Reflector(projectionType).getSetablePropertyNames()));
+            constructorBased = false;
+        } else {
+            Constructor<?> constructor = Arrays.stream(projectionType.getConstructors())
+                    .filter(c -> Arrays.stream(c.getParameters()).allMatch(Parameter::isNamePresent))
+                    .max(Comparator.comparingInt(Constructor::getParameterCount))
+                    .orElseThrow(() -> new MybatisJpaException("Projection class '" + projectionType.getName()
+                            + "' needs a default constructor, or a public constructor with parameter names (compile with -parameters)"));
+            for (Parameter parameter : constructor.getParameters()) {
+                properties.add(parameter.getName());
+            }
+            constructorParameterTypes = constructor.getParameterTypes();
+            constructorBased = true;
+        }
+        if(properties.isEmpty()) {
+            throw new MybatisJpaException("Projection type '" + projectionType.getName() + "' does not have any property");
+        }
+    }
+
+    private static boolean hasDefaultConstructor(Class<?> type) {
+        try {
+            type.getDeclaredConstructor();
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    public Class<?> getProjectionType() {
+        return projectionType;
+    }
+
+    public List<String> getProperties() {
+        return properties;
+    }
+
+    public boolean isConstructorBased() {
+        return constructorBased;
+    }
+
+    /**
+     * DTO构造方法的参数类型，接口和setter创建的DTO返回null
+     */
+    public Class<?>[] getConstructorParameterTypes() {
+        return constructorParameterTypes;
+    }
+
+    public Integer getGetterIndex(String methodName) {
+        return getterIndexes.get(methodName);
+    }
+
+    /**
+     * 不是default方法时返回null
+     */
+    public MethodHandle getDefaultMethodHandle(Method method) {
+        return defaultMethodHandles.get(method);
+    }
+}
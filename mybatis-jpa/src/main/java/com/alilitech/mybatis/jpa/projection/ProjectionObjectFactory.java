@@ -0,0 +1,119 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.projection;
+
+import org.apache.ibatis.reflection.factory.ObjectFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * 包装原来的ObjectFactory，为接口投影创建代理，getter返回对应的构造参数，default方法调用接口的实现，其它类型交给原来的ObjectFactory
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+public class ProjectionObjectFactory implements ObjectFactory {
+
+    private final ObjectFactory delegate;
+
+    public ProjectionObjectFactory(ObjectFactory delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void setProperties(Properties properties) {
+        delegate.setProperties(properties);
+    }
+
+    @Override
+    public <T> T create(Class<T> type) {
+        return delegate.create(type);
+    }
+
+    @Override
+    public <T> T create(Class<T> type, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
+        ProjectionMetaData projectionMetaData = type.isInterface() ? ProjectionRegistry.getInstance().get(type) : null;
+        if(projectionMetaData == null) {
+            return delegate.create(type, constructorArgTypes, constructorArgs);
+        }
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                new ProjectionInvocationHandler(projectionMetaData, constructorArgs.toArray()));
+        return type.cast(proxy);
+    }
+
+    @Override
+    public <T> boolean isCollection(Class<T> type) {
+        return delegate.isCollection(type);
+    }
+
+    public ObjectFactory getDelegate() {
+        return delegate;
+    }
+
+    private static class ProjectionInvocationHandler implements InvocationHandler {
+
+        private final ProjectionMetaData projectionMetaData;
+
+        private final Object[] values;
+
+        ProjectionInvocationHandler(ProjectionMetaData projectionMetaData, Object[] values) {
+            this.projectionMetaData = projectionMetaData;
+            this.values = values;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Integer index = projectionMetaData.getGetterIndex(method.getName());
+            if(index != null && method.getParameterCount() == 0) {
+                Object value = values[index];
+                // 基本类型的getter遇到null时返回默认值，否则拆箱时空指针
+                if(value == null && method.getReturnType().isPrimitive()) {
+                    return Array.get(Array.newInstance(method.getReturnType(), 1), 0);
+                }
+                return value;
+            }
+            MethodHandle defaultMethodHandle = projectionMetaData.getDefaultMethodHandle(method);
+            if(defaultMethodHandle != null) {
+                return defaultMethodHandle.bindTo(proxy).invokeWithArguments(args == null ? new Object[0] : args);
+            }
+            switch (method.getName()) {
+                case "equals":
+                    return args[0] != null && Proxy.isProxyClass(args[0].getClass())
+                            && Proxy.getInvocationHandler(args[0]) instanceof ProjectionInvocationHandler
+                            && projectionMetaData == ((ProjectionInvocationHandler) Proxy.getInvocationHandler(args[0])).projectionMetaData
+                            && Arrays.equals(values, ((ProjectionInvocationHandler) Proxy.getInvocationHandler(args[0])).values);
+                case "hashCode":
+                    return Arrays.hashCode(values);
+                case "toString":
+                    StringBuilder builder = new StringBuilder(projectionMetaData.getProjectionType().getSimpleName()).append("{");
+                    List<String> properties = projectionMetaData.getProperties();
+                    for (int i = 0; i < properties.size(); i++) {
+                        builder.append(i == 0 ? "" : ", ").append(properties.get(i)).append("=").append(values[i]);
+                    }
+                    return builder.append("}").toString();
+                default:
+                    throw new UnsupportedOperationException("Method '" + method.getName() + "' is not supported by projection " + projectionMetaData.getProjectionType().getName());
+            }
+        }
+    }
+}
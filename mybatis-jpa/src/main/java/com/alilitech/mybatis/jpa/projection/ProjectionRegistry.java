@@ -0,0 +1,47 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.projection;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 投影类型的元数据注册
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+public class ProjectionRegistry {
+
+    private static final ProjectionRegistry projectionRegistry = new ProjectionRegistry();
+
+    private final Map<Class<?>, ProjectionMetaData> projectionMetaDataMap = new ConcurrentHashMap<>();
+
+    private ProjectionRegistry() {
+    }
+
+    public static ProjectionRegistry getInstance() {
+        return projectionRegistry;
+    }
+
+    public ProjectionMetaData register(Class<?> projectionType) {
+        return projectionMetaDataMap.computeIfAbsent(projectionType, ProjectionMetaData::new);
+    }
+
+    public ProjectionMetaData get(Class<?> projectionType) {
+        return projectionMetaDataMap.get(projectionType);
+    }
+}
@@ -37,7 +37,9 @@ public enum MethodType {
 
     FIND_ALL("findAll"),
     FIND_ALL_PAGE("findAllPage"),
+    STREAM_ALL("streamAll"),
     FIND_JOIN("findJoin"),
+    BATCH_FETCH("batchFetch"),
     FIND_SPECIFICATION("findSpecification"),
 
     UPDATE_SPECIFICATION("updateSpecification"),
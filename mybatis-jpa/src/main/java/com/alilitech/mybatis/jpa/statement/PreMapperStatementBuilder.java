@@ -16,17 +16,23 @@
 package com.alilitech.mybatis.jpa.statement;
 
 import com.alilitech.mybatis.dialect.SqlDialectFactory;
+import com.alilitech.mybatis.dialect.SqlDialectFactoryRegistry;
 import com.alilitech.mybatis.jpa.EntityMetaDataRegistry;
 import com.alilitech.mybatis.jpa.definition.GenericType;
 import com.alilitech.mybatis.jpa.definition.JoinStatementDefinition;
 import com.alilitech.mybatis.jpa.definition.MethodDefinition;
+import com.alilitech.mybatis.jpa.exception.MybatisJpaException;
 import com.alilitech.mybatis.jpa.meta.ColumnMetaData;
 import com.alilitech.mybatis.jpa.meta.EntityMetaData;
 import com.alilitech.mybatis.jpa.parameter.GenerationType;
+import com.alilitech.mybatis.jpa.parameter.InListStrategy;
 import com.alilitech.mybatis.jpa.parameter.TriggerValue4Jdbc3KeyGenerator;
 import com.alilitech.mybatis.jpa.parameter.TriggerValue4NoKeyGenerator;
 import com.alilitech.mybatis.jpa.parameter.TriggerValue4SelectKeyGenerator;
 import com.alilitech.mybatis.jpa.primary.key.KeyGenerator4Auto;
+import com.alilitech.mybatis.jpa.projection.ProjectionMetaData;
+import com.alilitech.mybatis.jpa.projection.ProjectionObjectFactory;
+import com.alilitech.mybatis.jpa.projection.ProjectionRegistry;
 import com.alilitech.mybatis.jpa.statement.parser.PartTree;
 import com.alilitech.mybatis.jpa.statement.parser.SimplePart;
 import com.alilitech.mybatis.jpa.util.ResultMapIdUtils;
@@ -40,6 +46,7 @@ import org.apache.ibatis.logging.LogFactory;
 import org.apache.ibatis.mapping.*;
 import org.apache.ibatis.scripting.LanguageDriver;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.ArrayTypeHandler;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -73,7 +80,7 @@ public abstract class PreMapperStatementBuilder extends BaseBuilder {
         super(configuration);
         this.methodType = methodType;
         this.builderAssistant = builderAssistant;
-        this.sqlDialectFactory = new SqlDialectFactory(configuration.getDatabaseId());
+        this.sqlDialectFactory = SqlDialectFactoryRegistry.getInstance().get(configuration.getDatabaseId());
     }
 
     public PreMapperStatement buildPreMapperStatement(MethodDefinition methodDefinition, GenericType genericType) {
@@ -103,6 +110,12 @@ public abstract class PreMapperStatementBuilder extends BaseBuilder {
 
         buildPreMapperStatementExtend(preMapperStatement, genericType);
 
+        // 游标查询，按方言设置fetchSize流式读取
+        if(StatementAssistant.isCursorMethod(methodDefinition)) {
+            preMapperStatement.setFetchSize(StreamStrategy.getInstance().getFetchSize(configuration.getDatabaseId()));
+            preMapperStatement.setResultSetType(ResultSetType.FORWARD_ONLY);
+        }
+
         boolean isSelect = preMapperStatement.getSqlCommandType() == SqlCommandType.SELECT;
         boolean flushCache = !isSelect;
         boolean useCache = isSelect;
@@ -158,6 +171,42 @@ public abstract class PreMapperStatementBuilder extends BaseBuilder {
         return entityMetaData.getPrimaryColumnMetaDatas().stream().map(columnMetaData -> alias + "." + columnMetaData.getColumnName() + " = " + "#{" + columnMetaData.getProperty() + "}").collect(Collectors.joining(" AND "));
     }
 
+    /**
+     * build the IN condition of primary keys from the collection parameter,
+     * the list is padded or bound as an array according to {@link InListStrategy}
+     * @param columnPrefix the prefix of columns, such as table alias with "."
+     * @since 2.2.5
+     */
+    protected String buildPrimaryInCondition(String columnPrefix) {
+        InListStrategy inListStrategy = InListStrategy.getInstance();
+        List<ColumnMetaData> primaryColumnMetaDatas = entityMetaData.getPrimaryColumnMetaDatas();
+        String collection = inListStrategy.isPadding() ? String.format(InListStrategy.PAD_EXPRESSION, "collection", primaryColumnMetaDatas.size()) : "collection";
+        if(entityMetaData.isCompositePrimaryKey()) {
+            String primaryKeys = primaryColumnMetaDatas.stream().map(columnMetaData -> columnPrefix + columnMetaData.getColumnName()).collect(Collectors.joining(", ", "(", ")"));
+            String primaryItems = primaryColumnMetaDatas.stream().map(ColumnMetaData::getProperty).map(s -> "#{id." + s + "}").collect(Collectors.joining(", "));
+            return String.join(" ",
+                    primaryKeys,
+                    "IN",
+                    "<foreach item=\"id\" index=\"index\" open=\"(\" separator=\",\" close=\")\" collection=\"" + collection + "\">",
+                    "(" + primaryItems + ")",
+                    "</foreach>");
+        }
+        String primaryKey = columnPrefix + entityMetaData.getPrimaryColumnMetaData().getColumnName();
+        // 整个列表绑定成一个数组参数
+        if(inListStrategy.isArrayBinding(sqlDialectFactory.getDatabaseType())) {
+            return String.join(" ",
+                    "<bind name=\"ids\" value=\"" + String.format(InListStrategy.ARRAY_EXPRESSION, "collection") + "\"/>",
+                    primaryKey,
+                    "= ANY(#{ids, typeHandler=" + ArrayTypeHandler.class.getName() + "})");
+        }
+        return String.join(" ",
+                primaryKey,
+                "IN",
+                "<foreach item=\"id\" index=\"index\" open=\"(\" separator=\",\" close=\")\" collection=\"" + collection + "\">",
+                "#{id}",
+                "</foreach>");
+    }
+
     /**
      * build simple predicate part
      * @param property
@@ -272,6 +321,9 @@ public abstract class PreMapperStatementBuilder extends BaseBuilder {
     protected void setFindResultIdOrType(PreMapperStatement preMapperStatement, GenericType genericType) {
         if(resultType != null) {
             preMapperStatement.setResultType(resultType);
+        } else if(methodDefinition.getProjectionType() != null) {
+            String resultMapId = buildProjectionResultMap();
+            preMapperStatement.setResultMap(resultMapId);
         } else if(methodDefinition.isBaseResultMap() && methodDefinition.isJoinMethod()) {
             String resultMapId = buildJoinResultMap();
             preMapperStatement.setResultMap(resultMapId);
@@ -317,6 +369,74 @@ public abstract class PreMapperStatementBuilder extends BaseBuilder {
         return resultMapId;
     }
 
+    /**
+     * 投影属性对应的实体列
+     * @since 2.2.5
+     */
+    protected List<ColumnMetaData> getProjectionColumnMetaDatas() {
+        ProjectionMetaData projectionMetaData = ProjectionRegistry.getInstance().register(methodDefinition.getProjectionType());
+        List<ColumnMetaData> columnMetaDatas = new ArrayList<>();
+        for (String property : projectionMetaData.getProperties()) {
+            ColumnMetaData columnMetaData = entityMetaData.getColumnMetaDataMap().get(property);
+            if(columnMetaData != null && !columnMetaData.isJoin()) {
+                columnMetaDatas.add(columnMetaData);
+            } else if(projectionMetaData.isConstructorBased()) {
+                // 构造方法的每个参数都需要有值
+                throw new MybatisJpaException("Property '" + property + "' of projection '" + projectionMetaData.getProjectionType().getName()
+                        + "' is not a column of entity '" + entityMetaData.getEntityType().getName() + "', method: " + methodDefinition.getStatementId());
+            }
+        }
+        return columnMetaDatas;
+    }
+
+    /**
+     * 生成投影的ResultMap，接口和没有无参构造的DTO按构造参数映射，不创建实体
+     */
+    private String buildProjectionResultMap() {
+        String resultMapId = builderAssistant.getCurrentNamespace() + "." + methodDefinition.getMethodName() + "ResultMap";
+        if(configuration.hasResultMap(resultMapId)) {
+            return resultMapId;
+        }
+
+        Class<?> projectionType = methodDefinition.getProjectionType();
+        ProjectionMetaData projectionMetaData = ProjectionRegistry.getInstance().register(projectionType);
+        // 接口投影由ProjectionObjectFactory创建代理
+        if(projectionType.isInterface() && !(configuration.getObjectFactory() instanceof ProjectionObjectFactory)) {
+            configuration.setObjectFactory(new ProjectionObjectFactory(configuration.getObjectFactory()));
+        }
+
+        List<ColumnMetaData> columnMetaDatas = getProjectionColumnMetaDatas();
+        Class<?>[] constructorParameterTypes = projectionMetaData.getConstructorParameterTypes();
+        List<ResultMapping> resultMappings = new ArrayList<>();
+        for (int i = 0; i < columnMetaDatas.size(); i++) {
+            ColumnMetaData columnMetaData = columnMetaDatas.get(i);
+            Class<?> javaType = constructorParameterTypes == null ? columnMetaData.getType() : constructorParameterTypes[i];
+            resultMappings.add(builderAssistant.buildResultMapping(
+                    projectionType,
+                    projectionMetaData.isConstructorBased() ? null : columnMetaData.getProperty(),
+                    columnMetaData.getColumnName(),
+                    javaType,
+                    columnMetaData.getJdbcType(),
+                    null,
+                    null,
+                    null,
+                    null,
+                    columnMetaData.getTypeHandler(),
+                    projectionMetaData.isConstructorBased() ? Collections.singletonList(ResultFlag.CONSTRUCTOR) : null
+            ));
+        }
+
+        builderAssistant.addResultMap(
+                resultMapId,
+                projectionType,
+                null,
+                null,
+                resultMappings,
+                false
+        );
+        return resultMapId;
+    }
+
     /**
      * 生成复合查询的ResultMap
      */
@@ -365,6 +485,27 @@ public abstract class PreMapperStatementBuilder extends BaseBuilder {
 //            }
         }
 
+        // 延迟加载的关联，用主表的关联列作为参数嵌套查询findWith或findJoinWith，由mybatis在第一次访问时加载
+        for (JoinStatementDefinition joinStatementDefinition : methodDefinition.getLazyStatementDefinitions()) {
+            ResultMapping resultMapping = builderAssistant.buildResultMapping(
+                    joinStatementDefinition.getResultType(),
+                    joinStatementDefinition.getProperty(),
+                    joinStatementDefinition.getKeyColumn(),
+                    joinStatementDefinition.getJavaType(),
+                    null,
+                    joinStatementDefinition.getNestedSelect(),
+                    null,
+                    null,
+                    null,
+                    null,
+                    null,
+                    null,
+                    null,
+                    true
+            );
+            mappings.add(resultMapping);
+        }
+
         ResultMap resultMap = builderAssistant.addResultMap(
                 resultMapId,
                 entityMetaData.getEntityType(),
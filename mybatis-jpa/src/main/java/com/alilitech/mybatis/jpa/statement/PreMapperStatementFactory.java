@@ -60,6 +60,7 @@ public class PreMapperStatementFactory {
                     preMapperStatementFactory.registerPreMapperStatementBuilder(MethodType.FIND_ALL, PreMapperStatementBuilder4FindAll.class);
                     preMapperStatementFactory.registerPreMapperStatementBuilder(MethodType.FIND_ALL_BY_ID, PreMapperStatementBuilder4findAllById.class);
                     preMapperStatementFactory.registerPreMapperStatementBuilder(MethodType.FIND_JOIN, PreMapperStatementBuilder4FindJoin.class);
+                    preMapperStatementFactory.registerPreMapperStatementBuilder(MethodType.BATCH_FETCH, PreMapperStatementBuilder4BatchFetch.class);
                     preMapperStatementFactory.registerPreMapperStatementBuilder(MethodType.INSERT, PreMapperStatementBuilder4Insert.class);
                     preMapperStatementFactory.registerPreMapperStatementBuilder(MethodType.INSERT_SELECTIVE, PreMapperStatementBuilder4InsertSelective.class);
                     preMapperStatementFactory.registerPreMapperStatementBuilder(MethodType.UPDATE, PreMapperStatementBuilder4Update.class);
@@ -18,11 +18,15 @@ package com.alilitech.mybatis.jpa.statement;
 import com.alilitech.mybatis.jpa.anotation.Trigger;
 import com.alilitech.mybatis.jpa.criteria.SpecificationType;
 import com.alilitech.mybatis.jpa.definition.MethodDefinition;
+import com.alilitech.mybatis.jpa.exception.MybatisJpaException;
 import com.alilitech.mybatis.jpa.meta.ColumnMetaData;
 import com.alilitech.mybatis.jpa.parameter.TriggerValueType;
+import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.mapping.SqlCommandType;
 import org.springframework.util.StringUtils;
 
+import java.util.stream.Stream;
+
 
 /**
  * Statement assistant
@@ -64,9 +68,10 @@ public class StatementAssistant {
 			return MethodType.UPDATE;
 		}
 
-		// findAllPage, findAllPageSort, findAll
+		// findAllPage, findAllPageSort, findAll, streamAll
 		if (methodName.startsWith(MethodType.FIND_ALL_PAGE.getType())
-				|| methodName.equals(MethodType.FIND_ALL.getType())) {
+				|| methodName.equals(MethodType.FIND_ALL.getType())
+				|| methodName.equals(MethodType.STREAM_ALL.getType())) {
 			return MethodType.FIND_ALL;
 		}
 
@@ -90,6 +95,11 @@ public class StatementAssistant {
 			return MethodType.FIND_JOIN;
 		}
 
+		// batchFetchWith, batchFetchJoinWith
+		if (methodName.startsWith(MethodType.BATCH_FETCH.getType())) {
+			return MethodType.BATCH_FETCH;
+		}
+
 		if (methodName.equals(MethodType.EXISTS_BY_ID.getType())) {
 			return MethodType.EXISTS_BY_ID;
 		}
@@ -106,6 +116,23 @@ public class StatementAssistant {
 		return MethodType.OTHER;
 	}
 
+	/**
+	 * whether the method returns {@link Cursor}, such as streamAll, streamSpecification and the derived query return Cursor
+	 * @since 2.2.5
+	 */
+	public static boolean isCursorMethod(MethodDefinition definition) {
+		Class<?> returnType = definition.getReturnType();
+		if (returnType == null) {
+			return false;
+		}
+		// mybatis不支持返回Stream
+		if (Stream.class.isAssignableFrom(returnType)) {
+			throw new MybatisJpaException("Method '" + definition.getNamespace() + "." + definition.getMethodName()
+					+ "' can not return Stream, return Cursor instead and convert it by CursorUtils.stream");
+		}
+		return Cursor.class.isAssignableFrom(returnType);
+	}
+
 	/**
 	 * 装配sql中动态参数的占位符
 	 */
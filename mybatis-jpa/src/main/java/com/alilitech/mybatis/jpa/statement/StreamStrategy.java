@@ -0,0 +1,70 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.statement;
+
+import com.alilitech.mybatis.MybatisJpaProperties;
+import com.alilitech.mybatis.jpa.DatabaseType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fetch size strategy of the statements return {@link org.apache.ibatis.cursor.Cursor}, see {@link MybatisJpaProperties.Stream}.
+ * <p>
+ * MySQL only streams the result set row by row when the fetch size is Integer.MIN_VALUE,
+ * PostgreSQL uses a positive fetch size but only when autocommit is off, so the cursor must be consumed in a transaction.
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+public class StreamStrategy {
+
+    private static final StreamStrategy INSTANCE = new StreamStrategy();
+
+    private volatile int fetchSize = 1000;
+
+    /**
+     * key: databaseId
+     */
+    private final Map<String, Integer> fetchSizes = new ConcurrentHashMap<>();
+
+    private StreamStrategy() {
+        fetchSizes.put(DatabaseType.MYSQL.getDatabaseId(), Integer.MIN_VALUE);
+    }
+
+    public static StreamStrategy getInstance() {
+        return INSTANCE;
+    }
+
+    public void configure(MybatisJpaProperties.Stream stream) {
+        this.fetchSize = stream.getFetchSize();
+        if(stream.getFetchSizes() != null) {
+            fetchSizes.putAll(stream.getFetchSizes());
+        }
+    }
+
+    /**
+     * @param databaseId databaseId of configuration
+     * @return fetch size of the cursor statements, null means the default of driver
+     */
+    public Integer getFetchSize(String databaseId) {
+        Integer size = databaseId == null ? null : fetchSizes.get(databaseId);
+        if(size == null) {
+            size = fetchSize;
+        }
+        return size == 0 ? null : size;
+    }
+}
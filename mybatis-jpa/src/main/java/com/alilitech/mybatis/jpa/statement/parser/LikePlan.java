@@ -0,0 +1,64 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.statement.parser;
+
+/**
+ * 方法的like参数计划，解析方法名时按参数索引记录{@link LikeType}，执行时不再拼接key查找
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+public class LikePlan {
+
+    /** 按参数索引的like类型，没有like的参数为null */
+    private final LikeType[] likeTypes;
+
+    /** 按参数索引的参数名，与mybatis的ParamMap的key对应 */
+    private final String[] argumentNames;
+
+    /** 单参数时(mybatis不包装为ParamMap)的like类型 */
+    private LikeType parameterLikeType;
+
+    public LikePlan(int argumentSize) {
+        this.likeTypes = new LikeType[argumentSize];
+        this.argumentNames = new String[argumentSize];
+    }
+
+    public void add(int argumentIndex, LikeType likeType, boolean oneParameter) {
+        likeTypes[argumentIndex] = likeType;
+        argumentNames[argumentIndex] = "arg" + argumentIndex;
+        if(oneParameter) {
+            parameterLikeType = likeType;
+        }
+    }
+
+    public int size() {
+        return likeTypes.length;
+    }
+
+    public LikeType getLikeType(int argumentIndex) {
+        return likeTypes[argumentIndex];
+    }
+
+    public String getArgumentName(int argumentIndex) {
+        return argumentNames[argumentIndex];
+    }
+
+    public LikeType getParameterLikeType() {
+        return parameterLikeType;
+    }
+
+}
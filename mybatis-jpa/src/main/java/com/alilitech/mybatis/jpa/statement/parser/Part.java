@@ -19,6 +19,7 @@ import com.alilitech.mybatis.jpa.LikeContainer;
 import com.alilitech.mybatis.jpa.anotation.IfTest;
 import com.alilitech.mybatis.jpa.definition.MethodDefinition;
 import com.alilitech.mybatis.jpa.pagination.PrePaginationInterceptor;
+import com.alilitech.mybatis.jpa.parameter.InListStrategy;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
@@ -96,25 +97,21 @@ public class Part implements Render {
 		//将参数索引加上参数数量
 		argumentIndex.addAndGet(this.getNumberOfArguments());
 
-		// 将like的信息放入缓存中，后面需要改变其参数
+		// 将like的信息放入方法的like计划中，后面需要改变其参数
 		if(this.getLikeType() != null) {
-			String key = methodDefinition.getStatementId();
-			String countKey = key + PrePaginationInterceptor.STATEMENT_ID_POSTFIX;
-
-			if(this.oneParameter) {
-				countKey += "._parameter";
-				key += "._parameter";
-			} else {
-				countKey += (".arg" + this.getArgumentIndex());
-				key += (".arg" + this.getArgumentIndex());
-			}
-			LikeContainer.getInstance().put(key, this.getLikeType());
-
-			// 如果有分页的话需要存储分页相关的key
-			if(methodDefinition.hasPage()) {
-				LikeContainer.getInstance().put(countKey, this.getLikeType());
+			LikePlan likePlan = methodDefinition.getLikePlan();
+			if(likePlan == null) {
+				likePlan = new LikePlan(methodDefinition.getParameterDefinitions().size());
+				methodDefinition.setLikePlan(likePlan);
+
+				String statementId = methodDefinition.getStatementId();
+				LikeContainer.getInstance().putLikePlan(statementId, likePlan);
+				// 如果有分页的话需要存储分页相关的key
+				if(methodDefinition.hasPage()) {
+					LikeContainer.getInstance().putLikePlan(statementId + PrePaginationInterceptor.STATEMENT_ID_POSTFIX, likePlan);
+				}
 			}
-
+			likePlan.add(this.getArgumentIndex(), this.getLikeType(), this.oneParameter);
 		}
 	}
 
@@ -235,15 +232,15 @@ public class Part implements Render {
 			if(this.isOneParameter()) {
 				typeValue = typeValue.replace("#{0}", "#{_parameter}");
 				if(argumentType.isArray()) {
-					typeValue = typeValue.replace("@{0}", "array");
+					typeValue = typeValue.replace("@{0}", collectionExpression("array"));
 				} else {
-					typeValue = typeValue.replace("@{0}", "collection");
+					typeValue = typeValue.replace("@{0}", collectionExpression("collection"));
 				}
 			} else {
 				for(int i=0; i<this.getNumberOfArguments(); i++) {
 					if(StringUtils.isEmpty(context.getArgAlias())) {
 						typeValue = typeValue.replace("#{" + i +  "}", "#{arg" + (argumentIndex +i) + "}");
-						typeValue = typeValue.replace("@{" + i +  "}", "arg" + (argumentIndex +i));
+						typeValue = typeValue.replace("@{" + i +  "}", collectionExpression("arg" + (argumentIndex +i)));
 					} else {
 						typeValue = typeValue.replace("#{" + i +  "}", "#{" + context.getArgAlias() + "." + propertyPath.getName() + "}");
 					}
@@ -307,6 +304,17 @@ public class Part implements Render {
 
 	}
 
+	/**
+	 * the collection expression of foreach, padded to the bucket size if needed
+	 * @since 2.2.5
+	 */
+	private String collectionExpression(String collection) {
+		if(InListStrategy.getInstance().isPadding()) {
+			return String.format(InListStrategy.PAD_EXPRESSION, collection, 1);
+		}
+		return collection;
+	}
+
 	/**
 	 * The type of a method name part. Used to create query parts in various ways.
 	 *
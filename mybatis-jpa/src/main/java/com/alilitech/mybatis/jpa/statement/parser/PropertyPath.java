@@ -76,7 +76,32 @@ public class PropertyPath {
         this.columnName = columnName;
     }
 
+    /**
+     * @since 2.2.5
+     */
+    public PropertyPath(String name, String columnName, Class<?> entityClass) {
+        this.name = name;
+        this.columnName = columnName;
+        this.entityClass = entityClass;
+    }
+
+    /**
+     * 解析属性，实体的属性先从{@link EntityMetaData}的索引里查找，解析成功后加入索引
+     */
     public static PropertyPath from(String sourceToParse, Optional<Class<?>> clazzOptional, MethodDefinition methodDefinition) {
+        if(!clazzOptional.isPresent()) {
+            return resolve(sourceToParse, clazzOptional, methodDefinition);
+        }
+        EntityMetaData entityMetaData = EntityMetaDataRegistry.getInstance().get(clazzOptional.get());
+        PropertyPath propertyPath = entityMetaData.getPropertyPath(sourceToParse);
+        if(propertyPath == null) {
+            propertyPath = resolve(sourceToParse, clazzOptional, methodDefinition);
+            entityMetaData.addPropertyPath(propertyPath);
+        }
+        return propertyPath;
+    }
+
+    private static PropertyPath resolve(String sourceToParse, Optional<Class<?>> clazzOptional, MethodDefinition methodDefinition) {
         PropertyPath propertyPath = new PropertyPath(sourceToParse);
         String columnName = "";
         Class<?> entityClass = null;
@@ -95,23 +120,23 @@ public class PropertyPath {
                 String[] splitCamelCases = NESTED_PROPERTY_PATTERN.split(sourceToParse, -1);
                 String propertyMaybe = splitCamelCases[0];
                 if(columnMetaDataMap.containsKey(propertyMaybe)) {
-                    entityClass = (Class<?>) columnMetaDataMap.get(propertyMaybe).getJoinColumnMetaData().getJoinEntityType();
+                    entityClass = getJoinEntityType(columnMetaDataMap.get(propertyMaybe));
                     String joinPropertyName = Arrays.stream(splitCamelCases).skip(1).collect(Collectors.joining());
                     // 首字母小写
                     joinPropertyName = StringUtils.uncapitalize(joinPropertyName);
-                    columnName = EntityMetaDataRegistry.getInstance().get(entityClass).getColumnMetaDataMap().get(joinPropertyName).getColumnName();
+                    columnName = getJoinColumnName(entityClass, joinPropertyName);
                 } else {
                     for (int i = 1; i < splitCamelCases.length; i++) {
                         propertyMaybe += splitCamelCases[i];
                         if (columnMetaDataMap.containsKey(propertyMaybe)) {
-                            entityClass = (Class<?>) columnMetaDataMap.get(propertyMaybe).getJoinColumnMetaData().getJoinEntityType();
+                            entityClass = getJoinEntityType(columnMetaDataMap.get(propertyMaybe));
                             String joinPropertyName = Arrays.stream(splitCamelCases).skip(i + 1).collect(Collectors.joining());
                             // 首字母小写
                             joinPropertyName = StringUtils.uncapitalize(joinPropertyName);
                             if(joinPropertyName.isEmpty()) {
-                                throw new PropertyNotFoundException(clazzOptional.get(), sourceToParse, methodDefinition.getStatementId(), "Can not found property!");
+                                throw new PropertyNotFoundException(clazzOptional.get(), sourceToParse, getStatementId(methodDefinition), "Can not found property!");
                             }
-                            columnName = EntityMetaDataRegistry.getInstance().get(entityClass).getColumnMetaDataMap().get(joinPropertyName).getColumnName();
+                            columnName = getJoinColumnName(entityClass, joinPropertyName);
                             break;
                         }
                     }
@@ -121,11 +146,37 @@ public class PropertyPath {
 
         // 如果没解析到直接抛异常
         if(ObjectUtils.isEmpty(columnName)) {
-            throw new PropertyNotFoundException(clazzOptional.get(), sourceToParse, methodDefinition.getStatementId(), "Can not found property!");
+            throw new PropertyNotFoundException(clazzOptional.orElse(null), sourceToParse, getStatementId(methodDefinition), "Can not found property!");
         }
 
         propertyPath.setColumnName(columnName);
         propertyPath.setEntityClass(entityClass);
         return propertyPath;
     }
+
+    /**
+     * 不是关联字段时返回null
+     */
+    private static Class<?> getJoinEntityType(ColumnMetaData columnMetaData) {
+        if(!columnMetaData.isJoin() || columnMetaData.getJoinColumnMetaData() == null) {
+            return null;
+        }
+        return (Class<?>) columnMetaData.getJoinColumnMetaData().getJoinEntityType();
+    }
+
+    /**
+     * 关联实体没有此属性时返回null
+     */
+    private static String getJoinColumnName(Class<?> joinEntityType, String joinPropertyName) {
+        EntityMetaData joinEntityMetaData = joinEntityType == null ? null : EntityMetaDataRegistry.getInstance().get(joinEntityType);
+        ColumnMetaData joinColumnMetaData = joinEntityMetaData == null ? null : joinEntityMetaData.getColumnMetaDataMap().get(joinPropertyName);
+        return joinColumnMetaData == null ? null : joinColumnMetaData.getColumnName();
+    }
+
+    /**
+     * 预先建立索引时没有方法定义
+     */
+    private static String getStatementId(MethodDefinition methodDefinition) {
+        return methodDefinition == null ? null : methodDefinition.getStatementId();
+    }
 }
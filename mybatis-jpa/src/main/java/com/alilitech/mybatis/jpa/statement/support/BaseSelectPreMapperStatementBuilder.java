@@ -15,6 +15,7 @@
  */
 package com.alilitech.mybatis.jpa.statement.support;
 
+import com.alilitech.mybatis.jpa.criteria.FetchPlan;
 import com.alilitech.mybatis.jpa.definition.GenericType;
 import com.alilitech.mybatis.jpa.definition.JoinStatementDefinition;
 import com.alilitech.mybatis.jpa.statement.MethodType;
@@ -25,7 +26,9 @@ import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.session.Configuration;
 
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 
@@ -53,6 +56,14 @@ public abstract class BaseSelectPreMapperStatementBuilder extends PreMapperState
 
     @Override
     protected String buildSQL() {
+        return buildSQL(null);
+    }
+
+    /**
+     * @param fetchPlan 运行时的抓取计划，裁剪查询列和关联，为null时按方法定义全部查询
+     * @since 2.2.5
+     */
+    protected String buildSQL(FetchPlan<?> fetchPlan) {
 
 //        RenderContext context = new RenderContext();
 //        buildPartTree().render(context);
@@ -62,12 +73,25 @@ public abstract class BaseSelectPreMapperStatementBuilder extends PreMapperState
         String mainTableAlias = entityMetaData.getTableAlias() + "_0";
 
         List<JoinStatementDefinition> joinStatementDefinitions = methodDefinition.getJoinStatementDefinitions();
+        String columnNamesString = entityMetaData.getColumnNamesString(mainTableAlias);
+        if(fetchPlan != null) {
+            joinStatementDefinitions = joinStatementDefinitions.stream()
+                    .filter(joinStatementDefinition -> fetchPlan.isFetched(joinStatementDefinition.getProperty()))
+                    .collect(Collectors.toList());
+            columnNamesString = buildColumnNamesString(fetchPlan, mainTableAlias);
+        }
+        // 投影只查询投影属性对应的列
+        if(methodDefinition.getProjectionType() != null) {
+            columnNamesString = getProjectionColumnMetaDatas().stream()
+                    .map(columnMetaData -> mainTableAlias + "." + columnMetaData.getColumnName())
+                    .collect(Collectors.joining(", "));
+        }
 
         String conditionScript = generateConditionScript(mainTableAlias, joinStatementDefinitions);
         conditionScript = conditionScript.contains("<where>") ? conditionScript : "<where>" + conditionScript + "</where>";
         List<String> sqlParts = Arrays.asList(
                 "SELECT",
-                entityMetaData.getColumnNamesString(mainTableAlias) + (joinStatementDefinitions.isEmpty() ? "" : ","),
+                columnNamesString + (joinStatementDefinitions.isEmpty() ? "" : ","),
                 joinStatementDefinitions.stream().map(JoinStatementDefinition::buildColumnNamesString).collect(Collectors.joining(", ")),
                 "FROM",
                 mainTableName,
@@ -80,6 +104,23 @@ public abstract class BaseSelectPreMapperStatementBuilder extends PreMapperState
         return buildScript(sqlParts);
     }
 
+    /**
+     * 抓取计划选择的主表列，主键和延迟加载、批量抓取需要的主表字段总会被查询
+     */
+    private String buildColumnNamesString(FetchPlan<?> fetchPlan, String mainTableAlias) {
+        Set<String> requiredProperties = new HashSet<>();
+        methodDefinition.getLazyStatementDefinitions().forEach(joinStatementDefinition -> requiredProperties.add(joinStatementDefinition.getKeyProperty()));
+        methodDefinition.getBatchFetchStatementDefinitions().forEach(joinStatementDefinition -> requiredProperties.add(joinStatementDefinition.getKeyProperty()));
+
+        return entityMetaData.getColumnMetaDataMap().values().stream()
+                .filter(columnMetaData -> !columnMetaData.isJoin())
+                .filter(columnMetaData -> columnMetaData.isPrimaryKey()
+                        || requiredProperties.contains(columnMetaData.getProperty())
+                        || fetchPlan.isSelected(columnMetaData.getProperty()))
+                .map(columnMetaData -> mainTableAlias + "." + columnMetaData.getColumnName())
+                .collect(Collectors.joining(", "));
+    }
+
     /**
      * 生成查询条件sql脚本
      */
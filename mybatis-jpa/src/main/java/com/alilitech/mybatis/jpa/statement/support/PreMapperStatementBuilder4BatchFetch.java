@@ -0,0 +1,134 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.statement.support;
+
+import com.alilitech.mybatis.jpa.SubQueryContainer;
+import com.alilitech.mybatis.jpa.anotation.SubQuery;
+import com.alilitech.mybatis.jpa.batch.BatchFetchRow;
+import com.alilitech.mybatis.jpa.definition.GenericType;
+import com.alilitech.mybatis.jpa.parameter.InListStrategy;
+import com.alilitech.mybatis.jpa.statement.MethodType;
+import com.alilitech.mybatis.jpa.statement.PreMapperStatement;
+import com.alilitech.mybatis.jpa.statement.PreMapperStatementBuilder;
+import com.alilitech.mybatis.jpa.statement.parser.RenderContext;
+import com.alilitech.mybatis.jpa.statement.parser.SubQueryPartTree;
+import com.alilitech.mybatis.jpa.util.ResultMapIdUtils;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.Configuration;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * batchFetchWith and batchFetchJoinWith, query the children of several parents by IN,
+ * every row returns the parent key with the children, see {@link BatchFetchRow}
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+public class PreMapperStatementBuilder4BatchFetch extends PreMapperStatementBuilder {
+
+    public PreMapperStatementBuilder4BatchFetch(Configuration configuration, MapperBuilderAssistant builderAssistant, MethodType methodType) {
+        super(configuration, builderAssistant, methodType);
+    }
+
+    @Override
+    protected void buildPreMapperStatementExtend(PreMapperStatement preMapperStatement, GenericType genericType) {
+        preMapperStatement.setSqlCommandType(SqlCommandType.SELECT);
+        setNoKeyGenerator(preMapperStatement);
+        preMapperStatement.setResultMap(buildBatchFetchResultMap());
+    }
+
+    @Override
+    protected String buildSQL() {
+
+        String joinTableNameAlias = "t0";
+        String joinTableName = methodDefinition.getJoinTableName();
+
+        String tableNameAlias = "t1";
+        String tableName = entityMetaData.getTableName();
+
+        String collection = InListStrategy.getInstance().isPadding() ? String.format(InListStrategy.PAD_EXPRESSION, "collection", 1) : "collection";
+        String inList = "<foreach item=\"key\" index=\"index\" open=\"(\" separator=\",\" close=\")\" collection=\"" + collection + "\">#{key}</foreach>";
+
+        // 多对多通过中间表关联，主表字段在中间表
+        boolean manyToMany = joinTableName != null && !joinTableName.isEmpty();
+        String keyColumn = manyToMany
+                ? joinTableNameAlias + "." + methodDefinition.getColumnName()
+                : tableNameAlias + "." + methodDefinition.getReferencedColumnName();
+        String fromPart = manyToMany
+                ? joinTableName + " " + joinTableNameAlias + " INNER JOIN " + tableName + " " + tableNameAlias
+                + " ON " + tableNameAlias + "." + methodDefinition.getInverseReferencedColumnName() + " = " + joinTableNameAlias + "." + methodDefinition.getInverseColumnName()
+                : tableName + " " + tableNameAlias;
+
+        RenderContext context = new RenderContext(tableNameAlias, null);
+
+        /*
+         * if {@link SubQueryContainer} containers statementId, parse the predicates and orders
+         */
+        if(SubQueryContainer.getInstance().isExist(methodDefinition.getStatementId())) {
+            SubQuery subQuery = SubQueryContainer.getInstance().get(methodDefinition.getStatementId());
+            SubQueryPartTree subQueryPartTree = new SubQueryPartTree(subQuery, entityMetaData.getEntityType(), methodDefinition);
+            subQueryPartTree.render(context);
+        }
+
+        //sql parts
+        List<String> sqlParts = Arrays.asList(
+                "SELECT",
+                keyColumn + " AS " + BatchFetchRow.KEY_COLUMN + ",",
+                entityMetaData.getColumnNamesString(tableNameAlias),
+                "FROM",
+                fromPart,
+                "WHERE",
+                keyColumn,
+                "IN",
+                inList,
+                context.getScript()
+        );
+
+        return buildScript(sqlParts);
+    }
+
+    /**
+     * the parent key and the children of it, the children are grouped by mybatis nested result map
+     */
+    private String buildBatchFetchResultMap() {
+        String resultMapId = builderAssistant.getCurrentNamespace() + "." + methodDefinition.getMethodName() + "ResultMap";
+        if(configuration.hasResultMap(resultMapId)) {
+            return resultMapId;
+        }
+
+        Class<?> keyType = methodDefinition.getParameterDefinitions().get(0).getParameterClass();
+        List<ResultMapping> resultMappings = Arrays.asList(
+                builderAssistant.buildResultMapping(BatchFetchRow.class, "key", BatchFetchRow.KEY_COLUMN, keyType,
+                        null, null, null, null, null, null, null),
+                builderAssistant.buildResultMapping(BatchFetchRow.class, "entities", null, List.class,
+                        null, null, ResultMapIdUtils.buildBaseResultMapId(builderAssistant), null, null, null, null)
+        );
+
+        builderAssistant.addResultMap(resultMapId, BatchFetchRow.class, null, null, resultMappings, false);
+        return resultMapId;
+    }
+
+    @Override
+    protected Class<?> getParameterTypeClass() {
+        return Collection.class;
+    }
+
+}
@@ -16,7 +16,6 @@
 package com.alilitech.mybatis.jpa.statement.support;
 
 import com.alilitech.mybatis.jpa.definition.GenericType;
-import com.alilitech.mybatis.jpa.meta.ColumnMetaData;
 import com.alilitech.mybatis.jpa.statement.MethodType;
 import com.alilitech.mybatis.jpa.statement.PreMapperStatement;
 import com.alilitech.mybatis.jpa.statement.PreMapperStatementBuilder;
@@ -26,7 +25,6 @@ import org.apache.ibatis.session.Configuration;
 
 import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
 
 /**
@@ -50,36 +48,13 @@ public class PreMapperStatementBuilder4DeleteBatch extends PreMapperStatementBui
     @Override
     protected String buildSQL() {
 
-        //sql parts
-        List<String> sqlParts = null;
-        if(entityMetaData.isCompositePrimaryKey()) {
-            String primaryKeys = entityMetaData.getPrimaryColumnMetaDatas().stream().map(ColumnMetaData::getColumnName).collect(Collectors.joining(", ", "(", ")"));
-            String primaryItems = entityMetaData.getPrimaryColumnMetaDatas().stream().map(ColumnMetaData::getProperty).map(s -> "#{id." + s + "}").collect(Collectors.joining(", "));
-
-            sqlParts = Arrays.asList(
-                    "DELETE",
-                    "FROM",
-                    entityMetaData.getTableName(),
-                    "WHERE",
-                    primaryKeys,
-                    "IN",
-                    "<foreach collection='collection' index='index' item='id' open='(' separator=',' close=')'>",
-                    "(" + primaryItems + ")",
-                    "</foreach>"
-            );
-        } else {
-            sqlParts = Arrays.asList(
-                    "DELETE",
-                    "FROM",
-                    entityMetaData.getTableName(),
-                    "WHERE",
-                    entityMetaData.getPrimaryColumnMetaData().getColumnName(),
-                    "IN",
-                    "<foreach collection='collection' index='index' item='id' open='(' separator=',' close=')'>",
-                    "#{id}",
-                    "</foreach>"
-            );
-        }
+        List<String> sqlParts = Arrays.asList(
+                "DELETE",
+                "FROM",
+                entityMetaData.getTableName(),
+                "WHERE",
+                buildPrimaryInCondition("")
+        );
 
         return buildScript(sqlParts);
     }
@@ -93,6 +93,7 @@ public class PreMapperStatementBuilder4FindSpecification extends BaseSelectPreMa
 
     @Override
     protected LanguageDriver getLanguageDriver(String lang) {
-        return new SpecificationLanguageDriver(methodDefinition);
+        // 运行时的抓取计划按需用同样的方式生成sql
+        return new SpecificationLanguageDriver(methodDefinition, this::buildSQL);
     }
 }
@@ -16,13 +16,11 @@
 package com.alilitech.mybatis.jpa.statement.support;
 
 import com.alilitech.mybatis.jpa.definition.JoinStatementDefinition;
-import com.alilitech.mybatis.jpa.meta.ColumnMetaData;
 import com.alilitech.mybatis.jpa.statement.MethodType;
 import org.apache.ibatis.builder.MapperBuilderAssistant;
 import org.apache.ibatis.session.Configuration;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  *
@@ -37,27 +35,7 @@ public class PreMapperStatementBuilder4findAllById extends BaseSelectPreMapperSt
 
     @Override
     protected String generateConditionScript(String mainTableAlias, List<JoinStatementDefinition> joinStatementDefinitions) {
-        if(entityMetaData.isCompositePrimaryKey()) {
-            String primaryKeys = entityMetaData.getPrimaryColumnMetaDatas().stream().map(columnMetaData -> {
-                String columnName = columnMetaData.getColumnName();
-                return mainTableAlias + "." + columnName;
-            }).collect(Collectors.joining(", ", "(", ")"));
-            String primaryItems = entityMetaData.getPrimaryColumnMetaDatas().stream().map(ColumnMetaData::getProperty).map(s -> "#{id." + s + "}").collect(Collectors.joining(", "));
-            return String.join(" ",
-                    primaryKeys,
-                    "IN",
-                    "<foreach item=\"id\" index=\"index\" open=\"(\" separator=\",\" close=\")\" collection=\"collection\">",
-                    "(" + primaryItems + ")",
-                    "</foreach>"
-            );
-        } else {
-            return String.join(" ",
-                    mainTableAlias + "." + entityMetaData.getPrimaryColumnMetaData().getColumnName(),
-                    "IN",
-                    "<foreach item=\"item\" index=\"index\" open=\"(\" separator=\",\" close=\")\" collection=\"collection\">",
-                    "#{item}",
-                    "</foreach>");
-        }
+        return buildPrimaryInCondition(mainTableAlias + ".");
     }
 
 
@@ -0,0 +1,220 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.util;
+
+import com.alilitech.mybatis.jpa.exception.MybatisJpaException;
+
+import java.lang.invoke.*;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 生成属性访问和方法调用的函数，替代每次调用时的反射。
+ * 公开且当前类加载器可见的类型使用LambdaMetafactory生成，其余使用MethodHandle
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+public class AccessorUtils {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /** java 9+ */
+    private static final Method PRIVATE_LOOKUP_IN;
+
+    /** java 8 */
+    private static final Constructor<MethodHandles.Lookup> LOOKUP_CONSTRUCTOR;
+
+    static {
+        Method privateLookupIn;
+        try {
+            privateLookupIn = MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
+        } catch (NoSuchMethodException e) {
+            privateLookupIn = null;
+        }
+        PRIVATE_LOOKUP_IN = privateLookupIn;
+
+        Constructor<MethodHandles.Lookup> lookupConstructor = null;
+        if(privateLookupIn == null) {
+            try {
+                lookupConstructor = accessible(MethodHandles.Lookup.class.getDeclaredConstructor(Class.class, int.class));
+            } catch (Exception e) {
+                lookupConstructor = null;
+            }
+        }
+        LOOKUP_CONSTRUCTOR = lookupConstructor;
+    }
+
+    private AccessorUtils() {
+    }
+
+    /**
+     * 属性的getter，没有getter方法时直接读取字段
+     */
+    public static Function<Object, Object> createGetter(Class<?> type, Field field) {
+        Method method = findMethod(type, "get" + CommonUtils.upperFirst(field.getName()));
+        if(method == null) {
+            method = findMethod(type, "is" + CommonUtils.upperFirst(field.getName()));
+        }
+        try {
+            if(method != null && isLambdaAccessible(type, method)) {
+                CallSite callSite = LambdaMetafactory.metafactory(LOOKUP, "apply",
+                        MethodType.methodType(Function.class),
+                        MethodType.methodType(Object.class, Object.class),
+                        LOOKUP.unreflect(method),
+                        MethodType.methodType(wrap(method.getReturnType()), type));
+                return (Function<Object, Object>) callSite.getTarget().invoke();
+            }
+            MethodHandle handle = method != null ? LOOKUP.unreflect(accessible(method)) : LOOKUP.unreflectGetter(accessible(field));
+            MethodHandle getter = handle.asType(MethodType.methodType(Object.class, Object.class));
+            return target -> {
+                try {
+                    return getter.invokeExact(target);
+                } catch (Throwable e) {
+                    throw wrapThrowable(e);
+                }
+            };
+        } catch (Throwable e) {
+            throw new MybatisJpaException("Create getter of property '" + field.getName() + "' failed, type: " + type.getName(), e);
+        }
+    }
+
+    /**
+     * 属性的setter，没有setter方法时直接写入字段
+     */
+    public static BiConsumer<Object, Object> createSetter(Class<?> type, Field field) {
+        Method method = findMethod(type, "set" + CommonUtils.upperFirst(field.getName()), field.getType());
+        try {
+            if(method != null && isLambdaAccessible(type, method)) {
+                CallSite callSite = LambdaMetafactory.metafactory(LOOKUP, "accept",
+                        MethodType.methodType(BiConsumer.class),
+                        MethodType.methodType(void.class, Object.class, Object.class),
+                        LOOKUP.unreflect(method),
+                        MethodType.methodType(void.class, type, wrap(field.getType())));
+                return (BiConsumer<Object, Object>) callSite.getTarget().invoke();
+            }
+            MethodHandle handle = method != null ? LOOKUP.unreflect(accessible(method)) : LOOKUP.unreflectSetter(accessible(field));
+            MethodHandle setter = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+            return (target, value) -> {
+                try {
+                    setter.invokeExact(target, value);
+                } catch (Throwable e) {
+                    throw wrapThrowable(e);
+                }
+            };
+        } catch (Throwable e) {
+            throw new MybatisJpaException("Create setter of property '" + field.getName() + "' failed, type: " + type.getName(), e);
+        }
+    }
+
+    /**
+     * 无参方法的调用，实例方法只创建一次实例
+     */
+    public static Supplier<Object> createSupplier(Class<?> type, String methodName) {
+        try {
+            Method method = type.getMethod(methodName);
+            boolean isStatic = Modifier.isStatic(method.getModifiers());
+            Object instance = isStatic ? null : accessible(type.getDeclaredConstructor()).newInstance();
+            if(isLambdaAccessible(type, method) && !method.getReturnType().equals(void.class)) {
+                CallSite callSite = LambdaMetafactory.metafactory(LOOKUP, "get",
+                        isStatic ? MethodType.methodType(Supplier.class) : MethodType.methodType(Supplier.class, type),
+                        MethodType.methodType(Object.class),
+                        LOOKUP.unreflect(method),
+                        MethodType.methodType(wrap(method.getReturnType())));
+                return (Supplier<Object>) (isStatic ? callSite.getTarget().invoke() : callSite.getTarget().invoke(instance));
+            }
+            MethodHandle handle = LOOKUP.unreflect(accessible(method));
+            MethodHandle supplier = (isStatic ? handle : handle.bindTo(instance)).asType(MethodType.methodType(Object.class));
+            return () -> {
+                try {
+                    return supplier.invokeExact();
+                } catch (Throwable e) {
+                    throw wrapThrowable(e);
+                }
+            };
+        } catch (Throwable e) {
+            throw new MybatisJpaException("Create supplier of method '" + type.getName() + "." + methodName + "' failed", e);
+        }
+    }
+
+    /**
+     * 接口default方法的MethodHandle，第一个参数是接口的实例，如代理对象
+     */
+    public static MethodHandle createDefaultMethodHandle(Method method) {
+        Class<?> declaringClass = method.getDeclaringClass();
+        try {
+            if(PRIVATE_LOOKUP_IN != null) {
+                MethodHandles.Lookup lookup = (MethodHandles.Lookup) PRIVATE_LOOKUP_IN.invoke(null, declaringClass, LOOKUP);
+                return lookup.findSpecial(declaringClass, method.getName(),
+                        MethodType.methodType(method.getReturnType(), method.getParameterTypes()), declaringClass);
+            }
+            if(LOOKUP_CONSTRUCTOR != null) {
+                int allowedModes = MethodHandles.Lookup.PRIVATE | MethodHandles.Lookup.PROTECTED | MethodHandles.Lookup.PACKAGE | MethodHandles.Lookup.PUBLIC;
+                return LOOKUP_CONSTRUCTOR.newInstance(declaringClass, allowedModes).unreflectSpecial(method, declaringClass);
+            }
+        } catch (Exception e) {
+            throw new MybatisJpaException("Create handle of default method '" + declaringClass.getName() + "." + method.getName() + "' failed", e);
+        }
+        throw new MybatisJpaException("Default method '" + declaringClass.getName() + "." + method.getName() + "' can not be invoked in this jvm");
+    }
+
+    private static Method findMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            return type.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 生成的lambda类由当前类加载器解析，所以类型必须公开并且可见
+     */
+    private static boolean isLambdaAccessible(Class<?> type, Method method) {
+        if(!Modifier.isPublic(type.getModifiers()) || !Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+            return false;
+        }
+        try {
+            return Class.forName(type.getName(), false, AccessorUtils.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static <T extends java.lang.reflect.AccessibleObject> T accessible(T accessibleObject) {
+        accessibleObject.setAccessible(true);
+        return accessibleObject;
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        return MethodType.methodType(type).wrap().returnType();
+    }
+
+    private static RuntimeException wrapThrowable(Throwable e) {
+        if(e instanceof RuntimeException) {
+            return (RuntimeException) e;
+        }
+        if(e instanceof Error) {
+            throw (Error) e;
+        }
+        return new MybatisJpaException(e);
+    }
+
+}
@@ -0,0 +1,253 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.util;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntFunction;
+
+/**
+ * Thread-safe bounded cache.
+ * <p>
+ * Eviction uses the second chance (clock) algorithm, which approximates LRU without locking on read:
+ * an entry read since it was last inspected gets one more round before it is evicted.
+ * The cache is bounded by entry count, and optionally by total weight when a weigher is provided.
+ * The entry expires after written when expireAfterWrite is greater than 0, the expired entry is removed when it is read.
+ *
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+public class ConcurrentCache<K, V> {
+
+    private final Map<K, Node<V>> cache = new ConcurrentHashMap<>();
+
+    /**
+     * keys in insertion order, used by eviction
+     */
+    private final Queue<K> evictionQueue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * approximate size of the eviction queue, the removed or expired keys stay in the queue,
+     * so it is compacted when the size exceeds twice of maxSize
+     */
+    private final AtomicInteger queueSize = new AtomicInteger();
+
+    private final int maxSize;
+
+    /**
+     * max total weight, less than or equals 0 means no weight bound
+     */
+    private final long maxWeight;
+
+    private final ToIntFunction<V> weigher;
+
+    /**
+     * expire time in nanoseconds after written, 0 means never expire
+     */
+    private final long expireAfterWriteNanos;
+
+    private final AtomicLong weight = new AtomicLong();
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    public ConcurrentCache(int maxSize) {
+        this(maxSize, 0, null);
+    }
+
+    public ConcurrentCache(int maxSize, long maxWeight, ToIntFunction<V> weigher) {
+        this(maxSize, maxWeight, weigher, 0);
+    }
+
+    public ConcurrentCache(int maxSize, long maxWeight, ToIntFunction<V> weigher, long expireAfterWrite) {
+        if(maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be greater than 0");
+        }
+        this.maxSize = maxSize;
+        this.maxWeight = weigher == null ? 0 : maxWeight;
+        this.weigher = weigher;
+        this.expireAfterWriteNanos = expireAfterWrite <= 0 ? 0 : TimeUnit.MILLISECONDS.toNanos(expireAfterWrite);
+    }
+
+    public V get(K key) {
+        Node<V> node = cache.get(key);
+        if(node == null) {
+            missCount.increment();
+            return null;
+        }
+        if(isExpired(node)) {
+            if(cache.remove(key, node)) {
+                weight.addAndGet(-node.weight);
+                evictionCount.increment();
+            }
+            missCount.increment();
+            return null;
+        }
+        node.referenced = true;
+        hitCount.increment();
+        return node.value;
+    }
+
+    public void put(K key, V value) {
+        Node<V> node = new Node<>(value, weigher == null ? 0 : weigher.applyAsInt(value));
+        Node<V> previous = cache.put(key, node);
+        if(previous == null) {
+            offer(key);
+        } else {
+            weight.addAndGet(-previous.weight);
+        }
+        weight.addAndGet(node.weight);
+        evict();
+    }
+
+    public V remove(K key) {
+        Node<V> node = cache.remove(key);
+        if(node == null) {
+            return null;
+        }
+        weight.addAndGet(-node.weight);
+        return node.value;
+    }
+
+    public void clear() {
+        cache.clear();
+        evictionQueue.clear();
+        queueSize.set(0);
+        weight.set(0);
+    }
+
+    private void evict() {
+        while (cache.size() > maxSize || (maxWeight > 0 && weight.get() > maxWeight)) {
+            K key = evictionQueue.poll();
+            if(key == null) {
+                return;
+            }
+            queueSize.decrementAndGet();
+            Node<V> node = cache.get(key);
+            // removed already
+            if(node == null) {
+                continue;
+            }
+            // give a second chance, except the expired one
+            if(node.referenced && !isExpired(node)) {
+                node.referenced = false;
+                offer(key);
+                continue;
+            }
+            if(cache.remove(key, node)) {
+                weight.addAndGet(-node.weight);
+                evictionCount.increment();
+            }
+        }
+    }
+
+    private void offer(K key) {
+        evictionQueue.offer(key);
+        if(queueSize.incrementAndGet() > maxSize * 2L) {
+            compact();
+        }
+    }
+
+    /**
+     * drop the keys removed from the cache and the duplicated keys re-put after removed
+     */
+    private void compact() {
+        synchronized (evictionQueue) {
+            if(queueSize.get() <= maxSize * 2L) {
+                return;
+            }
+            Set<K> queuedKeys = new HashSet<>();
+            Iterator<K> iterator = evictionQueue.iterator();
+            while (iterator.hasNext()) {
+                K key = iterator.next();
+                if(!cache.containsKey(key) || !queuedKeys.add(key)) {
+                    iterator.remove();
+                }
+            }
+            queueSize.set(queuedKeys.size());
+        }
+    }
+
+    private boolean isExpired(Node<V> node) {
+        return expireAfterWriteNanos > 0 && System.nanoTime() - node.writeTime > expireAfterWriteNanos;
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * approximate size of the eviction queue
+     */
+    int getQueueSize() {
+        return queueSize.get();
+    }
+
+    public long getWeight() {
+        return weight.get();
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrentCache{" +
+                "size=" + size() +
+                ", weight=" + getWeight() +
+                ", hitCount=" + getHitCount() +
+                ", missCount=" + getMissCount() +
+                ", evictionCount=" + getEvictionCount() +
+                '}';
+    }
+
+    private static class Node<V> {
+
+        private final V value;
+
+        private final int weight;
+
+        private final long writeTime = System.nanoTime();
+
+        private volatile boolean referenced;
+
+        Node(V value, int weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
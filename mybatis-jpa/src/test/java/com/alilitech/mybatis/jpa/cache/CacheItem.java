@@ -0,0 +1,45 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+@Table(name = "t_cache_item")
+@Getter
+@Setter
+public class CacheItem {
+
+    @Id
+    private String id;
+
+    private String name;
+
+    public CacheItem() {
+    }
+
+    public CacheItem(String id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+}
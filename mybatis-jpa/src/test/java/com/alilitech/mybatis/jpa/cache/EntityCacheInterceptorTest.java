@@ -0,0 +1,208 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.cache;
+
+import com.alilitech.mybatis.MybatisJpaBootstrap;
+import com.alilitech.mybatis.MybatisJpaProperties;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.reflection.ParamNameResolver;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.transaction.Transaction;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+public class EntityCacheInterceptorTest {
+
+    private static final String NAMESPACE = CacheItemMapper.class.getName();
+
+    private static Configuration configuration;
+
+    private final EntityCacheRegistry registry = EntityCacheRegistry.getInstance();
+
+    private EntityCacheInterceptor entityCacheInterceptor;
+
+    /**
+     * the ids selected from database by the stub executor
+     */
+    private final List<Object> selectedIds = new ArrayList<>();
+
+    @BeforeClass
+    public static void bootstrap() {
+        configuration = new Configuration();
+        configuration.setDatabaseId("MySQL");
+        configuration.addMapper(CacheItemMapper.class);
+        new MybatisJpaBootstrap(configuration).setDatabaseId("MySQL").start();
+    }
+
+    @Before
+    public void enableCache() {
+        MybatisJpaProperties mybatisJpaProperties = new MybatisJpaProperties();
+        mybatisJpaProperties.getEntityCache().setEnabled(true);
+        entityCacheInterceptor = new EntityCacheInterceptor(mybatisJpaProperties);
+    }
+
+    @After
+    public void disableCache() {
+        registry.configure(new MybatisJpaProperties.EntityCache());
+        TransactionalInvalidation.getInstance().setAfterCompletionRegistrar(null);
+    }
+
+    @Test
+    public void testFindByIdFromCache() throws SQLException {
+        Executor executor = createExecutor(true);
+        CacheItem first = findById(executor, "1");
+        CacheItem second = findById(executor, "1");
+        assertEquals(Collections.singletonList("1"), selectedIds);
+        assertEquals("item1", second.getName());
+        // 缓存的是副本
+        assertNotSame(first, second);
+    }
+
+    @Test
+    public void testFindAllByIdSelectsMissingIds() throws SQLException {
+        Executor executor = createExecutor(true);
+        findById(executor, "2");
+        List<Object> results = executor.query(getMappedStatement("findAllById"), ParamNameResolver.wrapToMapIfCollection(Arrays.asList("1", "2", "3"), null), RowBounds.DEFAULT, null);
+        assertEquals(3, results.size());
+        assertEquals(Arrays.asList("2", "1", "3"), selectedIds);
+    }
+
+    @Test
+    public void testPutRejectedAfterConcurrentInvalidation() throws SQLException {
+        Executor executor = createExecutor(true, () -> registry.invalidate(CacheItem.class, "1"));
+        findById(executor, "1");
+        assertNull(registry.get(CacheItem.class, "1"));
+    }
+
+    @Test
+    public void testSessionBypassesCacheAfterWrite() throws SQLException {
+        Executor reader = createExecutor(true);
+        findById(reader, "1");
+
+        Executor writer = createExecutor(false);
+        writer.update(getMappedStatement("update"), new CacheItem("2", "item2"));
+        // 写过的会话在关闭前不读写缓存
+        findById(writer, "1");
+        assertEquals(Arrays.asList("1", "1"), selectedIds);
+        assertNotNull(registry.get(CacheItem.class, "1"));
+
+        writer.close(false);
+        findById(createExecutor(true), "1");
+        assertEquals(2, selectedIds.size());
+    }
+
+    @Test
+    public void testBatchWritesInvalidateOnlyTheirIds() throws SQLException {
+        Executor executor = createExecutor(true);
+        executor.query(getMappedStatement("findAllById"), ParamNameResolver.wrapToMapIfCollection(Arrays.asList("1", "2", "3"), null), RowBounds.DEFAULT, null);
+
+        executor.update(getMappedStatement("deleteBatch"), ParamNameResolver.wrapToMapIfCollection(Collections.singletonList("1"), null));
+        assertNull(registry.get(CacheItem.class, "1"));
+        assertNotNull(registry.get(CacheItem.class, "2"));
+        assertNotNull(registry.get(CacheItem.class, "3"));
+
+        executor.update(getMappedStatement("updateBatch"), ParamNameResolver.wrapToMapIfCollection(Collections.singletonList(new CacheItem("2", "item2")), null));
+        assertNull(registry.get(CacheItem.class, "2"));
+        assertNotNull(registry.get(CacheItem.class, "3"));
+    }
+
+    @Test
+    public void testWritesInvalidatedAgainAfterCompletion() throws SQLException {
+        List<Runnable> invalidations = new ArrayList<>();
+        TransactionalInvalidation.getInstance().setAfterCompletionRegistrar(invalidations::add);
+
+        Executor writer = createExecutor(false);
+        writer.update(getMappedStatement("deleteById"), "1");
+        writer.close(false);
+        assertEquals(1, invalidations.size());
+
+        // 会话关闭之后，事务完成之前，其它会话缓存了旧数据
+        findById(createExecutor(true), "1");
+        assertNotNull(registry.get(CacheItem.class, "1"));
+        invalidations.get(0).run();
+        assertNull(registry.get(CacheItem.class, "1"));
+    }
+
+    private CacheItem findById(Executor executor, Object id) throws SQLException {
+        List<Object> results = executor.query(getMappedStatement("findById"), id, RowBounds.DEFAULT, null);
+        return (CacheItem) results.get(0);
+    }
+
+    private MappedStatement getMappedStatement(String methodName) {
+        return configuration.getMappedStatement(NAMESPACE + "." + methodName);
+    }
+
+    private Executor createExecutor(boolean autoCommit) {
+        return createExecutor(autoCommit, () -> {});
+    }
+
+    /**
+     * @param onSelect run when selecting from database, simulates a concurrent write
+     */
+    private Executor createExecutor(boolean autoCommit, Runnable onSelect) {
+        Connection connection = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Connection.class},
+                (proxy, method, args) -> "getAutoCommit".equals(method.getName()) ? autoCommit : null);
+        Transaction transaction = (Transaction) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Transaction.class},
+                (proxy, method, args) -> "getConnection".equals(method.getName()) ? connection : null);
+        Executor executor = (Executor) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Executor.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "query":
+                    onSelect.run();
+                    return select(args[1]);
+                case "update":
+                    return 1;
+                case "getTransaction":
+                    return transaction;
+                case "isClosed":
+                    return false;
+                // 会话按executor记录写入
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    return null;
+            }
+        });
+        return (Executor) entityCacheInterceptor.plugin(executor);
+    }
+
+    private List<Object> select(Object parameter) {
+        Collection<?> ids = parameter instanceof Map ? (Collection<?>) ((Map<?, ?>) parameter).get("collection") : Collections.singletonList(parameter);
+        List<Object> results = new ArrayList<>();
+        for (Object id : ids) {
+            selectedIds.add(id);
+            results.add(new CacheItem((String) id, "item" + id));
+        }
+        return results;
+    }
+}
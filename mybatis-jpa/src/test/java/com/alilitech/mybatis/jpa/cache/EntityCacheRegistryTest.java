@@ -0,0 +1,92 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.cache;
+
+import com.alilitech.mybatis.MybatisJpaProperties;
+import com.alilitech.mybatis.jpa.EntityMetaDataRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+public class EntityCacheRegistryTest {
+
+    private final EntityCacheRegistry registry = EntityCacheRegistry.getInstance();
+
+    @Before
+    public void enableCache() {
+        EntityMetaDataRegistry.getInstance().register(CacheItem.class);
+        MybatisJpaProperties.EntityCache properties = new MybatisJpaProperties.EntityCache();
+        properties.setEnabled(true);
+        registry.configure(properties);
+    }
+
+    @After
+    public void disableCache() {
+        registry.setEntityCacheFactory(null);
+        registry.configure(new MybatisJpaProperties.EntityCache());
+    }
+
+    @Test
+    public void testPutRejectedAfterInvalidation() {
+        long version = registry.getVersion(CacheItem.class);
+        registry.invalidate(CacheItem.class, "2");
+        registry.put(CacheItem.class, "1", new CacheItem("1", "item1"), version);
+        assertNull(registry.get(CacheItem.class, "1"));
+
+        registry.put(CacheItem.class, "1", new CacheItem("1", "item1"), registry.getVersion(CacheItem.class));
+        assertNotNull(registry.get(CacheItem.class, "1"));
+    }
+
+    @Test
+    public void testPutRemovedWhenInvalidatedDuringPut() {
+        // 写入缓存的同时被其它会话失效
+        registry.setEntityCacheFactory((entityType, properties) -> new ConcurrentEntityCache(properties.getMaxSize(), properties.getTtl()) {
+            @Override
+            public void put(Object id, Object entity) {
+                super.put(id, entity);
+                registry.invalidate(CacheItem.class, "2");
+            }
+        });
+        registry.put(CacheItem.class, "1", new CacheItem("1", "item1"), registry.getVersion(CacheItem.class));
+        assertNull(registry.get(CacheItem.class, "1"));
+    }
+
+    @Test
+    public void testInvalidate() {
+        registry.put(CacheItem.class, "1", new CacheItem("1", "item1"), registry.getVersion(CacheItem.class));
+        registry.put(CacheItem.class, "2", new CacheItem("2", "item2"), registry.getVersion(CacheItem.class));
+        registry.invalidate(CacheItem.class, "1");
+        assertNull(registry.get(CacheItem.class, "1"));
+        assertNotNull(registry.get(CacheItem.class, "2"));
+
+        registry.invalidate(CacheItem.class);
+        assertNull(registry.get(CacheItem.class, "2"));
+    }
+
+    @Test
+    public void testDisabled() {
+        registry.configure(new MybatisJpaProperties.EntityCache());
+        assertNull(registry.getEntityCache(CacheItem.class));
+        registry.put(CacheItem.class, "1", new CacheItem("1", "item1"), registry.getVersion(CacheItem.class));
+        assertNull(registry.get(CacheItem.class, "1"));
+    }
+}
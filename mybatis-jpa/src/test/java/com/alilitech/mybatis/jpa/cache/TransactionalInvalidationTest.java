@@ -0,0 +1,88 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.cache;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.transaction.Transaction;
+import org.junit.After;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+public class TransactionalInvalidationTest {
+
+    private final TransactionalInvalidation transactionalInvalidation = TransactionalInvalidation.getInstance();
+
+    @After
+    public void removeRegistrar() {
+        transactionalInvalidation.setAfterCompletionRegistrar(null);
+    }
+
+    @Test
+    public void testInvalidateOnCloseWithoutTransaction() {
+        AtomicInteger count = new AtomicInteger();
+        transactionalInvalidation.invalidateOnClose(count::incrementAndGet);
+        assertEquals(1, count.get());
+    }
+
+    @Test
+    public void testInvalidateAgainAfterCompletion() {
+        List<Runnable> invalidations = new ArrayList<>();
+        transactionalInvalidation.setAfterCompletionRegistrar(invalidations::add);
+        AtomicInteger count = new AtomicInteger();
+        transactionalInvalidation.invalidateOnClose(count::incrementAndGet);
+        assertEquals(1, count.get());
+        assertEquals(1, invalidations.size());
+
+        invalidations.get(0).run();
+        assertEquals(2, count.get());
+    }
+
+    @Test
+    public void testIsAutoCommit() {
+        assertTrue(TransactionalInvalidation.isAutoCommit(createExecutor(true, false)));
+        assertFalse(TransactionalInvalidation.isAutoCommit(createExecutor(false, false)));
+        // 取不到连接时当作在事务中
+        assertFalse(TransactionalInvalidation.isAutoCommit(createExecutor(true, true)));
+    }
+
+    private Executor createExecutor(boolean autoCommit, boolean fail) {
+        Connection connection = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Connection.class},
+                (proxy, method, args) -> "getAutoCommit".equals(method.getName()) ? autoCommit : null);
+        Transaction transaction = (Transaction) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Transaction.class}, (proxy, method, args) -> {
+            if("getConnection".equals(method.getName())) {
+                if(fail) {
+                    throw new SQLException("closed");
+                }
+                return connection;
+            }
+            return null;
+        });
+        return (Executor) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Executor.class},
+                (proxy, method, args) -> "getTransaction".equals(method.getName()) ? transaction : null);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.criteria;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+public class RenderContextTest {
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testPutByIndexGrowsSlots() {
+        RenderContext renderContext = new RenderContext();
+        for (int i = 0; i < 100; i++) {
+            int index = renderContext.getParamIndexAndIncrement();
+            renderContext.getParamValues().put(renderContext.getParamPrefix() + index, i);
+        }
+        assertEquals(100, renderContext.getParamValues().size());
+        assertEquals(99, renderContext.getParamValues().get("param99"));
+    }
+
+    @Test
+    public void testAddParamValue() {
+        RenderContext renderContext = new RenderContext();
+        for (int i = 0; i < 100; i++) {
+            assertEquals("param" + i, renderContext.addParamValue(i));
+        }
+        assertEquals(16, renderContext.getParamValue(16));
+        assertEquals(100, (int) renderContext.getParamIndex());
+    }
+
+    @Test
+    public void testNonCanonicalNamesAreNotSlots() {
+        RenderContext renderContext = new RenderContext();
+        renderContext.addParamValue("a");
+        renderContext.addParamValue("b");
+        Map<String, Object> paramValues = renderContext.getParamValues();
+        assertNull(paramValues.get("param01"));
+        assertFalse(paramValues.containsKey("param01"));
+        assertFalse(paramValues.containsKey("param4294967297"));
+
+        paramValues.put("param01", "c");
+        assertEquals("b", paramValues.get("param1"));
+        assertEquals("c", paramValues.get("param01"));
+    }
+
+    @Test
+    public void testOverflowValues() {
+        RenderContext renderContext = new RenderContext();
+        renderContext.addParamValue("a");
+        Map<String, Object> paramValues = renderContext.getParamValues();
+        paramValues.put("custom", 1);
+        paramValues.put("param5", 5);
+        assertTrue(paramValues.containsKey("custom"));
+        assertEquals(5, paramValues.get("param5"));
+        assertEquals(3, paramValues.size());
+
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("param0", "a");
+        expected.put("custom", 1);
+        expected.put("param5", 5);
+        assertEquals(expected, new HashMap<>(paramValues));
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.parameter;
+
+import com.alilitech.mybatis.jpa.DatabaseType;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+public class InListInterceptorTest {
+
+    @Test
+    public void testSplitEmptyAndSingle() {
+        assertTrue(InListInterceptor.split(Collections.emptyList(), 1000).isEmpty());
+        assertEquals(Collections.singletonList(Collections.singletonList(1)), InListInterceptor.split(Collections.singletonList(1), 1000));
+        assertEquals(Collections.singletonList(Collections.singletonList(1)), InListInterceptor.split(Collections.singletonList(1), 1));
+    }
+
+    @Test
+    public void testSplitInOrder() {
+        List<List<Object>> chunks = InListInterceptor.split(range(2500), 1000);
+        assertEquals(3, chunks.size());
+        assertEquals(1000, chunks.get(0).size());
+        assertEquals(1000, chunks.get(1).size());
+        assertEquals(500, chunks.get(2).size());
+        assertEquals(0, chunks.get(0).get(0));
+        assertEquals(1000, chunks.get(1).get(0));
+        assertEquals(2499, chunks.get(2).get(499));
+    }
+
+    @Test
+    public void testSplitExactMultiple() {
+        List<List<Object>> chunks = InListInterceptor.split(range(2000), 1000);
+        assertEquals(2, chunks.size());
+        assertEquals(1000, chunks.get(1).size());
+    }
+
+    @Test
+    public void testSplitCompositeKeys() {
+        // 复合主键按每个值的参数个数缩小块大小，oracle上限1000，2列主键每块500个
+        List<Map<String, Object>> ids = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            Map<String, Object> id = new HashMap<>();
+            id.put("userId", i);
+            id.put("roleId", i);
+            ids.add(id);
+        }
+        List<List<Object>> chunks = InListInterceptor.split(ids, InListStrategy.getInstance().getBindLimit(DatabaseType.ORACLE.getDatabaseId()) / 2);
+        assertEquals(3, chunks.size());
+        assertEquals(500, chunks.get(0).size());
+        assertEquals(200, chunks.get(2).size());
+        assertSame(ids.get(1199), chunks.get(2).get(199));
+    }
+
+    private static List<Integer> range(int size) {
+        List<Integer> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(i);
+        }
+        return values;
+    }
+}
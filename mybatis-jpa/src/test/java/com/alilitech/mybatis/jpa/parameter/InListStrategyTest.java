@@ -0,0 +1,125 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.parameter;
+
+import com.alilitech.mybatis.MybatisJpaProperties;
+import com.alilitech.mybatis.jpa.DatabaseType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+public class InListStrategyTest {
+
+    private static final String ORACLE = DatabaseType.ORACLE.getDatabaseId();
+
+    @Before
+    public void enablePadding() {
+        MybatisJpaProperties.InList inList = new MybatisJpaProperties.InList();
+        inList.setPadding(true);
+        InListStrategy.getInstance().configure(inList);
+    }
+
+    @After
+    public void disablePadding() {
+        InListStrategy.getInstance().configure(new MybatisJpaProperties.InList());
+    }
+
+    @Test
+    public void testBucketSize() {
+        assertEquals(0, InListStrategy.bucketSize(0, 0));
+        assertEquals(1, InListStrategy.bucketSize(1, 0));
+        assertEquals(2, InListStrategy.bucketSize(2, 0));
+        assertEquals(4, InListStrategy.bucketSize(3, 0));
+        assertEquals(8, InListStrategy.bucketSize(5, 0));
+        assertEquals(1024, InListStrategy.bucketSize(1024, 0));
+        assertEquals(2048, InListStrategy.bucketSize(1025, 0));
+    }
+
+    @Test
+    public void testBucketSizeAbove2Power30() {
+        // 超过2^30时左移会溢出，保持原大小
+        assertEquals(1 << 30, InListStrategy.bucketSize(1 << 30, 0));
+        assertEquals((1 << 30) + 1, InListStrategy.bucketSize((1 << 30) + 1, 0));
+        assertEquals(Integer.MAX_VALUE, InListStrategy.bucketSize(Integer.MAX_VALUE, 0));
+        assertEquals(Integer.MAX_VALUE, InListStrategy.bucketSize(Integer.MAX_VALUE, 1000));
+    }
+
+    @Test
+    public void testBucketSizeOverBindLimit() {
+        assertEquals(512, InListStrategy.bucketSize(300, 1000));
+        // 桶超过上限时补到上限
+        assertEquals(1000, InListStrategy.bucketSize(513, 1000));
+        assertEquals(1000, InListStrategy.bucketSize(1000, 1000));
+        // 本身超过上限时不补
+        assertEquals(1001, InListStrategy.bucketSize(1001, 1000));
+        assertEquals(1, InListStrategy.bucketSize(1, 1000));
+    }
+
+    @Test
+    public void testPad() {
+        assertNull(InListStrategy.pad(null, null, 1));
+        List<Integer> empty = Collections.emptyList();
+        assertSame(empty, InListStrategy.pad(empty, null, 1));
+        List<Integer> single = Collections.singletonList(1);
+        assertSame(single, InListStrategy.pad(single, null, 1));
+        List<Integer> four = Arrays.asList(1, 2, 3, 4);
+        assertSame(four, InListStrategy.pad(four, null, 1));
+
+        assertEquals(Arrays.asList(1, 2, 3, 3), InListStrategy.pad(Arrays.asList(1, 2, 3), null, 1));
+        assertEquals(Arrays.asList(1, 2, 3, 3), InListStrategy.pad(new int[]{1, 2, 3}, null, 1));
+        assertEquals(Arrays.asList("a", "b", "c", "c"), InListStrategy.pad(new String[]{"a", "b", "c"}, null, 1));
+    }
+
+    @Test
+    public void testPadDisabled() {
+        InListStrategy.getInstance().configure(new MybatisJpaProperties.InList());
+        List<Integer> values = Arrays.asList(1, 2, 3);
+        assertSame(values, InListStrategy.pad(values, null, 1));
+    }
+
+    @Test
+    public void testPadOverBindLimit() {
+        // oracle上限1000
+        assertEquals(1000, ((List<?>) InListStrategy.pad(range(600), ORACLE, 1)).size());
+        List<Integer> values = range(1001);
+        assertSame(values, InListStrategy.pad(values, ORACLE, 1));
+    }
+
+    @Test
+    public void testPadCompositeKeys() {
+        // 复合主键每个值绑定2个参数，oracle最多500个值
+        List<?> padded = (List<?>) InListStrategy.pad(range(300), ORACLE, 2);
+        assertEquals(500, padded.size());
+        assertEquals(299, padded.get(499));
+        assertEquals(256, ((List<?>) InListStrategy.pad(range(200), ORACLE, 2)).size());
+    }
+
+    private static List<Integer> range(int size) {
+        List<Integer> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(i);
+        }
+        return values;
+    }
+}
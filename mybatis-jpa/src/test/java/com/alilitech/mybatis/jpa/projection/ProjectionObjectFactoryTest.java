@@ -0,0 +1,67 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.projection;
+
+import org.apache.ibatis.reflection.factory.DefaultObjectFactory;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+public class ProjectionObjectFactoryTest {
+
+    private final ProjectionObjectFactory objectFactory = new ProjectionObjectFactory(new DefaultObjectFactory());
+
+    @Test
+    public void testDefaultMethod() {
+        ProjectionRegistry.getInstance().register(UserView.class);
+        // 接口投影按属性名排序：age, name
+        UserView userView = objectFactory.create(UserView.class, Collections.emptyList(), Arrays.asList(20, "Jack"));
+        assertEquals("Jack", userView.getName());
+        assertEquals("Jack(20)", userView.getLabel());
+        assertEquals("Mr. Jack(20)", userView.getLabel("Mr. "));
+    }
+
+    @Test
+    public void testPrimitiveGetterOfNull() {
+        ProjectionRegistry.getInstance().register(UserView.class);
+        UserView userView = objectFactory.create(UserView.class, Collections.emptyList(), Arrays.asList(null, null));
+        assertEquals(0, userView.getAge());
+        assertNull(userView.getName());
+        assertEquals("null(0)", userView.getLabel());
+    }
+
+    interface UserView {
+
+        int getAge();
+
+        String getName();
+
+        default String getLabel() {
+            return getName() + "(" + getAge() + ")";
+        }
+
+        default String getLabel(String prefix) {
+            return prefix + getLabel();
+        }
+    }
+}
@@ -17,10 +17,12 @@ package com.alilitech.mybatis.jpa.test;
 
 
 import com.alilitech.mybatis.MybatisJpaBootstrap;
+import com.alilitech.mybatis.MybatisJpaProperties;
 import com.alilitech.mybatis.jpa.criteria.UpdateSpecification;
 import com.alilitech.mybatis.jpa.criteria.expression.PredicateExpression;
 import com.alilitech.mybatis.jpa.criteria.specification.Specifications;
 import com.alilitech.mybatis.jpa.domain.*;
+import com.alilitech.mybatis.jpa.pagination.CountCache;
 import com.alilitech.mybatis.jpa.test.domain.*;
 import com.alilitech.mybatis.jpa.test.mapper.TestDeptMapper;
 import com.alilitech.mybatis.jpa.test.mapper.TestUserMapper;
@@ -30,6 +32,7 @@ import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.apache.ibatis.session.SqlSessionFactoryBuilder;
 import org.junit.After;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -252,6 +255,92 @@ public class JpaTest {
         });
     }
 
+    /**
+     * keyset分页演示
+     * 不计算总数，用上一页返回的token查询下一页，深度分页同样高效
+     */
+    @Test
+    public void keysetPageTest() {
+        KeysetPage<TestUser> page = new KeysetPage<>(null, 2, new Sort(Direction.DESC, "testUserId"));
+        do {
+            System.out.println(testUserMapper.findAllPage(page));
+            page.setToken(page.getNextToken());
+        } while (page.hasNext());
+
+        KeysetPage<TestUser> specificationPage = KeysetPage.first(2);
+        System.out.println(testUserMapper.findPageSpecification(specificationPage, Specifications.<TestUser>and()
+                .equal("deptNo", "002")
+                .order().desc("testUserId").build()));
+        specificationPage.setToken(specificationPage.getNextToken());
+        System.out.println(testUserMapper.findPageSpecification(specificationPage, Specifications.<TestUser>and()
+                .equal("deptNo", "002")
+                .order().desc("testUserId").build()));
+    }
+
+    /**
+     * 演示总数缓存，写入表后缓存失效
+     */
+    @Test
+    public void countCacheTest() throws IOException {
+        MybatisJpaProperties mybatisJpaProperties = new MybatisJpaProperties();
+        mybatisJpaProperties.getPage().setCountCacheSize(100);
+        SqlSessionFactory sqlSessionFactory = new SqlSessionFactoryBuilder().build(Resources.getResourceAsStream("mybatis-config.xml"));
+        new MybatisJpaBootstrap(sqlSessionFactory.getConfiguration()).setMybatisJpaProperties(mybatisJpaProperties).start();
+
+        // 事务中写过的会话在关闭前不使用缓存，所以用自动提交的会话演示
+        try (SqlSession autoCommitSession = sqlSessionFactory.openSession(true)) {
+            TestUserMapper mapper = autoCommitSession.getMapper(TestUserMapper.class);
+            CountCache countCache = CountCache.getInstance();
+            mapper.insert(new TestUser("9", "Count", Sex.MALE, 30, "004"));
+
+            Page<TestUser> page = Page.of(1, 2);
+            mapper.findAllPage(page);
+            long total = page.getTotal();
+            long hitCount = countCache.getCache().getHitCount();
+
+            // 第二次查询的总数来自缓存
+            mapper.findAllPage(Page.of(2, 2));
+            Assert.assertEquals(hitCount + 1, countCache.getCache().getHitCount());
+
+            // 删除后缓存失效，重新count
+            mapper.deleteById("9");
+            long missCount = countCache.getCache().getMissCount();
+            page = Page.of(1, 2);
+            mapper.findAllPage(page);
+            Assert.assertEquals(missCount + 1, countCache.getCache().getMissCount());
+            Assert.assertEquals(total - 1, page.getTotal());
+        } finally {
+            CountCache.getInstance().configure(0, 0);
+        }
+    }
+
+    /**
+     * 演示jdbc批量写入后总数缓存同样失效
+     */
+    @Test
+    public void countCacheJdbcBatchTest() throws IOException {
+        MybatisJpaProperties mybatisJpaProperties = new MybatisJpaProperties();
+        mybatisJpaProperties.getBatch().setJdbc(true);
+        mybatisJpaProperties.getPage().setCountCacheSize(100);
+        SqlSessionFactory sqlSessionFactory = new SqlSessionFactoryBuilder().build(Resources.getResourceAsStream("mybatis-config.xml"));
+        new MybatisJpaBootstrap(sqlSessionFactory.getConfiguration()).setMybatisJpaProperties(mybatisJpaProperties).start();
+
+        try (SqlSession autoCommitSession = sqlSessionFactory.openSession(true)) {
+            TestUserMapper mapper = autoCommitSession.getMapper(TestUserMapper.class);
+            Page<TestUser> page = Page.of(1, 2);
+            mapper.findAllPage(page);
+            long total = page.getTotal();
+
+            mapper.insertBatch(Arrays.asList(new TestUser("7", "Batch1", Sex.MALE, 30, "004"), new TestUser("8", "Batch2", Sex.MALE, 30, "004")));
+            mapper.findAllPage(page);
+            Assert.assertEquals(total + 2, page.getTotal());
+
+            mapper.deleteBatch(Arrays.asList("7", "8"));
+        } finally {
+            CountCache.getInstance().configure(0, 0);
+        }
+    }
+
     /**
      * 演示删除
      */
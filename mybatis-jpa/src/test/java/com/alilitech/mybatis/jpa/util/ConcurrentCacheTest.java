@@ -0,0 +1,88 @@
+/*
+ *    Copyright 2017-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.alilitech.mybatis.jpa.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Zhou Xiaoxiang
+ * @since 2.2.5
+ */
+public class ConcurrentCacheTest {
+
+    @Test
+    public void testPutAndRemoveDoesNotGrowQueue() {
+        ConcurrentCache<String, Integer> cache = new ConcurrentCache<>(10);
+        for (int i = 0; i < 1000000; i++) {
+            cache.put("key", i);
+            cache.remove("key");
+        }
+        assertEquals(0, cache.size());
+        assertTrue(cache.getQueueSize() <= 20);
+    }
+
+    @Test
+    public void testExpiredDoesNotGrowQueue() throws InterruptedException {
+        ConcurrentCache<String, Integer> cache = new ConcurrentCache<>(10, 0, null, 1);
+        for (int i = 0; i < 100; i++) {
+            cache.put("key", i);
+            Thread.sleep(2);
+            assertNull(cache.get("key"));
+        }
+        assertTrue(cache.getQueueSize() <= 20);
+    }
+
+    @Test
+    public void testEvictBySize() {
+        ConcurrentCache<Integer, Integer> cache = new ConcurrentCache<>(100);
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, i);
+            cache.put(i, i);
+        }
+        assertEquals(100, cache.size());
+        assertEquals(900, cache.getEvictionCount());
+        assertTrue(cache.getQueueSize() <= 200);
+        // 最近写入的保留
+        assertEquals(Integer.valueOf(999), cache.get(999));
+        assertNull(cache.get(0));
+    }
+
+    @Test
+    public void testSecondChance() {
+        ConcurrentCache<Integer, Integer> cache = new ConcurrentCache<>(2);
+        cache.put(1, 1);
+        cache.put(2, 2);
+        cache.get(1);
+        cache.put(3, 3);
+        assertNotNull(cache.get(1));
+        assertNull(cache.get(2));
+        assertNotNull(cache.get(3));
+    }
+
+    @Test
+    public void testEvictByWeight() {
+        ConcurrentCache<Integer, String> cache = new ConcurrentCache<>(100, 10, String::length);
+        cache.put(1, "12345");
+        cache.put(2, "12345");
+        cache.put(3, "1");
+        assertEquals(2, cache.size());
+        assertTrue(cache.getWeight() <= 10);
+        cache.remove(3);
+        assertEquals(5, cache.getWeight());
+    }
+}